@@ -0,0 +1,56 @@
+package com.example.astrogenesis.search;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * İndeks kurulumundaki çözme maliyeti: tüm korpusu JSON metinden ({@link EmbeddingCodec#parseJson})
+ * veya ikili kolondan ({@link EmbeddingCodec#fromBytes}) float[]'a çevirmek.
+ * <p>
+ * 1M JSON metni bellekte tutulamayacağı için 1024 farklı kodlanmış vektör döngüsel kullanılır;
+ * vektör başına maliyet içerikten bağımsızdır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class EmbeddingDecodingBenchmark {
+
+    private static final int POOL = 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private String[] json;
+    private byte[][] binary;
+
+    @Setup
+    public void setup() {
+        json = new String[POOL];
+        binary = new byte[POOL][];
+        for (int i = 0; i < POOL; i++) {
+            float[] vector = SyntheticCorpus.vector(i);
+            json[i] = Arrays.toString(vector);
+            binary[i] = EmbeddingCodec.toBytes(vector);
+        }
+    }
+
+    @Benchmark
+    public void json(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(EmbeddingCodec.parseJson(json[i & (POOL - 1)]));
+        }
+    }
+
+    @Benchmark
+    public void binary(Blackhole blackhole) {
+        for (int i = 0; i < size; i++) {
+            blackhole.consume(EmbeddingCodec.fromBytes(binary[i & (POOL - 1)]));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.astrogenesis.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bir sorgunun tüm korpusa karşı skorlanması (top-k seçimi olmadan), SIMD ve skaler kernel ile.
+ * SIMD modülü yoksa {@code simd} de skaler kernel'e düşer; hangisinin seçildiği setup'ta yazılır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SimilarityKernelBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"simd", "scalar"})
+    public String kernel;
+
+    private SimilarityKernel selected;
+    private float[] corpus;
+    private float[] query;
+    private float[] scores;
+
+    @Setup
+    public void setup() {
+        selected = "scalar".equals(kernel) ? SimilarityKernels.scalar() : SimilarityKernels.get();
+        System.out.println("kernel: " + selected.name());
+        corpus = SyntheticCorpus.flat(size);
+        query = SyntheticCorpus.vector(-1);
+        scores = new float[size];
+    }
+
+    @Benchmark
+    public float[] scoreCorpus() {
+        int dim = SyntheticCorpus.DIMENSION;
+        for (int row = 0; row < size; row++) {
+            scores[row] = selected.dot(query, 0, corpus, row * dim, dim);
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.astrogenesis.search;
+
+import java.util.SplittableRandom;
+
+/**
+ * Benchmark'lar için deterministik 384 boyutlu korpus (bge-small ile aynı boyut).
+ * Aynı {@code seed} her zaman aynı vektörü verir; böylece 1M'lik korpus diske yazılmadan yeniden üretilir.
+ */
+public final class SyntheticCorpus {
+
+    public static final int DIMENSION = 384;
+
+    private SyntheticCorpus() {
+    }
+
+    /**
+     * Normalize edilmiş tek vektör.
+     */
+    public static float[] vector(long seed) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + 1);
+        float[] vector = new float[DIMENSION];
+        for (int i = 0; i < DIMENSION; i++) vector[i] = (float) (random.nextDouble() * 2 - 1);
+        return EmbeddingCodec.normalize(vector);
+    }
+
+    /**
+     * Satırları art arda duran {@code size * DIMENSION} float (kernel benchmark'ı için).
+     */
+    public static float[] flat(int size) {
+        float[] data = new float[size * DIMENSION];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(vector(row), 0, data, row * DIMENSION, DIMENSION);
+        }
+        return data;
+    }
+
+    /**
+     * Yarısı yayın, yarısı OSDR olan heap indeksi; satır {@code i}'nin doküman id'si {@code i}'dir.
+     */
+    public static VectorIndex index(int size) {
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int row = 0; row < size; row++) {
+            builder.add(type(row), row, vector(row));
+        }
+        return builder.build();
+    }
+
+    public static DocType type(long docId) {
+        return docId % 2 == 0 ? DocType.PUBLICATION : DocType.OSDR;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.astrogenesis.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hazır skorlar üzerinde top-k seçimi: {@link TopK} min-heap'i ile tüm satırları kutulayıp sıralamak
+ * (önceki yaklaşım) karşılaştırılır. {@code -prof gc} farkı ayrıca gösterir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TopKBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"10", "100"})
+    public int k;
+
+    private float[] scores;
+    private int[] rows;
+    private float[] topScores;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        scores = new float[size];
+        for (int i = 0; i < size; i++) scores[i] = (float) (random.nextDouble() * 2 - 1);
+        rows = new int[k];
+        topScores = new float[k];
+    }
+
+    @Benchmark
+    public int[] heap() {
+        int found = 0;
+        for (int row = 0; row < size; row++) {
+            found = TopK.offer(rows, topScores, found, k, row, scores[row]);
+        }
+        TopK.sortDescending(rows, topScores, found);
+        return rows;
+    }
+
+    @Benchmark
+    public Integer[] sortAll() {
+        Integer[] order = new Integer[size];
+        for (int row = 0; row < size; row++) order[row] = row;
+        Arrays.sort(order, Comparator.comparingDouble((Integer row) -> scores[row]).reversed());
+        return Arrays.copyOf(order, Math.min(k, size));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.config.SearchIndexProperties;
+import com.example.astrogenesis.entity.OSDRDataset;
+import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.repository.DocumentEmbeddingRepository;
+import com.example.astrogenesis.repository.EmbeddingChangeRepository;
+import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.repository.PublicationPassageRepository;
+import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.search.SyntheticCorpus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Uçtan uca {@code findRelevantTexts}: indeks taraması ve dokümanların yüklenip metne çevrilmesi.
+ * Sorgu vektörü, tekrar eden sorguda olduğu gibi {@code embedQuery}'den hazır gelir. HuggingFace ve
+ * veritabanı Mockito ile taklit edilir; indeks gerçek {@link SemanticIndexService} ile ikili vektör
+ * satırlarından kurulur.
+ * <p>
+ * Servisin sorgu başına logları ölçümü boğmasın diye fork içinde stdout atılır.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class SearchFlowBenchmark {
+
+    private static final String MODEL = "bench-model";
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"exact", "quantized"})
+    public String mode;
+
+    private SemanticSearchService service;
+    private PrintStream stdout;
+
+    @Setup
+    public void setup() {
+        DocumentEmbeddingRepository embeddings = mock(DocumentEmbeddingRepository.class);
+        when(embeddings.findVectorsByModel(MODEL)).thenReturn(vectorRows(size));
+
+        EmbeddingStore embeddingStore = mock(EmbeddingStore.class);
+        when(embeddingStore.model()).thenReturn(MODEL);
+        when(embeddingStore.baseModel()).thenReturn("json-model"); // JSON kolonları okunmasın
+
+        PublicationRepository publications = mock(PublicationRepository.class);
+        when(publications.findAllById(any())).thenAnswer(invocation -> {
+            List<Publication> result = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                Publication publication = new Publication();
+                publication.setId(id);
+                publication.setTitle("Publication " + id);
+                publication.setSummary("Synthetic summary for publication " + id);
+                publication.setLink("https://example.org/publications/" + id);
+                result.add(publication);
+            }
+            return result;
+        });
+        OSDRDatasetRepository datasets = mock(OSDRDatasetRepository.class);
+        when(datasets.findAllById(any())).thenAnswer(invocation -> {
+            List<OSDRDataset> result = new ArrayList<>();
+            for (Long id : invocation.<Iterable<Long>>getArgument(0)) {
+                OSDRDataset dataset = new OSDRDataset();
+                dataset.setId(id);
+                dataset.setName("OSD-" + id);
+                dataset.setDescription("Synthetic description for dataset " + id);
+                result.add(dataset);
+            }
+            return result;
+        });
+
+        PublicationPassageRepository passages = mock(PublicationPassageRepository.class);
+
+        // Uygulamayla aynı varsayılanlar; sadece mod ve dosya yolları değişir
+        SearchIndexProperties properties = new Binder(new MapConfigurationPropertySource(Map.of(
+                "search.mode", mode,
+                "search.segments.dir", "target/jmh-index",
+                "search.snapshot.enabled", "false",
+                "search.snapshot.path", "target/jmh-index/vectors.snapshot")))
+                .bindOrCreate("search", SearchIndexProperties.class);
+        SemanticIndexService index = new SemanticIndexService(publications, datasets, embeddings,
+                mock(EmbeddingChangeRepository.class), passages, embeddingStore, properties);
+        index.state();
+
+        EmbeddingService embeddingService = mock(EmbeddingService.class);
+        when(embeddingService.embedQuery(anyString(), eq(MODEL)))
+                .thenAnswer(invocation -> EmbeddingCodec.normalize(SyntheticCorpus.vector(-1)));
+
+        service = new SemanticSearchService(publications, datasets, passages, embeddingService, index,
+                embeddingStore, new ShardCoordinator("", 2000));
+
+        stdout = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public List<String> findRelevantTexts() {
+        return service.findRelevantTexts("microgravity effects on bone density", 5);
+    }
+
+    /**
+     * {@code findVectorsByModel} satırları (tip, id, float32 baytları); satırlar istendikçe üretilir.
+     */
+    private static List<Object[]> vectorRows(int size) {
+        return new AbstractList<>() {
+            @Override
+            public Object[] get(int row) {
+                return new Object[]{SyntheticCorpus.type(row), (long) row,
+                        EmbeddingCodec.toBytes(SyntheticCorpus.vector(row))};
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
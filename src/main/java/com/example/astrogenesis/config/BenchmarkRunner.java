@@ -0,0 +1,31 @@
+package com.example.astrogenesis.config;
+
+import com.example.astrogenesis.service.RetrievalBenchmarkService;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code --spring.profiles.active=benchmark} ile açılışta retrieval benchmark'ını çalıştırır, raporu yazar
+ * ve uygulamayı kapatır (CI / regresyon karşılaştırması için).
+ */
+@Component
+@Profile("benchmark")
+public class BenchmarkRunner implements CommandLineRunner {
+
+    private final RetrievalBenchmarkService benchmarkService;
+    private final ApplicationContext context;
+
+    public BenchmarkRunner(RetrievalBenchmarkService benchmarkService, ApplicationContext context) {
+        this.benchmarkService = benchmarkService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        benchmarkService.run();
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
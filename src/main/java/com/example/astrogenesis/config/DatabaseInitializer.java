@@ -3,6 +3,7 @@ package com.example.astrogenesis.config;
 import com.example.astrogenesis.entity.Publication;
 import com.example.astrogenesis.repository.PublicationRepository;
 import com.example.astrogenesis.service.PublicationLoader;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -16,15 +17,22 @@ public class DatabaseInitializer {
 
     private final PublicationLoader loader;
     private final PublicationRepository repository;
+    private final boolean enabled;
 
-    public DatabaseInitializer(PublicationLoader loader, PublicationRepository repository) {
+    public DatabaseInitializer(PublicationLoader loader, PublicationRepository repository,
+                               @Value("${ingestion.startup.enabled:true}") boolean enabled) {
         this.loader = loader;
         this.repository = repository;
+        this.enabled = enabled;
     }
 
     @Bean
     CommandLineRunner initDatabase() {
         return args -> {
+            if (!enabled) {
+                System.out.println("ℹ️ Startup ingestion disabled, skipping CSV import.");
+                return;
+            }
             if (repository.count() > 0) {
                 System.out.println("ℹ️ Database already contains data, skipping initialization.");
                 return;
@@ -1,6 +1,7 @@
 package com.example.astrogenesis.config;
 
 import com.example.astrogenesis.service.OSDRIngestionService;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
@@ -8,13 +9,17 @@ import org.springframework.stereotype.Component;
 public class OSDRInitializer implements CommandLineRunner {
 
     private final OSDRIngestionService ingestionService;
+    private final boolean enabled;
 
-    public OSDRInitializer(OSDRIngestionService ingestionService) {
+    public OSDRInitializer(OSDRIngestionService ingestionService,
+                           @Value("${ingestion.startup.enabled:true}") boolean enabled) {
         this.ingestionService = ingestionService;
+        this.enabled = enabled;
     }
 
     @Override
     public void run(String... args) {
+        if (!enabled) return;
         ingestionService.fetchNewBiologicalData();
     }
 }
@@ -0,0 +1,49 @@
+package com.example.astrogenesis.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * {@code search.*} altındaki indeks ayarları ({@link com.example.astrogenesis.service.SemanticIndexService}).
+ * Varsayılanlar burada durur; application.properties'teki açıklamalar her anahtarın ne yaptığını anlatır.
+ *
+ * @param mode     exact | hnsw | quantized
+ * @param executor serial | parallel (kesin taramanın nasıl bölüneceği)
+ * @param storage  heap | mmap
+ */
+@ConfigurationProperties(prefix = "search")
+public record SearchIndexProperties(@DefaultValue("exact") String mode,
+                                    @DefaultValue Hnsw hnsw,
+                                    @DefaultValue Quantized quantized,
+                                    @DefaultValue("serial") String executor,
+                                    @DefaultValue Parallel parallel,
+                                    @DefaultValue("heap") String storage,
+                                    @DefaultValue Segments segments,
+                                    @DefaultValue Snapshot snapshot,
+                                    @DefaultValue Shard shard,
+                                    @DefaultValue Sync sync) {
+
+    public record Hnsw(@DefaultValue("16") int m,
+                       @DefaultValue("200") int efConstruction,
+                       @DefaultValue("64") int efSearch) {}
+
+    public record Quantized(@DefaultValue("200") int rerank,
+                            @DefaultValue("100") int recallSample) {}
+
+    /** @param poolSize 0 → işlemci sayısı */
+    public record Parallel(@DefaultValue("50000") int threshold,
+                           @DefaultValue("0") int poolSize) {}
+
+    public record Segments(@DefaultValue("data/index") String dir,
+                           @DefaultValue("4096") int tailMax,
+                           @DefaultValue("8") int mergeFactor) {}
+
+    public record Snapshot(@DefaultValue("true") boolean enabled,
+                           @DefaultValue("data/index/vectors.snapshot") String path) {}
+
+    public record Shard(@DefaultValue("0") int index,
+                        @DefaultValue("1") int count) {}
+
+    /** @param gapTimeoutMs ChangeLogTailer ile aynı: bundan yeni sıra numaraları kesin sayılmaz */
+    public record Sync(@DefaultValue("10000") long gapTimeoutMs) {}
+}
@@ -2,6 +2,7 @@ package com.example.astrogenesis.controller;
 
 import com.example.astrogenesis.entity.ChatHistory;
 import com.example.astrogenesis.repository.ChatHistoryRepository;
+import com.example.astrogenesis.search.SearchFilter;
 import com.example.astrogenesis.service.LLMService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Controller;
@@ -44,7 +45,9 @@ public class AIController {
         System.out.println("👥 [AI Controller] Audience: " + audience);
 
         // 🚀 RAG + audience-specific analysis + visualization
-        Map<String, Object> report = llmService.generateAnalyticalReport(query, audience);
+        // Opsiyonel filtreler: source, from, to, category, keyword
+        SearchFilter filter = SearchFilter.fromParams(payload);
+        Map<String, Object> report = llmService.generateAnalyticalReport(query, audience, filter);
 
         System.out.println("📊 [AI Controller] Report keys: " + report.keySet());
 
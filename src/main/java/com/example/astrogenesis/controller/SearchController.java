@@ -0,0 +1,93 @@
+package com.example.astrogenesis.controller;
+
+import com.example.astrogenesis.search.RetrievedDocument;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.service.EmbeddingService;
+import com.example.astrogenesis.service.SemanticSearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SemanticSearchService semanticSearchService;
+    private final EmbeddingService embeddingService;
+    private final int maxQueries;
+    private final int maxLimit;
+
+    public SearchController(SemanticSearchService semanticSearchService,
+                            EmbeddingService embeddingService,
+                            @Value("${search.batch.max-queries:500}") int maxQueries,
+                            @Value("${search.max-limit:50}") int maxLimit) {
+        this.semanticSearchService = semanticSearchService;
+        this.embeddingService = embeddingService;
+        this.maxQueries = maxQueries;
+        this.maxLimit = maxLimit;
+    }
+
+    // 🔹 Sorgu vektörü önbelleği sayaçları: size, hits, misses, evictions, hitRate
+    @GetMapping("/query-cache")
+    @ResponseBody
+    public Map<String, Object> queryCache() {
+        return embeddingService.queryCacheStats();
+    }
+
+    // 🔹 Toplu arama: {queries: [...], limit, source, from, to, category, keyword}
+    @PostMapping("/batch")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> batch(@RequestBody Map<String, Object> payload) {
+        List<String> queries = new ArrayList<>();
+        if (payload.get("queries") instanceof List<?> list) {
+            for (Object query : list) queries.add(query != null ? query.toString() : null);
+        }
+        if (queries.isEmpty() || queries.size() > maxQueries) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "Provide between 1 and " + maxQueries + " queries."));
+        }
+        // Sınırsız limit her sorgu için devasa top-k heap'i ve doküman yüklemesi demek
+        int limit = payload.get("limit") instanceof Number n ? n.intValue() : 5;
+        if (limit < 1 || limit > maxLimit) {
+            return ResponseEntity.badRequest().body(Map.of("error",
+                    "limit must be between 1 and " + maxLimit + "."));
+        }
+
+        // Opsiyonel filtreler: source, from, to, category, keyword
+        Map<String, String> params = new HashMap<>();
+        payload.forEach((key, value) -> {
+            if (value instanceof String text) params.put(key, text);
+        });
+        SearchFilter filter = SearchFilter.fromParams(params);
+
+        List<List<RetrievedDocument>> documents = semanticSearchService.findRelevantDocuments(queries, limit, filter);
+
+        List<Map<String, Object>> results = new ArrayList<>(queries.size());
+        for (int q = 0; q < queries.size(); q++) {
+            List<Map<String, Object>> hits = new ArrayList<>();
+            for (RetrievedDocument document : documents.get(q)) {
+                Map<String, Object> hit = new LinkedHashMap<>();
+                hit.put("id", document.hit().id());
+                hit.put("source", document.source());
+                hit.put("score", document.hit().score());
+                hit.put("title", document.title());
+                if (document.section() != null) hit.put("section", document.section());
+                hit.put("link", document.link());
+                hit.put("doi", document.doi());
+                hits.add(hit);
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("query", queries.get(q));
+            result.put("results", hits);
+            results.add(result);
+        }
+        return ResponseEntity.ok(Map.of("results", results));
+    }
+}
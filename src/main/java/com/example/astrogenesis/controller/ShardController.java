@@ -0,0 +1,127 @@
+package com.example.astrogenesis.controller;
+
+import com.example.astrogenesis.search.RetrievalMode;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.search.SearchHit;
+import com.example.astrogenesis.service.SemanticIndexService;
+import com.example.astrogenesis.service.SemanticSearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scatter-gather işçi uç noktası: koordinatörün gönderdiği normalize sorgu vektörüyle bu sürecin
+ * parçası üzerinde top-k döner. Sorgu burada embed edilmez.
+ */
+@Controller
+@RequestMapping("/shard")
+public class ShardController {
+
+    private final SemanticIndexService semanticIndexService;
+    private final SemanticSearchService semanticSearchService;
+    private final int maxLimit;
+
+    public ShardController(SemanticIndexService semanticIndexService, SemanticSearchService semanticSearchService,
+                           @Value("${search.max-limit:50}") int maxLimit) {
+        this.semanticIndexService = semanticIndexService;
+        this.semanticSearchService = semanticSearchService;
+        // Koordinatör makale başına tekilleştirme için limitin MAX_OVERFETCH katına kadar ister
+        this.maxLimit = maxLimit * SemanticSearchService.MAX_OVERFETCH;
+    }
+
+    // 🔹 İstek: {vector, model, limit, mode, filter{source, from, to, category, keyword}}
+    @PostMapping("/search")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> search(@RequestBody Map<String, Object> payload) {
+        SemanticIndexService.IndexState state = semanticIndexService.state();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("shard", semanticIndexService.partition().index());
+        response.put("shards", semanticIndexService.partition().count());
+        response.put("epoch", state.epoch());
+        response.put("model", state.model());
+
+        // Sorgu başka bir modelle embed edildiyse skorlar anlamsız olur
+        Object model = payload.get("model");
+        if (model != null && !model.equals(state.model())) {
+            response.put("error", "Index is built with " + state.model());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+
+        // İstemci girdisi doğrulanır: hatalı tip/değer 500 değil 400 döner (SearchController.batch gibi)
+        float[] query = parseVector(payload.get("vector"));
+        int dimension = state.vectors().dimension();
+        if (query == null || (state.vectors().size() > 0 && query.length != dimension)) {
+            return badRequest(response, "vector must be a list of " + dimension + " numbers.");
+        }
+
+        Object limitValue = payload.getOrDefault("limit", 5);
+        int limit = limitValue instanceof Number n ? n.intValue() : -1;
+        if (limit < 1 || limit > maxLimit) {
+            return badRequest(response, "limit must be between 1 and " + maxLimit + ".");
+        }
+
+        RetrievalMode mode = semanticIndexService.defaultMode();
+        if (payload.get("mode") != null) {
+            mode = parseMode(payload.get("mode"));
+            if (mode == null) {
+                return badRequest(response, "mode must be one of " + Arrays.toString(RetrievalMode.values()) + ".");
+            }
+        }
+
+        Map<String, String> params = new HashMap<>();
+        if (payload.get("filter") instanceof Map<?, ?> map) {
+            map.forEach((key, value) -> {
+                if (key instanceof String name && value instanceof String text) params.put(name, text);
+            });
+        } else if (payload.get("filter") != null) {
+            return badRequest(response, "filter must be an object.");
+        }
+        SearchFilter filter = SearchFilter.fromParams(params);
+
+        List<SearchHit> hits = semanticSearchService.searchIndex(state, query, limit, mode,
+                semanticIndexService.defaultExecutor(), filter);
+
+        List<Map<String, Object>> results = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            results.add(Map.of("id", hit.id(), "type", hit.type().name(), "score", hit.score()));
+        }
+        response.put("hits", results);
+        return ResponseEntity.ok(response);
+    }
+
+    private static ResponseEntity<Map<String, Object>> badRequest(Map<String, Object> response, String error) {
+        response.put("error", error);
+        return ResponseEntity.badRequest().body(response);
+    }
+
+    // Sayı listesi değilse null
+    private static float[] parseVector(Object value) {
+        if (!(value instanceof List<?> values) || values.isEmpty()) return null;
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            if (!(values.get(i) instanceof Number number)) return null;
+            vector[i] = number.floatValue();
+        }
+        return vector;
+    }
+
+    // Bilinmeyen mod ise null
+    private static RetrievalMode parseMode(Object value) {
+        if (!(value instanceof String text)) return null;
+        try {
+            return RetrievalMode.valueOf(text.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.astrogenesis.controller;
+
+import com.example.astrogenesis.service.ResilienceService;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.List;
+import java.util.Map;
+
+@Controller
+@RequestMapping("/status")
+public class StatusController {
+
+    private final ResilienceService resilience;
+
+    public StatusController(ResilienceService resilience) {
+        this.resilience = resilience;
+    }
+
+    // 🔹 Dış bağımlılık devreleri: name, state, consecutiveFailures, successes, failures, rejected, retryInMs
+    @GetMapping("/dependencies")
+    @ResponseBody
+    public List<Map<String, Object>> dependencies() {
+        return resilience.snapshot();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.astrogenesis.entity;
+
+import com.example.astrogenesis.search.DocType;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Doküman embedding'lerinin ikili (little-endian float32) gösterimi.
+ * Doküman tipi + id + model adı ile anahtarlanır; JSON TEXT kolonlarının yerini alır.
+ */
+@Entity
+@Table(name = "document_embeddings",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"doc_type", "doc_id", "model"}),
+        indexes = @Index(name = "idx_document_embeddings_model", columnList = "model"))
+public class DocumentEmbedding {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "doc_type", nullable = false, length = 20)
+    private DocType docType;
+
+    @Column(name = "doc_id", nullable = false)
+    private Long docId;
+
+    @Column(nullable = false, length = 200)
+    private String model;
+
+    @Column(nullable = false)
+    private int dimension;
+
+    // 🔹 dimension * 4 byte, little-endian float32
+    @Column(nullable = false, length = 16384)
+    private byte[] vector;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public DocType getDocType() { return docType; }
+    public void setDocType(DocType docType) { this.docType = docType; }
+
+    public Long getDocId() { return docId; }
+    public void setDocId(Long docId) { this.docId = docId; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public int getDimension() { return dimension; }
+    public void setDimension(int dimension) { this.dimension = dimension; }
+
+    public byte[] getVector() { return vector; }
+    public void setVector(byte[] vector) { this.vector = vector; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
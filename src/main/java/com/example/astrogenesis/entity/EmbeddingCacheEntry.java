@@ -0,0 +1,68 @@
+package com.example.astrogenesis.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * İçerik adresli embedding önbelleği: temizlenmiş metnin SHA-256'sı + model adı → vektör.
+ * Aynı metin (tekrarlanan sorgu, ortak protokol açıklaması, yeniden yükleme) ikinci kez API'ye gitmez.
+ */
+@Entity
+@Table(name = "embedding_cache",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"text_hash", "model"}))
+public class EmbeddingCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // 🔹 Küçük harf hex SHA-256 (64 karakter)
+    @Column(name = "text_hash", nullable = false, length = 64)
+    private String textHash;
+
+    @Column(nullable = false, length = 200)
+    private String model;
+
+    @Column(nullable = false)
+    private int dimension;
+
+    // 🔹 dimension * 4 byte, little-endian float32
+    @Column(nullable = false, length = 16384)
+    private byte[] vector;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public EmbeddingCacheEntry() {}
+
+    public EmbeddingCacheEntry(String textHash, String model, int dimension, byte[] vector) {
+        this.textHash = textHash;
+        this.model = model;
+        this.dimension = dimension;
+        this.vector = vector;
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTextHash() { return textHash; }
+    public void setTextHash(String textHash) { this.textHash = textHash; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public int getDimension() { return dimension; }
+    public void setDimension(int dimension) { this.dimension = dimension; }
+
+    public byte[] getVector() { return vector; }
+    public void setVector(byte[] vector) { this.vector = vector; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,61 @@
+package com.example.astrogenesis.entity;
+
+import com.example.astrogenesis.search.DocType;
+import jakarta.persistence.*;
+import org.hibernate.annotations.CurrentTimestamp;
+import org.hibernate.annotations.SourceType;
+import java.time.LocalDateTime;
+
+/**
+ * {@code document_embeddings}'e yapılan her yazımın append-only kaydı.
+ * {@code id} artan bir sıra numarasıdır; her uygulama örneği bu tabloyu takip edip
+ * kendi bellek içi indeksine sadece değişenleri uygular.
+ */
+@Entity
+@Table(name = "embedding_changes",
+        indexes = @Index(name = "idx_embedding_changes_created_at", columnList = "created_at"))
+public class EmbeddingChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "doc_type", nullable = false, length = 20)
+    private DocType docType;
+
+    @Column(name = "doc_id", nullable = false)
+    private Long docId;
+
+    @Column(nullable = false, length = 200)
+    private String model;
+
+    // Veritabanı saatiyle damgalanır: örnekler arası saat farkı boşluk tespitini (bkz. ChangeLogTailer) bozmasın
+    @CurrentTimestamp(source = SourceType.DB)
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public EmbeddingChange() {}
+
+    public EmbeddingChange(DocType docType, Long docId, String model) {
+        this.docType = docType;
+        this.docId = docId;
+        this.model = model;
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public DocType getDocType() { return docType; }
+    public void setDocType(DocType docType) { this.docType = docType; }
+
+    public Long getDocId() { return docId; }
+    public void setDocId(Long docId) { this.docId = docId; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
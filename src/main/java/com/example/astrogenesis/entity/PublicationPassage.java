@@ -0,0 +1,70 @@
+package com.example.astrogenesis.entity;
+
+import com.example.astrogenesis.search.PaperSection;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Bir yayının PMC tam metninden çıkarılmış pasajı (bölüm etiketiyle).
+ * Embedding'i {@code document_embeddings}'te {@code DocType.PASSAGE} + bu satırın id'si ile tutulur;
+ * arama pasaj düzeyinde yapılır, LLM'e sadece eşleşen pasaj gider.
+ */
+@Entity
+@Table(name = "publication_passages",
+        indexes = @Index(name = "idx_publication_passages_publication", columnList = "publication_id"))
+public class PublicationPassage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "publication_id", nullable = false)
+    private Long publicationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaperSection section;
+
+    // 🔹 Yayın içindeki sıra (0'dan başlar)
+    @Column(nullable = false)
+    private int position;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String text;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public PublicationPassage() {}
+
+    public PublicationPassage(Long publicationId, PaperSection section, int position, String text) {
+        this.publicationId = publicationId;
+        this.section = section;
+        this.position = position;
+        this.text = text;
+    }
+
+    // Getters & Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getPublicationId() { return publicationId; }
+    public void setPublicationId(Long publicationId) { this.publicationId = publicationId; }
+
+    public PaperSection getSection() { return section; }
+    public void setSection(PaperSection section) { this.section = section; }
+
+    public int getPosition() { return position; }
+    public void setPosition(int position) { this.position = position; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,31 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.DocumentEmbedding;
+import com.example.astrogenesis.search.DocType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DocumentEmbeddingRepository extends JpaRepository<DocumentEmbedding, Long> {
+
+    Optional<DocumentEmbedding> findByDocTypeAndDocIdAndModel(DocType docType, Long docId, String model);
+
+    List<DocumentEmbedding> findByDocTypeAndModelAndDocIdIn(DocType docType, String model, Collection<Long> docIds);
+
+    // 🔹 İndeks kurulumu için: tip, id ve ham vektör baytları
+    @Query("SELECT e.docType, e.docId, e.vector FROM DocumentEmbedding e WHERE e.model = :model")
+    List<Object[]> findVectorsByModel(@Param("model") String model);
+
+    @Query("SELECT e.docId FROM DocumentEmbedding e WHERE e.docType = :type AND e.model = :model")
+    List<Long> findDocIds(@Param("type") DocType type, @Param("model") String model);
+
+    // 🔹 Snapshot geçerlilik kontrolü: modelin satır sayısı
+    @Query("SELECT COUNT(e) FROM DocumentEmbedding e WHERE e.model = :model")
+    long countByModel(@Param("model") String model);
+}
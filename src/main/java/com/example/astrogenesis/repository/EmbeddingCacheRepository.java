@@ -0,0 +1,18 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.EmbeddingCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmbeddingCacheRepository extends JpaRepository<EmbeddingCacheEntry, Long> {
+
+    // 🔹 Toplu önbellek okuması: textHash, ham vektör baytları
+    @Query("SELECT c.textHash, c.vector FROM EmbeddingCacheEntry c WHERE c.model = :model AND c.textHash IN :hashes")
+    List<Object[]> findVectors(@Param("model") String model, @Param("hashes") Collection<String> hashes);
+}
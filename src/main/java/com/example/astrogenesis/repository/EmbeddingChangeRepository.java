@@ -0,0 +1,51 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.EmbeddingChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmbeddingChangeRepository extends JpaRepository<EmbeddingChange, Long> {
+
+    // 🔹 Sıra numarasından sonraki değişiklikler ve güncel vektörleri: id, recent, docType, docId, model, vector
+    // (embedding silinmişse vector null). recent: kayıt veritabanı saatine göre son gapMs içinde yazıldı
+    @Query("""
+        SELECT c.id, CASE WHEN c.createdAt > LOCAL_DATETIME - (:gapMs * 1000000L) NANOSECOND THEN TRUE ELSE FALSE END,
+               c.docType, c.docId, c.model, e.vector FROM EmbeddingChange c
+        LEFT JOIN DocumentEmbedding e ON e.docType = c.docType AND e.docId = c.docId AND e.model = c.model
+        WHERE c.id > :afterId
+        ORDER BY c.id
+    """)
+    List<Object[]> findChangesAfter(@Param("afterId") long afterId, @Param("gapMs") long gapMs, Pageable page);
+
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM EmbeddingChange c")
+    long findLastId();
+
+    // 🔹 Snapshot sürümü: veritabanı saatine göre gapMs'den önce yazılmış (commit olmuş sayılan) son sıra numarası
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM EmbeddingChange c WHERE c.createdAt <= LOCAL_DATETIME - (:gapMs * 1000000L) NANOSECOND")
+    long findLastSettledId(@Param("gapMs") long gapMs);
+
+    @Query("SELECT COALESCE(MIN(c.id), 0) FROM EmbeddingChange c")
+    long findFirstId();
+
+    // 🔹 Snapshot catch-up: sıra numarasından sonra bir modelde değişen dokümanlar ve güncel vektörleri:
+    // id, docType, docId, vector (embedding silinmişse vector null)
+    @Query("""
+        SELECT c.id, c.docType, c.docId, e.vector FROM EmbeddingChange c
+        LEFT JOIN DocumentEmbedding e ON e.docType = c.docType AND e.docId = c.docId AND e.model = c.model
+        WHERE c.id > :afterId AND c.model = :model
+        ORDER BY c.id
+    """)
+    List<Object[]> findModelChangesAfter(@Param("afterId") long afterId, @Param("model") String model);
+
+    @Modifying
+    @Query("DELETE FROM EmbeddingChange c WHERE c.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
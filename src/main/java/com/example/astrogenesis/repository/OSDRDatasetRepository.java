@@ -1,12 +1,80 @@
 package com.example.astrogenesis.repository;
 
 import com.example.astrogenesis.entity.OSDRDataset;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface OSDRDatasetRepository extends JpaRepository<OSDRDataset, Long> {
     List<OSDRDataset> findByName(String name);
-    List<OSDRDataset> findByEmbeddingVectorIsNull(); // 🔹 eksik embedding’leri bulmak için
+
+    // 🔹 Hiç embedding'i olmayan (JSON yok ya da boş, {@code model} ile ikili satır yok) datasetler: description, name (keyset backfill)
+    @Query("""
+        SELECT d.id, d.description, d.name FROM OSDRDataset d
+        WHERE d.id > :afterId AND (d.embeddingVector IS NULL OR LENGTH(TRIM(d.embeddingVector)) = 0)
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.OSDR
+                            AND e.docId = d.id AND e.model = :model)
+        ORDER BY d.id
+    """)
+    List<Object[]> findUnembedded(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    // 🔹 Henüz ikili tabloya taşınmamış JSON embedding'ler (id sırasıyla, keyset sayfalama)
+    @Query("""
+        SELECT d.id, d.embeddingVector FROM OSDRDataset d
+        WHERE d.id > :afterId AND d.embeddingVector IS NOT NULL
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.OSDR
+                            AND e.docId = d.id AND e.model = :model)
+        ORDER BY d.id
+    """)
+    List<Object[]> findUnmigratedEmbeddings(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    // 🔹 Embedding'i olup {@code model} ile henüz embed edilmemiş dokümanlar: name, description (blue/green yeniden embed)
+    @Query("""
+        SELECT d.id, d.name, d.description FROM OSDRDataset d
+        WHERE d.id > :afterId
+          AND (d.embeddingVector IS NOT NULL
+               OR EXISTS (SELECT 1 FROM DocumentEmbedding o
+                          WHERE o.docType = com.example.astrogenesis.search.DocType.OSDR AND o.docId = d.id))
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.OSDR
+                            AND e.docId = d.id AND e.model = :model)
+        ORDER BY d.id
+    """)
+    List<Object[]> findMissingModel(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    @Query("""
+        SELECT COUNT(d) FROM OSDRDataset d
+        WHERE (d.embeddingVector IS NOT NULL
+               OR EXISTS (SELECT 1 FROM DocumentEmbedding o
+                          WHERE o.docType = com.example.astrogenesis.search.DocType.OSDR AND o.docId = d.id))
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.OSDR
+                            AND e.docId = d.id AND e.model = :model)
+    """)
+    long countMissingModel(@Param("model") String model);
+
+    @Modifying
+    @Query("UPDATE OSDRDataset d SET d.embeddingVector = NULL WHERE d.id IN :ids")
+    int clearEmbeddingVectors(@Param("ids") List<Long> ids);
+
+    // 🔹 Arama filtreleri için metadata: id, experimentDate, category, name, description
+    // (description'ı boş olanlar aranabilir sayılmaz)
+    @Query("""
+        SELECT d.id, d.experimentDate, d.category, d.name, d.description FROM OSDRDataset d
+        WHERE LENGTH(TRIM(d.description)) > 0
+    """)
+    List<Object[]> findSearchMetadata();
+
+    @Query("""
+        SELECT d.id, d.experimentDate, d.category, d.name, d.description FROM OSDRDataset d
+        WHERE d.id IN :ids AND LENGTH(TRIM(d.description)) > 0
+    """)
+    List<Object[]> findSearchMetadataByIds(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,52 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.PublicationPassage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface PublicationPassageRepository extends JpaRepository<PublicationPassage, Long> {
+
+    // 🔹 Henüz pasajlara ayrılmamış yayınlar: id, link, content (id sırasıyla, keyset sayfalama)
+    @Query("""
+        SELECT p.id, p.link, p.content FROM Publication p
+        WHERE p.id > :afterId
+          AND NOT EXISTS (SELECT 1 FROM PublicationPassage s WHERE s.publicationId = p.id)
+        ORDER BY p.id
+    """)
+    List<Object[]> findUnsplitPublications(@Param("afterId") long afterId, Pageable page);
+
+    // 🔹 {@code model} ile embed edilmemiş pasajlar: id, yayın başlığı, bölüm, metin
+    @Query("""
+        SELECT s.id, p.title, s.section, s.text FROM PublicationPassage s, Publication p
+        WHERE p.id = s.publicationId AND s.id > :afterId
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.PASSAGE
+                            AND e.docId = s.id AND e.model = :model)
+        ORDER BY s.id
+    """)
+    List<Object[]> findMissingModel(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    @Query("""
+        SELECT COUNT(s) FROM PublicationPassage s
+        WHERE NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.PASSAGE
+                            AND e.docId = s.id AND e.model = :model)
+    """)
+    long countMissingModel(@Param("model") String model);
+
+    // 🔹 Arama filtreleri için metadata (yayından miras): id, publicationDate, title, keywords
+    @Query("""
+        SELECT s.id, p.publicationDate, p.title, p.keywords FROM PublicationPassage s, Publication p
+        WHERE p.id = s.publicationId
+    """)
+    List<Object[]> findSearchMetadata();
+
+    @Query("""
+        SELECT s.id, p.publicationDate, p.title, p.keywords FROM PublicationPassage s, Publication p
+        WHERE p.id = s.publicationId AND s.id IN :ids
+    """)
+    List<Object[]> findSearchMetadataByIds(@Param("ids") List<Long> ids);
+}
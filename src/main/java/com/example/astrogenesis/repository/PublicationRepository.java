@@ -1,7 +1,9 @@
 package com.example.astrogenesis.repository;
 
 import com.example.astrogenesis.entity.Publication;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import java.util.List;
@@ -14,4 +16,69 @@ public interface PublicationRepository extends JpaRepository<Publication, Long>
            OR LOWER(CAST(p.summary AS string)) LIKE LOWER(CONCAT('%', :query, '%'))
     """)
     List<Publication> searchPublications(@Param("query") String query);
+
+    // 🔹 Henüz ikili tabloya taşınmamış JSON embedding'ler (id sırasıyla, keyset sayfalama)
+    @Query("""
+        SELECT p.id, p.embeddingVector FROM Publication p
+        WHERE p.id > :afterId AND p.embeddingVector IS NOT NULL
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.PUBLICATION
+                            AND e.docId = p.id AND e.model = :model)
+        ORDER BY p.id
+    """)
+    List<Object[]> findUnmigratedEmbeddings(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    // 🔹 Hiç embedding'i olmayan (JSON yok ya da boş, {@code model} ile ikili satır yok) yayınlar: summary, title (keyset backfill)
+    @Query("""
+        SELECT p.id, p.summary, p.title FROM Publication p
+        WHERE p.id > :afterId AND (p.embeddingVector IS NULL OR LENGTH(TRIM(p.embeddingVector)) = 0)
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.PUBLICATION
+                            AND e.docId = p.id AND e.model = :model)
+        ORDER BY p.id
+    """)
+    List<Object[]> findUnembedded(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    // 🔹 Embedding'i olup {@code model} ile henüz embed edilmemiş dokümanlar: title, summary (blue/green yeniden embed)
+    @Query("""
+        SELECT p.id, p.title, p.summary FROM Publication p
+        WHERE p.id > :afterId
+          AND (p.embeddingVector IS NOT NULL
+               OR EXISTS (SELECT 1 FROM DocumentEmbedding o
+                          WHERE o.docType = com.example.astrogenesis.search.DocType.PUBLICATION AND o.docId = p.id))
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.PUBLICATION
+                            AND e.docId = p.id AND e.model = :model)
+        ORDER BY p.id
+    """)
+    List<Object[]> findMissingModel(@Param("afterId") long afterId, @Param("model") String model, Pageable page);
+
+    @Query("""
+        SELECT COUNT(p) FROM Publication p
+        WHERE (p.embeddingVector IS NOT NULL
+               OR EXISTS (SELECT 1 FROM DocumentEmbedding o
+                          WHERE o.docType = com.example.astrogenesis.search.DocType.PUBLICATION AND o.docId = p.id))
+          AND NOT EXISTS (SELECT 1 FROM DocumentEmbedding e
+                          WHERE e.docType = com.example.astrogenesis.search.DocType.PUBLICATION
+                            AND e.docId = p.id AND e.model = :model)
+    """)
+    long countMissingModel(@Param("model") String model);
+
+    @Modifying
+    @Query("UPDATE Publication p SET p.embeddingVector = NULL WHERE p.id IN :ids")
+    int clearEmbeddingVectors(@Param("ids") List<Long> ids);
+
+    // 🔹 Arama filtreleri için metadata: id, publicationDate, title, keywords
+    // (summary ve content'i boş olanlar RAG'a metin veremez, aranabilir sayılmaz)
+    @Query("""
+        SELECT p.id, p.publicationDate, p.title, p.keywords FROM Publication p
+        WHERE LENGTH(TRIM(p.summary)) > 0 OR LENGTH(TRIM(p.content)) > 0
+    """)
+    List<Object[]> findSearchMetadata();
+
+    @Query("""
+        SELECT p.id, p.publicationDate, p.title, p.keywords FROM Publication p
+        WHERE p.id IN :ids AND (LENGTH(TRIM(p.summary)) > 0 OR LENGTH(TRIM(p.content)) > 0)
+    """)
+    List<Object[]> findSearchMetadataByIds(@Param("ids") List<Long> ids);
 }
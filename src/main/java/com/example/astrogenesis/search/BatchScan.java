@@ -0,0 +1,70 @@
+package com.example.astrogenesis.search;
+
+import java.util.BitSet;
+
+/**
+ * Birden fazla sorguyu tek geçişte skorlayan kesin tarama: sorgu × doküman matrisi bloklar halinde çarpılır.
+ * <p>
+ * Sorgular, bir blok L2 önbelleğe sığacak büyüklükte gruplara ayrılır. Her grup için depo bir kez taranır ve
+ * her satır okunduktan sonra gruptaki tüm sorgularla çarpılır ({@link VectorStore#dot(int, float[][], int, int, float[])}).
+ * Böylece N sorgu için korpus N kez değil {@code ceil(N / blok)} kez bellekten okunur.
+ */
+public final class BatchScan {
+
+    private static final int CACHE_BYTES = 256 * 1024;
+    private static final int MAX_QUERY_BLOCK = 64;
+
+    private BatchScan() {}
+
+    /**
+     * Her sorgu için en iyi {@code rows[q].length} satırı skora göre azalan sırada yazar.
+     * {@code filter} verilirse sadece bitleri set edilmiş satırlar skorlanır.
+     *
+     * @return sorgu başına bulunan sonuç sayısı
+     */
+    public static int[] topK(VectorStore store, float[][] queries, BitSet filter, int[][] rows, float[][] scores) {
+        int[] found = new int[queries.length];
+        int dim = store.dimension();
+        int size = store.size();
+
+        // Boyutu tutmayan sorgular atlanır (sonuçları boş kalır)
+        int[] valid = new int[queries.length];
+        int n = 0;
+        for (int q = 0; q < queries.length; q++) {
+            if (queries[q] != null && queries[q].length == dim && Math.min(rows[q].length, scores[q].length) > 0) {
+                valid[n++] = q;
+            }
+        }
+        if (n == 0 || size == 0) return found;
+
+        int block = queryBlock(dim);
+        float[][] group = new float[block][];
+        float[] out = new float[block];
+        for (int start = 0; start < n; start += block) {
+            int count = Math.min(block, n - start);
+            for (int i = 0; i < count; i++) group[i] = queries[valid[start + i]];
+
+            for (int row = VectorStore.next(filter, 0); row >= 0 && row < size; row = VectorStore.next(filter, row + 1)) {
+                if (!store.isLive(row)) continue;
+                store.dot(row, group, 0, count, out);
+                for (int i = 0; i < count; i++) {
+                    int q = valid[start + i];
+                    found[q] = TopK.offer(rows[q], scores[q], found[q], Math.min(rows[q].length, scores[q].length),
+                            row, out[i]);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                int q = valid[start + i];
+                found[q] = TopK.sortDescending(rows[q], scores[q], found[q]);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Bir grup sorgunun önbelleğe sığacağı sorgu sayısı.
+     */
+    static int queryBlock(int dimension) {
+        return Math.max(1, Math.min(MAX_QUERY_BLOCK, CACHE_BYTES / (Math.max(1, dimension) * Float.BYTES)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Veritabanındaki embedding kümesinin ucuz bir sürüm özeti: modelin satır sayısı ve kesin görünür sayılan son
+ * {@code embedding_changes} sıra numarası (değişiklik yoksa 0). Snapshot'ın hâlâ geçerli olup olmadığına,
+ * değilse hangi satırların sonradan geldiğine bununla karar verilir. Sonradan gelenler zamanla değil sıra
+ * numarasıyla okunur, aynı milisaniyedeki yazımlar da kaçırılmaz. Saat sadece henüz commit olmamış olabilecek
+ * son kayıtları dışarıda bırakmak için kullanılır; o da veritabanı saatidir (örnekler arası saat farkı etkilemez).
+ */
+public record CorpusVersion(long count, long changeSeq) {
+}
@@ -0,0 +1,30 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Arama indeksindeki dokümanın kaynağı (Publication, OSDR dataset veya bir yayının tam metin pasajı).
+ * Sıra önemlidir: ordinal snapshot/segment dosyalarına yazılır, yeni tipler sona eklenir.
+ */
+public enum DocType {
+
+    PUBLICATION("Publication"),
+    OSDR("OSDR"),
+    // PMC tam metninden bir bölüm parçası; id = publication_passages.id. Kaynak olarak yine "Publication"
+    PASSAGE("Publication");
+
+    private static final DocType[] VALUES = values();
+
+    private final String label;
+
+    DocType(String label) {
+        this.label = label;
+    }
+
+    /** Prompt ve kaynak listelerinde kullanılan etiket ("Publication", "OSDR") */
+    public String label() {
+        return label;
+    }
+
+    public static DocType fromOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
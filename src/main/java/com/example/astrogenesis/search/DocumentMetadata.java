@@ -0,0 +1,13 @@
+package com.example.astrogenesis.search;
+
+import java.time.LocalDate;
+
+/**
+ * Filtrelemede kullanılan doküman alanları.
+ *
+ * @param date        publicationDate veya experimentDate (yoksa null)
+ * @param category    OSDR kategorisi / uçuş programı (yayınlar için null)
+ * @param keywordText anahtar kelime filtresi için indekslenen metin
+ */
+public record DocumentMetadata(LocalDate date, String category, String keywordText) {
+}
@@ -0,0 +1,95 @@
+package com.example.astrogenesis.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Embedding vektörlerini farklı gösterimler arasında dönüştürür.
+ * JSON metnini boxing yapmadan doğrudan float[]'a çevirir; ikili format little-endian float32'dir.
+ */
+public final class EmbeddingCodec {
+
+    private static final float[] EMPTY = new float[0];
+
+    private EmbeddingCodec() {
+    }
+
+    /**
+     * "[0.1, -0.2, ...]" biçimindeki JSON dizisini float[]'a çevirir.
+     * Bozuk girdi için boş dizi döner.
+     */
+    public static float[] parseJson(String json) {
+        if (json == null || json.isBlank()) return EMPTY;
+
+        int len = json.length();
+        int count = 1;
+        for (int i = 0; i < len; i++) {
+            if (json.charAt(i) == ',') count++;
+        }
+
+        float[] values = new float[count];
+        int n = 0;
+        int start = -1;
+        try {
+            for (int i = 0; i <= len; i++) {
+                char c = i < len ? json.charAt(i) : ',';
+                boolean separator = c == ',' || c == '[' || c == ']' || Character.isWhitespace(c);
+                if (separator) {
+                    if (start >= 0) {
+                        values[n++] = Float.parseFloat(json.substring(start, i));
+                        start = -1;
+                    }
+                } else if (start < 0) {
+                    start = i;
+                }
+            }
+        } catch (RuntimeException e) {
+            return EMPTY;
+        }
+
+        if (n == count) return values;
+        float[] trimmed = new float[n];
+        System.arraycopy(values, 0, trimmed, 0, n);
+        return trimmed;
+    }
+
+    /**
+     * float[] → "[0.1, -0.2, ...]" (eski JSON TEXT kolonları için; {@link #parseJson} ile geri okunur).
+     */
+    public static String toJson(float[] vector) {
+        return Arrays.toString(vector);
+    }
+
+    /**
+     * float[] → little-endian float32 baytları (boyut * 4 byte).
+     */
+    public static byte[] toBytes(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    /**
+     * Little-endian float32 baytları → float[].
+     */
+    public static float[] fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length % Float.BYTES != 0) return EMPTY;
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    /**
+     * Vektörü yerinde birim uzunluğa getirir; böylece cosine benzerliği tek bir dot product olur.
+     */
+    public static float[] normalize(float[] vector) {
+        double norm = 0.0;
+        for (float v : vector) norm += v * v;
+        if (norm == 0.0) return vector;
+
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) vector[i] *= inv;
+        return vector;
+    }
+}
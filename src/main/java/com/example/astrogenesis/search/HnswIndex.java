@@ -0,0 +1,369 @@
+package com.example.astrogenesis.search;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * {@link VectorStore} satırları üzerinde HNSW (Hierarchical Navigable Small World) grafı.
+ * <p>
+ * Düğüm numarası = VectorStore satır numarası. Ekleme tek yazarlıdır ({@code synchronized});
+ * komşu listeleri her güncellemede yeni bir {@code int[]} olarak yayınlandığı için aramalar kilitsiz çalışır.
+ * Arama, kendisine verilen deponun boyutundan büyük düğümleri yok sayar; böylece henüz
+ * indekse girmemiş satırlar sonuçlara karışmaz. Geçersiz kılınmış ({@code isLive == false}) satırlar
+ * grafta gezinmek için kullanılır ama sonuç olarak dönülmez.
+ */
+public final class HnswIndex {
+
+    private final int m;
+    private final int maxM0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    private volatile Node[] nodes = new Node[16];
+    private volatile int entryPoint = -1;
+    private volatile int maxLevel = -1;
+
+    public HnswIndex(int m, int efConstruction) {
+        this.m = Math.max(2, m);
+        this.maxM0 = this.m * 2;
+        this.efConstruction = Math.max(efConstruction, this.m);
+        this.levelMultiplier = 1.0 / Math.log(this.m);
+    }
+
+    /**
+     * Verilen indeksin tüm satırları için grafı kurar.
+     */
+    public static HnswIndex build(VectorStore store, int m, int efConstruction) {
+        HnswIndex hnsw = new HnswIndex(m, efConstruction);
+        for (int row = 0; row < store.size(); row++) {
+            hnsw.insert(row, store);
+        }
+        return hnsw;
+    }
+
+    public int m() {
+        return m;
+    }
+
+    public int efConstruction() {
+        return efConstruction;
+    }
+
+    /**
+     * Grafın yaklaşık bellek kullanımı (komşu dizileri + düğüm başlıkları), bayt.
+     */
+    public long sizeInBytes() {
+        Node[] current = nodes;
+        long bytes = 16L + 4L * current.length;
+        for (Node node : current) {
+            if (node == null) continue;
+            bytes += 16 + 16 + 4L * (node.level + 1);
+            for (int l = 0; l <= node.level; l++) bytes += 16 + 4L * node.neighbours.get(l).length;
+        }
+        return bytes;
+    }
+
+    /**
+     * Satırı grafa ekler. {@code store} satırı içermelidir.
+     */
+    public synchronized void insert(int row, VectorStore store) {
+        Node[] current = nodes;
+        if (row < current.length && current[row] != null) return;
+
+        int level = (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+        Node node = new Node(level);
+        publish(row, node);
+
+        int ep = entryPoint;
+        if (ep < 0) {
+            maxLevel = level;
+            entryPoint = row;
+            return;
+        }
+
+        float[] query = store.vector(row);
+        int topLevel = maxLevel;
+        for (int l = topLevel; l > level; l--) {
+            ep = greedy(query, ep, l, store);
+        }
+
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            Candidates found = searchLayer(query, ep, efConstruction, l, store);
+            int maxConn = l == 0 ? maxM0 : m;
+            int[] neighbours = found.closest(m);
+            node.neighbours.set(l, neighbours);
+
+            for (int n : neighbours) {
+                link(n, row, l, maxConn, store);
+            }
+            if (neighbours.length > 0) ep = neighbours[0];
+        }
+
+        if (level > topLevel) {
+            maxLevel = level;
+            entryPoint = row;
+        }
+    }
+
+    /**
+     * En yakın {@code rows.length} satırı skora göre azalan sırada yazar.
+     * Giriş noktası verilen indekste henüz yoksa 0 döner; çağıran taraf tam taramaya düşmelidir.
+     *
+     * @return bulunan sonuç sayısı
+     */
+    public int search(float[] query, int ef, VectorStore store, int[] rows, float[] scores) {
+        int k = Math.min(rows.length, scores.length);
+        int ep = entryPoint;
+        if (k == 0 || ep < 0 || ep >= store.size() || query.length != store.dimension()) return 0;
+
+        for (int l = maxLevel; l > 0; l--) {
+            ep = greedy(query, ep, l, store);
+        }
+
+        Candidates found = searchLayer(query, ep, Math.max(ef, k), 0, store);
+        return found.drainDescending(rows, scores, k);
+    }
+
+    private void link(int from, int to, int level, int maxConn, VectorStore store) {
+        Node node = nodes[from];
+        if (level > node.level) return;
+
+        int[] old = node.neighbours.get(level);
+        int[] next = Arrays.copyOf(old, old.length + 1);
+        next[old.length] = to;
+
+        if (next.length > maxConn) {
+            // En yakın maxConn komşuyu tut
+            Candidates keep = new Candidates(maxConn);
+            for (int n : next) keep.offer(n, store.dot(from, n));
+            next = keep.closest(maxConn);
+        }
+        node.neighbours.set(level, next);
+    }
+
+    private int greedy(float[] query, int ep, int level, VectorStore store) {
+        int limit = store.size();
+        float best = store.dot(ep, query);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int n : neighbours(ep, level)) {
+                if (n >= limit) continue;
+                float score = store.dot(n, query);
+                if (score > best) {
+                    best = score;
+                    ep = n;
+                    changed = true;
+                }
+            }
+        }
+        return ep;
+    }
+
+    private Candidates searchLayer(float[] query, int ep, int ef, int level, VectorStore store) {
+        int limit = store.size();
+        BitSet visited = new BitSet(limit);
+        visited.set(ep);
+
+        float epScore = store.dot(ep, query);
+        Candidates results = new Candidates(ef);
+        if (store.isLive(ep)) results.offer(ep, epScore);
+        Frontier frontier = new Frontier(ef * 2);
+        frontier.push(ep, epScore);
+
+        while (!frontier.isEmpty()) {
+            float score = frontier.peekScore();
+            if (results.isFull() && score < results.worst()) break;
+            int current = frontier.pop();
+
+            for (int n : neighbours(current, level)) {
+                if (n >= limit || visited.get(n)) continue;
+                visited.set(n);
+
+                float s = store.dot(n, query);
+                if (!results.isFull() || s > results.worst()) {
+                    if (store.isLive(n)) results.offer(n, s);
+                    frontier.push(n, s);
+                }
+            }
+        }
+        return results;
+    }
+
+    private int[] neighbours(int row, int level) {
+        Node[] current = nodes;
+        if (row >= current.length) return EMPTY;
+        Node node = current[row];
+        if (node == null || level > node.level) return EMPTY;
+        return node.neighbours.get(level);
+    }
+
+    private void publish(int row, Node node) {
+        Node[] current = nodes;
+        if (row >= current.length) {
+            current = Arrays.copyOf(current, Math.max(row + 1, current.length * 2));
+        }
+        current[row] = node;
+        nodes = current;
+    }
+
+    private static final int[] EMPTY = new int[0];
+
+    private static final class Node {
+        final int level;
+        final AtomicReferenceArray<int[]> neighbours;
+
+        Node(int level) {
+            this.level = level;
+            this.neighbours = new AtomicReferenceArray<>(level + 1);
+            for (int l = 0; l <= level; l++) neighbours.set(l, EMPTY);
+        }
+    }
+
+    /**
+     * Sabit kapasiteli min-heap: en iyi {@code capacity} adayı tutar, kökte en kötüsü durur.
+     */
+    private static final class Candidates {
+        private final int[] ids;
+        private final float[] scores;
+        private int size;
+
+        Candidates(int capacity) {
+            ids = new int[capacity];
+            scores = new float[capacity];
+        }
+
+        boolean isFull() {
+            return size == ids.length;
+        }
+
+        float worst() {
+            return scores[0];
+        }
+
+        void offer(int id, float score) {
+            if (size < ids.length) {
+                ids[size] = id;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                ids[0] = id;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        int[] closest(int limit) {
+            int[] tmpIds = new int[limit];
+            float[] tmpScores = new float[limit];
+            int n = drainDescending(tmpIds, tmpScores, limit);
+            return n == limit ? tmpIds : Arrays.copyOf(tmpIds, n);
+        }
+
+        int drainDescending(int[] outIds, float[] outScores, int limit) {
+            while (size > limit) pop();
+            int n = size;
+            for (int i = n - 1; i >= 0; i--) {
+                outScores[i] = scores[0];
+                outIds[i] = pop();
+            }
+            return n;
+        }
+
+        private int pop() {
+            int id = ids[0];
+            size--;
+            ids[0] = ids[size];
+            scores[0] = scores[size];
+            siftDown(0);
+            return id;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] <= scores[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, min = i;
+                if (l < size && scores[l] < scores[min]) min = l;
+                if (r < size && scores[r] < scores[min]) min = r;
+                if (min == i) return;
+                swap(i, min);
+                i = min;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int id = ids[a]; ids[a] = ids[b]; ids[b] = id;
+            float s = scores[a]; scores[a] = scores[b]; scores[b] = s;
+        }
+    }
+
+    /**
+     * Genişleyebilen max-heap: keşfedilecek düğümler, kökte en iyisi durur.
+     */
+    private static final class Frontier {
+        private int[] ids;
+        private float[] scores;
+        private int size;
+
+        Frontier(int capacity) {
+            ids = new int[Math.max(capacity, 8)];
+            scores = new float[ids.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        float peekScore() {
+            return scores[0];
+        }
+
+        void push(int id, float score) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (scores[parent] >= score) break;
+                ids[i] = ids[parent];
+                scores[i] = scores[parent];
+                i = parent;
+            }
+            ids[i] = id;
+            scores[i] = score;
+        }
+
+        int pop() {
+            int top = ids[0];
+            size--;
+            int id = ids[size];
+            float score = scores[size];
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, max = l;
+                if (l >= size) break;
+                if (r < size && scores[r] > scores[l]) max = r;
+                if (scores[max] <= score) break;
+                ids[i] = ids[max];
+                scores[i] = scores[max];
+                i = max;
+            }
+            ids[i] = id;
+            scores[i] = score;
+            return top;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.astrogenesis.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Heap'teki {@link VectorIndex}'in yeniden başlatmalar arası saklanan kopyası.
+ * <pre>
+ * [header 48 B] magic "VSNP" | version | dimension | count | corpus count (int64)
+ *               | corpus change seq (int64) | CRC32C (int64) | model length | reserved
+ * [model]       UTF-8, 8 bayta hizalanmış
+ * [doc ids]     count * int64
+ * [doc types]   count * int8, 8 bayta hizalanmış
+ * [vectors]     count * dimension * float32 (normalize edilmiş)
+ * </pre>
+ * Tüm sayılar little-endian'dır; checksum header'dan sonraki her şeyi kapsar. Geçersiz (güncellenmiş)
+ * satırlar yazılmaz.
+ * Açılışta dosya map edilip doğrudan dizilere toplu kopyalanır (JSON/bayt çözme yok).
+ */
+public final class IndexSnapshot {
+
+    static final int MAGIC = 0x504E5356; // "VSNP" (little-endian)
+    static final int VERSION = 2; // 2: corpus sürümü zaman damgası değil change log sıra numarası
+    static final int HEADER_BYTES = 48;
+
+    private final String model;
+    private final CorpusVersion corpusVersion;
+    private final VectorIndex index;
+
+    private IndexSnapshot(String model, CorpusVersion corpusVersion, VectorIndex index) {
+        this.model = model;
+        this.corpusVersion = corpusVersion;
+        this.index = index;
+    }
+
+    public String model() {
+        return model;
+    }
+
+    public CorpusVersion corpusVersion() {
+        return corpusVersion;
+    }
+
+    public VectorIndex index() {
+        return index;
+    }
+
+    /**
+     * İndeksi geçici dosyaya yazar ve atomik olarak {@code path}'in yerine taşır.
+     *
+     * @param version indeks kurulmadan <em>önce</em> okunmuş sürüm; sonradan gelen satırlar açılışta tamamlanır
+     */
+    public static void write(Path path, String model, CorpusVersion version, VectorStore store) throws IOException {
+        int count = 0;
+        for (int row = 0; row < store.size(); row++) {
+            if (store.isLive(row)) count++;
+        }
+        int dimension = store.dimension();
+        byte[] modelBytes = model.getBytes(StandardCharsets.UTF_8);
+
+        long bodyBytes = bodyBytes(modelBytes.length, count, dimension);
+        if (HEADER_BYTES + bodyBytes > Integer.MAX_VALUE) {
+            throw new IOException("Index too large for a single snapshot file: " + bodyBytes + " bytes");
+        }
+        ByteBuffer body = ByteBuffer.allocate((int) bodyBytes).order(ByteOrder.LITTLE_ENDIAN);
+        body.put(modelBytes).position(align8(modelBytes.length));
+        for (int row = 0; row < store.size(); row++) {
+            if (store.isLive(row)) body.putLong(store.docId(row));
+        }
+        int typesStart = body.position();
+        for (int row = 0; row < store.size(); row++) {
+            if (store.isLive(row)) body.put((byte) store.docType(row).ordinal());
+        }
+        body.position(typesStart + align8(count));
+        for (int row = 0; row < store.size(); row++) {
+            if (!store.isLive(row)) continue;
+            for (float v : store.vector(row)) body.putFloat(v);
+        }
+        body.flip();
+
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(count)
+                .putLong(version.count()).putLong(version.changeSeq()).putLong(crc.getValue())
+                .putInt(modelBytes.length).rewind();
+
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) channel.write(header);
+            while (body.hasRemaining()) channel.write(body);
+            channel.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Snapshot'ı map edip doğrular ve heap indeksine kopyalar.
+     *
+     * @throws IOException dosya bozuksa, kesikse veya checksum tutmuyorsa
+     */
+    public static IndexSnapshot load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an index snapshot: " + path);
+            }
+            int dimension = buffer.getInt(8);
+            int count = buffer.getInt(12);
+            CorpusVersion version = new CorpusVersion(buffer.getLong(16), buffer.getLong(24));
+            long checksum = buffer.getLong(32);
+            int modelLength = buffer.getInt(40);
+            if (dimension < 0 || count < 0 || modelLength < 0
+                    || channel.size() != HEADER_BYTES + bodyBytes(modelLength, count, dimension)) {
+                throw new IOException("Truncated index snapshot: " + path);
+            }
+
+            ByteBuffer body = buffer.slice(HEADER_BYTES, (int) channel.size() - HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            CRC32C crc = new CRC32C();
+            crc.update(body.duplicate());
+            if (crc.getValue() != checksum) {
+                throw new IOException("Index snapshot checksum mismatch: " + path);
+            }
+
+            byte[] modelBytes = new byte[modelLength];
+            body.get(modelBytes).position(align8(modelLength));
+            long[] ids = new long[count];
+            body.asLongBuffer().get(ids);
+            body.position(body.position() + count * Long.BYTES);
+            byte[] types = new byte[count];
+            body.get(types);
+            body.position(body.position() - count + align8(count));
+            float[] vectors = new float[count * dimension];
+            body.asFloatBuffer().get(vectors);
+
+            return new IndexSnapshot(new String(modelBytes, StandardCharsets.UTF_8), version,
+                    VectorIndex.wrap(dimension, count, vectors, ids, types));
+        }
+    }
+
+    private static long bodyBytes(int modelLength, int count, int dimension) {
+        return align8(modelLength) + (long) count * Long.BYTES + align8(count)
+                + (long) count * dimension * Float.BYTES;
+    }
+
+    private static int align8(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
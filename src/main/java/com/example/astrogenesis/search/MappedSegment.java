@@ -0,0 +1,191 @@
+package com.example.astrogenesis.search;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Diskte değişmez bir vektör segmenti; {@link FileChannel#map} ile salt-okunur açılır,
+ * böylece vektörler JVM heap'i yerine işletim sisteminin page cache'inden okunur.
+ * <pre>
+ * [header 32 B] magic "VSEG" | version | dimension | count | reserved
+ * [doc ids]     count * int64
+ * [doc types]   count * int8, 8 bayta hizalanmış
+ * [vectors]     count * dimension * float32 (normalize edilmiş)
+ * </pre>
+ * Tüm sayılar little-endian'dır. Tek bir segment 2 GB'ı geçemez (tek mapping sınırı).
+ */
+public final class MappedSegment {
+
+    static final int MAGIC = 0x47455356; // "VSEG" (little-endian)
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+
+    private static final ThreadLocal<float[]> SCRATCH = ThreadLocal.withInitial(() -> new float[0]);
+
+    private final Path path;
+    private final int dimension;
+    private final int count;
+    private final LongBuffer ids;
+    private final ByteBuffer types;
+    private final FloatBuffer vectors;
+
+    private MappedSegment(Path path, int dimension, int count, LongBuffer ids, ByteBuffer types, FloatBuffer vectors) {
+        this.path = path;
+        this.dimension = dimension;
+        this.count = count;
+        this.ids = ids;
+        this.types = types;
+        this.vectors = vectors;
+    }
+
+    /**
+     * Segment dosyasını map eder. Dosya kapatılsa da mapping, buffer GC olana kadar geçerli kalır.
+     */
+    public static MappedSegment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not a vector segment: " + path);
+            }
+            int dimension = buffer.getInt(8);
+            int count = buffer.getInt(12);
+
+            int idsOffset = HEADER_BYTES;
+            int typesOffset = idsOffset + count * Long.BYTES;
+            int vectorsOffset = typesOffset + align8(count);
+            long expected = (long) vectorsOffset + (long) count * dimension * Float.BYTES;
+            if (channel.size() < expected) {
+                throw new IOException("Truncated vector segment: " + path);
+            }
+
+            LongBuffer ids = slice(buffer, idsOffset, count * Long.BYTES).asLongBuffer();
+            ByteBuffer types = slice(buffer, typesOffset, count);
+            FloatBuffer vectors = slice(buffer, vectorsOffset, count * dimension * Float.BYTES).asFloatBuffer();
+            return new MappedSegment(path, dimension, count, ids, types, vectors);
+        }
+    }
+
+    /**
+     * {@code source} deposundaki canlı satırları yeni bir segment dosyasına yazar.
+     * Önce geçici dosyaya yazılır, sonra atomik olarak yerine taşınır.
+     */
+    public static MappedSegment write(Path path, VectorStore source, int fromRow, int toRow) throws IOException {
+        int dimension = source.dimension();
+        int count = 0;
+        for (int row = fromRow; row < toRow; row++) {
+            if (source.isLive(row)) count++;
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(dimension).putInt(count).rewind();
+            writeFully(channel, header);
+
+            ByteBuffer ids = ByteBuffer.allocate(count * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer types = ByteBuffer.allocate(align8(count));
+            for (int row = fromRow; row < toRow; row++) {
+                if (!source.isLive(row)) continue;
+                ids.putLong(source.docId(row));
+                types.put((byte) source.docType(row).ordinal());
+            }
+            ids.flip();
+            types.position(0);
+            writeFully(channel, ids);
+            writeFully(channel, types);
+
+            ByteBuffer vector = ByteBuffer.allocate(dimension * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            for (int row = fromRow; row < toRow; row++) {
+                if (!source.isLive(row)) continue;
+                vector.clear();
+                vector.asFloatBuffer().put(source.vector(row));
+                writeFully(channel, vector);
+            }
+            channel.force(true);
+        }
+
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return open(path);
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public long docId(int row) {
+        return ids.get(row);
+    }
+
+    public DocType docType(int row) {
+        return DocType.fromOrdinal(types.get(row));
+    }
+
+    /**
+     * Satırı iş parçacığına ait bir tampona toplu kopyalar (tek memcpy), sonra kernel ile çarpar;
+     * eleman eleman {@code FloatBuffer.get} çağrısı SIMD'ye uygun değildir.
+     */
+    public float dot(int row, float[] query) {
+        float[] scratch = SCRATCH.get();
+        if (scratch.length < dimension) {
+            scratch = new float[dimension];
+            SCRATCH.set(scratch);
+        }
+        vectors.get(row * dimension, scratch, 0, dimension);
+        return SimilarityKernels.get().dot(scratch, 0, query, 0, dimension);
+    }
+
+    /**
+     * Satırı bir kez tampona kopyalar ve {@code queries[from..to)} her biriyle çarpar.
+     */
+    public void dot(int row, float[][] queries, int from, int to, float[] out) {
+        float[] scratch = SCRATCH.get();
+        if (scratch.length < dimension) {
+            scratch = new float[dimension];
+            SCRATCH.set(scratch);
+        }
+        vectors.get(row * dimension, scratch, 0, dimension);
+        SimilarityKernel kernel = SimilarityKernels.get();
+        for (int q = from; q < to; q++) out[q - from] = kernel.dot(scratch, 0, queries[q], 0, dimension);
+    }
+
+    public void copyVector(int row, float[] target) {
+        vectors.get(row * dimension, target, 0, dimension);
+    }
+
+    public long sizeInBytes() {
+        return HEADER_BYTES + (long) count * Long.BYTES + align8(count) + (long) count * dimension * Float.BYTES;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int offset, int length) {
+        return buffer.slice(offset, length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) channel.write(buffer);
+    }
+
+    private static int align8(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+}
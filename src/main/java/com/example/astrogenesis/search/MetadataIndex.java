@@ -0,0 +1,185 @@
+package com.example.astrogenesis.search;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Bir {@link VectorStore}'un satır numaralarıyla hizalı, önceden hesaplanmış filtre yapıları:
+ * tip ve kategori başına {@link BitSet}, kelime başına {@link BitSet} (ters indeks) ve satır başına tarih.
+ * {@link #allowed} bir filtreyi tek bir BitSet'e çevirir; tarama sadece bu bitlerdeki satırları skorlar.
+ * Metadata'sı bulunamayan satırlar (silinmiş veya aranabilir metni olmayan doküman) hiçbir BitSet'e yazılmaz;
+ * boş filtre yine {@code null} döner, bu yüzden çağıran bu satırları depoda geçersiz sayar ({@link VectorStore#isLive}).
+ * <p>
+ * Örnekler okuyucular için değişmezdir: {@link #appendAll} sadece değişen BitSet'leri parti başına bir kez
+ * kopyalar, tarih dizisini ise {@link VectorIndex} gibi kapasite yettikçe paylaşır (tek yazar).
+ */
+public final class MetadataIndex {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final BitSet NONE = new BitSet();
+
+    private final int size;
+    private final BitSet[] byType;
+    private final Map<String, BitSet> byCategory;
+    private final Map<String, BitSet> byKeyword;
+    private final int[] dates; // epoch day
+
+    private MetadataIndex(int size, BitSet[] byType, Map<String, BitSet> byCategory,
+                          Map<String, BitSet> byKeyword, int[] dates) {
+        this.size = size;
+        this.byType = byType;
+        this.byCategory = byCategory;
+        this.byKeyword = byKeyword;
+        this.dates = dates;
+    }
+
+    /**
+     * Deponun tüm satırları için metadata'yı {@code lookup} ile bulup indeksler; {@code null} dönen satırlar hiçbir filtreyi geçmez.
+     */
+    public static MetadataIndex build(VectorStore store, BiFunction<DocType, Long, DocumentMetadata> lookup) {
+        int n = store.size();
+        BitSet[] byType = new BitSet[DocType.values().length];
+        for (int t = 0; t < byType.length; t++) byType[t] = new BitSet(n);
+        Map<String, BitSet> byCategory = new HashMap<>();
+        Map<String, BitSet> byKeyword = new HashMap<>();
+        int[] dates = new int[Math.max(16, n)];
+
+        for (int row = 0; row < n; row++) {
+            DocType type = store.docType(row);
+            DocumentMetadata meta = lookup.apply(type, store.docId(row));
+            if (meta == null) {
+                dates[row] = NO_DATE;
+                continue;
+            }
+
+            byType[type.ordinal()].set(row);
+            dates[row] = meta.date() != null ? (int) meta.date().toEpochDay() : NO_DATE;
+            if (meta.category() != null) {
+                byCategory.computeIfAbsent(normalize(meta.category()), c -> new BitSet(n)).set(row);
+            }
+            for (String token : tokenize(meta.keywordText())) {
+                byKeyword.computeIfAbsent(token, k -> new BitSet()).set(row);
+            }
+        }
+        return new MetadataIndex(n, byType, byCategory, byKeyword, dates);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Bir sonraki satırın ({@code size()}) metadata'sını ekler; {@code null} ise satır hiçbir filtreyi geçmez.
+     */
+    public MetadataIndex append(DocType type, DocumentMetadata meta) {
+        return appendAll(type, Collections.singletonList(meta));
+    }
+
+    /**
+     * {@code size()}'dan itibaren aynı tipten satırların metadata'sını ekler ({@code null} → filtre biti yok).
+     * Değişen her BitSet parti başına bir kez kopyalanır; satır başına kopya yoktur.
+     */
+    public MetadataIndex appendAll(DocType type, List<DocumentMetadata> metas) {
+        if (metas.isEmpty()) return this;
+        int end = size + metas.size();
+
+        BitSet[] types = byType.clone();
+        BitSet typeRows = (BitSet) byType[type.ordinal()].clone();
+        types[type.ordinal()] = typeRows;
+        Map<String, BitSet> categories = byCategory;
+        Map<String, BitSet> keywords = byKeyword;
+        Set<String> copiedCategories = new HashSet<>();
+        Set<String> copiedKeywords = new HashSet<>();
+
+        int[] d = dates;
+        if (end > d.length) {
+            int capacity = d.length;
+            while (capacity < end) capacity *= 2;
+            d = new int[capacity];
+            System.arraycopy(dates, 0, d, 0, size);
+        }
+
+        for (int i = 0; i < metas.size(); i++) {
+            int row = size + i;
+            DocumentMetadata meta = metas.get(i);
+            if (meta == null) {
+                d[row] = NO_DATE;
+                continue;
+            }
+
+            typeRows.set(row);
+            d[row] = meta.date() != null ? (int) meta.date().toEpochDay() : NO_DATE;
+            if (meta.category() != null) {
+                if (categories == byCategory) categories = new HashMap<>(byCategory);
+                writable(categories, copiedCategories, normalize(meta.category())).set(row);
+            }
+            Set<String> tokens = tokenize(meta.keywordText());
+            if (!tokens.isEmpty() && keywords == byKeyword) keywords = new HashMap<>(byKeyword);
+            for (String token : tokens) writable(keywords, copiedKeywords, token).set(row);
+        }
+        return new MetadataIndex(end, types, categories, keywords, d);
+    }
+
+    /**
+     * Filtreyi geçen satırlar; filtre boşsa {@code null} (her canlı satır geçer, HNSW kullanılabilir).
+     */
+    public BitSet allowed(SearchFilter filter) {
+        if (filter == null || filter.isEmpty()) return null;
+
+        BitSet result = new BitSet(size);
+        if (filter.types() != null) {
+            for (DocType type : filter.types()) result.or(byType[type.ordinal()]);
+        } else {
+            for (BitSet rows : byType) result.or(rows); // metadata'sı olmayan satırlar dışarıda kalır
+        }
+        if (filter.category() != null) {
+            result.and(byCategory.getOrDefault(normalize(filter.category()), NONE));
+        }
+        if (filter.keyword() != null) {
+            for (String token : tokenize(filter.keyword())) {
+                result.and(byKeyword.getOrDefault(token, NONE));
+            }
+        }
+        if (filter.from() != null || filter.to() != null) {
+            long from = filter.from() != null ? filter.from().toEpochDay() : Long.MIN_VALUE;
+            long to = filter.to() != null ? filter.to().toEpochDay() : Long.MAX_VALUE;
+            for (int row = result.nextSetBit(0); row >= 0; row = result.nextSetBit(row + 1)) {
+                int date = dates[row];
+                if (date == NO_DATE || date < from || date > to) result.clear(row);
+            }
+        }
+        return result;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+        if (text == null || text.isBlank()) return tokens;
+        for (String token : TOKEN_SPLIT.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= 2) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    private static String normalize(String category) {
+        return category.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Partide ilk dokunuşta kopyalanan (okuyucuların gördüğü örnek değişmesin diye) BitSet
+    private static BitSet writable(Map<String, BitSet> map, Set<String> copied, String key) {
+        BitSet bits = map.get(key);
+        if (copied.add(key)) {
+            bits = bits != null ? (BitSet) bits.clone() : new BitSet();
+            map.put(key, bits);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.astrogenesis.search;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Makale bölümleri (LLM sistem prompt'undaki Introduction/Results/Conclusion ayrımı).
+ * PMC'de bölüm başlıkları serbest metindir; {@link #classify} başlıktaki ilk tanınan kelimeye göre eşler.
+ */
+public enum PaperSection {
+
+    INTRODUCTION("Introduction", List.of("introduction", "background")),
+    METHODS("Methods", List.of("method", "material", "experimental procedure", "study design")),
+    RESULTS("Results", List.of("result", "finding")),
+    DISCUSSION("Discussion", List.of("discussion")),
+    CONCLUSION("Conclusion", List.of("conclusion", "concluding", "summary", "outlook")),
+    OTHER("Body", List.of());
+
+    private final String label;
+    private final List<String> keywords;
+
+    PaperSection(String label, List<String> keywords) {
+        this.label = label;
+        this.keywords = keywords;
+    }
+
+    /** Prompt'ta ve kaynak listesinde görünen ad */
+    public String label() {
+        return label;
+    }
+
+    /**
+     * "Results and Discussion" → RESULTS, "Materials and methods" → METHODS; tanınmayan → OTHER.
+     */
+    public static PaperSection classify(String title) {
+        if (title == null || title.isBlank()) return OTHER;
+        String lower = title.toLowerCase(Locale.ROOT);
+
+        PaperSection best = OTHER;
+        int bestIndex = Integer.MAX_VALUE;
+        for (PaperSection section : values()) {
+            for (String keyword : section.keywords) {
+                int index = lower.indexOf(keyword);
+                if (index >= 0 && index < bestIndex) {
+                    best = section;
+                    bestIndex = index;
+                }
+            }
+        }
+        return best;
+    }
+}
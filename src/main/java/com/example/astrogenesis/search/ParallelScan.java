@@ -0,0 +1,109 @@
+package com.example.astrogenesis.search;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Kesin (brute-force) taramayı satır aralıklarına bölüp bir {@link ForkJoinPool} üzerinde paralel çalıştırır.
+ * Her parça kendi top-k sonucunu üretir; sonuçlar ağaç boyunca ikişer ikişer birleştirilir.
+ * <p>
+ * {@code threshold} satırdan küçük depolar (veya paralelliği 1 olan havuz) tek iş parçacığında taranır;
+ * küçük korpuslarda görev dağıtma maliyeti kazancı geçer.
+ */
+public final class ParallelScan {
+
+    private static final int MIN_SHARD_ROWS = 2048;
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelScan(ForkJoinPool pool, int threshold) {
+        this.pool = pool;
+        this.threshold = Math.max(1, threshold);
+    }
+
+    public int parallelism() {
+        return pool.getParallelism();
+    }
+
+    /**
+     * {@link VectorStore#topK(float[], int, int, BitSet, int[], float[])} ile aynı sonucu döner
+     * ({@code filter} null ise tüm satırlar).
+     */
+    public int topK(VectorStore store, float[] query, BitSet filter, int[] rows, float[] scores) {
+        int k = Math.min(rows.length, scores.length);
+        int size = store.size();
+        int candidates = filter == null ? size : filter.cardinality();
+        if (k == 0 || candidates < threshold || pool.getParallelism() < 2) {
+            return store.topK(query, 0, size, filter, rows, scores);
+        }
+
+        // Çekirdek başına birkaç parça: dengesiz segmentlerde iş çalma (work stealing) devreye girebilsin
+        int shardRows = Math.max(MIN_SHARD_ROWS, (size + pool.getParallelism() * 4 - 1) / (pool.getParallelism() * 4));
+        Partial result = pool.invoke(new Shard(store, query, filter, k, 0, size, shardRows));
+        System.arraycopy(result.rows, 0, rows, 0, result.found);
+        System.arraycopy(result.scores, 0, scores, 0, result.found);
+        return result.found;
+    }
+
+    private record Partial(int[] rows, float[] scores, int found) {}
+
+    private static final class Shard extends RecursiveTask<Partial> {
+
+        private final VectorStore store;
+        private final float[] query;
+        private final BitSet filter;
+        private final int k;
+        private final int fromRow;
+        private final int toRow;
+        private final int shardRows;
+
+        Shard(VectorStore store, float[] query, BitSet filter, int k, int fromRow, int toRow, int shardRows) {
+            this.store = store;
+            this.query = query;
+            this.filter = filter;
+            this.k = k;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.shardRows = shardRows;
+        }
+
+        @Override
+        protected Partial compute() {
+            if (toRow - fromRow <= shardRows) {
+                int[] rows = new int[k];
+                float[] scores = new float[k];
+                int found = store.topK(query, fromRow, toRow, filter, rows, scores);
+                return new Partial(rows, scores, found);
+            }
+
+            int mid = (fromRow + toRow) >>> 1;
+            Shard left = new Shard(store, query, filter, k, fromRow, mid, shardRows);
+            Shard right = new Shard(store, query, filter, k, mid, toRow, shardRows);
+            left.fork();
+            Partial r = right.compute();
+            return merge(left.join(), r, k);
+        }
+    }
+
+    /**
+     * İki azalan sıralı sonucu, en iyi {@code k} tanesini tutarak birleştirir.
+     */
+    private static Partial merge(Partial a, Partial b, int k) {
+        int[] rows = new int[k];
+        float[] scores = new float[k];
+        int i = 0, j = 0, n = 0;
+        while (n < k && (i < a.found || j < b.found)) {
+            // Eşit skorda soldaki (daha küçük satır numaralı) parça önce gelir
+            if (j >= b.found || (i < a.found && a.scores[i] >= b.scores[j])) {
+                rows[n] = a.rows[i];
+                scores[n++] = a.scores[i++];
+            } else {
+                rows[n] = b.rows[j];
+                scores[n++] = b.scores[j++];
+            }
+        }
+        return new Partial(rows, scores, n);
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.astrogenesis.search;
+
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PMC (JATS) tam metnini bölümlere ve embed edilecek pasajlara ayırır.
+ * <p>
+ * Üst düzey her {@code <sec>} başlığına göre bir {@link PaperSection}'a eşlenir; alt bölümler üst bölümün
+ * etiketini alır. Pasajlar paragraf sınırlarında, en fazla {@code maxChars} karakter olacak şekilde
+ * birleştirilir (çok uzun paragraflar cümle sınırında bölünür); bir pasaj iki bölüme yayılmaz.
+ * Tablolar, şekiller ve kaynakça atılır.
+ */
+public final class PassageSplitter {
+
+    /** Bundan kısa parçalar ("Not applicable." vb.) pasaj sayılmaz */
+    static final int MIN_CHARS = 50;
+
+    public record Passage(PaperSection section, String text) {}
+
+    private final int maxChars;
+
+    public PassageSplitter(int maxChars) {
+        this.maxChars = Math.max(MIN_CHARS * 2, maxChars);
+    }
+
+    /**
+     * @param body JATS {@code <body>} elemanı (XML parser ile okunmuş)
+     */
+    public List<Passage> split(Element body) {
+        Element copy = body.clone();
+        copy.select("table-wrap, fig, supplementary-material, ref-list, xref[ref-type=bibr]").remove();
+
+        List<Passage> passages = new ArrayList<>();
+        List<Element> sections = copy.children().stream().filter(e -> e.tagName().equals("sec")).toList();
+        if (sections.isEmpty()) {
+            addParagraphs(PaperSection.OTHER, paragraphs(copy), passages);
+            return passages;
+        }
+        for (Element sec : sections) {
+            Element title = sec.children().stream().filter(e -> e.tagName().equals("title")).findFirst().orElse(null);
+            PaperSection section = PaperSection.classify(title != null ? title.text() : null);
+            addParagraphs(section, paragraphs(sec), passages);
+        }
+        return passages;
+    }
+
+    /**
+     * Yapısı olmayan düz metin (örn. XML alınamadığında {@code Publication.content}) için aynı paketleme.
+     */
+    public List<Passage> splitText(PaperSection section, String text) {
+        List<Passage> passages = new ArrayList<>();
+        if (text != null) addParagraphs(section, List.of(text), passages);
+        return passages;
+    }
+
+    private static List<String> paragraphs(Element root) {
+        List<String> paragraphs = new ArrayList<>();
+        for (Element p : root.select("p")) {
+            // İç içe <p> (liste öğeleri vb.) dıştaki paragrafın metninde zaten var
+            if (p.parents().stream().anyMatch(parent -> parent.tagName().equals("p"))) continue;
+            paragraphs.add(p.text());
+        }
+        if (paragraphs.isEmpty()) paragraphs.add(root.text());
+        return paragraphs;
+    }
+
+    private void addParagraphs(PaperSection section, List<String> paragraphs, List<Passage> out) {
+        StringBuilder current = new StringBuilder();
+        for (String raw : paragraphs) {
+            String paragraph = raw.replaceAll("\\s+", " ").trim();
+            if (paragraph.isEmpty()) continue;
+
+            if (paragraph.length() > maxChars) {
+                flush(section, current, out);
+                for (String sentence : paragraph.split("(?<=[.!?])\\s+")) {
+                    append(section, sentence, current, out);
+                }
+                flush(section, current, out);
+            } else {
+                append(section, paragraph, current, out);
+            }
+        }
+        flush(section, current, out);
+    }
+
+    private void append(PaperSection section, String text, StringBuilder current, List<Passage> out) {
+        if (current.length() > 0 && current.length() + 1 + text.length() > maxChars) {
+            flush(section, current, out);
+        }
+        // Tek başına sınırı aşan cümle: kelime sınırında sert kesim
+        while (text.length() > maxChars) {
+            int cut = text.lastIndexOf(' ', maxChars);
+            if (cut <= 0) cut = maxChars;
+            current.append(text, 0, cut);
+            flush(section, current, out);
+            text = text.substring(cut).trim();
+        }
+        if (current.length() > 0) current.append(' ');
+        current.append(text);
+    }
+
+    private static void flush(PaperSection section, StringBuilder current, List<Passage> out) {
+        String text = current.toString().trim();
+        current.setLength(0);
+        if (text.length() >= MIN_CHARS) out.add(new Passage(section, text));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.astrogenesis.search;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Sorgu vektörleri için boyut ve süre (TTL) sınırlı LRU.
+ * <p>
+ * Anahtar model + {@link #normalize normalize edilmiş} sorgudur; "What is microgravity?" ile
+ * "what is  microgravity" aynı vektörü kullanır. Değerler birim vektördür ve kopya olarak döner.
+ */
+public class QueryVectorCache {
+
+    private record Entry(float[] vector, long expiresAt) {
+    }
+
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+    private final Map<String, Entry> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public QueryVectorCache(int maxEntries, Duration ttl) {
+        this(maxEntries, ttl, System::nanoTime);
+    }
+
+    QueryVectorCache(int maxEntries, Duration ttl, LongSupplier nanoTime) {
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= maxEntries) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Büyük/küçük harf, noktalama ve fazla boşluk farkları atılır.
+     */
+    public static String normalize(String query) {
+        return query.toLowerCase(Locale.ROOT)
+                .replaceAll("[\\p{P}\\p{S}]+", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+    }
+
+    /**
+     * Süresi dolmamış vektörün kopyası; yoksa {@code null}.
+     */
+    public synchronized float[] get(String model, String query) {
+        String key = key(model, query);
+        Entry entry = entries.get(key);
+        if (entry != null && nanoTime.getAsLong() - entry.expiresAt() < 0) {
+            hits++;
+            return entry.vector().clone();
+        }
+        if (entry != null) {
+            entries.remove(key);
+            evictions++;
+        }
+        misses++;
+        return null;
+    }
+
+    public synchronized void put(String model, String query, float[] vector) {
+        entries.put(key(model, query), new Entry(vector.clone(), nanoTime.getAsLong() + ttlNanos));
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long lookups = hits + misses;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("evictions", evictions);
+        stats.put("hitRate", lookups > 0 ? (double) hits / lookups : 0.0);
+        return stats;
+    }
+
+    private static String key(String model, String query) {
+        return model + '\u0000' + normalize(query);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.astrogenesis.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Arama yöntemlerini aynı sorgu kümesi üzerinde karşılaştırır: her varyant için recall@k (aynı filtreyle
+ * yapılan kesin taramaya göre), sorgu başına gecikme (p50/p99/ortalama), yapı kurulum süresi ve yaklaşık bellek.
+ * <p>
+ * Ölçümler deterministiktir (sabit seed'ler, aynı sorgu sırası); gecikme ölçümünden önce her varyant
+ * {@code warmup} tur ısıtılır ki JIT derlemesi sonuçlara karışmasın.
+ */
+public final class RetrievalBenchmark {
+
+    /**
+     * Ölçülecek bir arama yapılandırması. {@code filtered} ise sorgular benchmark filtresiyle çalışır;
+     * HNSW grafı filtreyi bilmediği için filtreli varyantı yoktur (serviste de kesin taramaya düşer).
+     */
+    public record Variant(String name, RetrievalMode mode, int hnswM, int efConstruction, int efSearch,
+                          int rerank, boolean filtered) {
+
+        public static Variant exact() {
+            return new Variant("exact", RetrievalMode.EXACT, 0, 0, 0, 0, false);
+        }
+
+        public static Variant quantized(int rerank) {
+            return new Variant("quantized(rerank=" + rerank + ")", RetrievalMode.QUANTIZED, 0, 0, 0, rerank, false);
+        }
+
+        public static Variant hnsw(int m, int efConstruction, int efSearch) {
+            return new Variant("hnsw(M=" + m + ",efC=" + efConstruction + ",ef=" + efSearch + ")",
+                    RetrievalMode.HNSW, m, efConstruction, efSearch, 0, false);
+        }
+
+        public Variant withFilter() {
+            if (mode == RetrievalMode.HNSW) throw new IllegalArgumentException("HNSW has no filtered search");
+            return new Variant(name + "+filter", mode, hnswM, efConstruction, efSearch, rerank, true);
+        }
+
+        Map<String, Object> params() {
+            Map<String, Object> params = new LinkedHashMap<>();
+            if (mode == RetrievalMode.HNSW) {
+                params.put("m", hnswM);
+                params.put("efConstruction", efConstruction);
+                params.put("efSearch", efSearch);
+            }
+            if (mode == RetrievalMode.QUANTIZED) params.put("rerank", rerank);
+            return params;
+        }
+    }
+
+    /**
+     * Bir varyantın ölçümleri. {@code memoryBytes} sorguya cevap vermek için gereken toplam yaklaşık bellektir
+     * (tam vektörler + varsa graf / int8 kodlar); {@code buildMs} sadece ek yapının kurulumudur.
+     */
+    public record Result(String name, String mode, Map<String, Object> params, boolean filtered, int queries, int k,
+                         double recall, double p50Ms, double p99Ms, double meanMs, long buildMs, long memoryBytes) {}
+
+    private final VectorStore store;
+    private final BitSet filter;
+    private final int k;
+    private final int warmup;
+
+    /**
+     * @param filter filtreli varyantların kullanacağı izinli satırlar (null = filtreli varyant yok)
+     */
+    public RetrievalBenchmark(VectorStore store, BitSet filter, int k, int warmup) {
+        this.store = store;
+        this.filter = filter;
+        this.k = k;
+        this.warmup = Math.max(0, warmup);
+    }
+
+    /**
+     * Deponun kendi vektörlerine gürültü eklenerek üretilen, normalize sorgular (deterministik).
+     */
+    public static float[][] syntheticQueries(VectorStore store, int count, double noise, long seed) {
+        if (store.size() == 0 || count <= 0) return new float[0][];
+        Random random = new Random(seed);
+        float[][] queries = new float[count][];
+        for (int q = 0; q < count; q++) {
+            float[] query = store.vector(random.nextInt(store.size()));
+            for (int i = 0; i < query.length; i++) query[i] += (float) (random.nextGaussian() * noise);
+            queries[q] = EmbeddingCodec.normalize(query);
+        }
+        return queries;
+    }
+
+    public List<Result> run(float[][] queries, List<Variant> variants) {
+        int[][] truth = groundTruth(queries, null);
+        int[][] filteredTruth = filter != null ? groundTruth(queries, filter) : null;
+        long vectorBytes = (long) store.size() * store.dimension() * Float.BYTES;
+
+        Map<String, HnswIndex> graphs = new HashMap<>();
+        Map<String, Long> graphBuildMs = new HashMap<>();
+        QuantizedVectors quantized = null;
+        long quantizedBuildMs = 0;
+
+        List<Result> results = new ArrayList<>();
+        for (Variant variant : variants) {
+            if (variant.filtered() && filter == null) continue;
+
+            long buildMs = 0;
+            long memory = vectorBytes;
+            HnswIndex graph = null;
+            if (variant.mode() == RetrievalMode.HNSW) {
+                // Aynı M/efConstruction ile farklı efSearch değerleri aynı grafı paylaşır
+                String key = variant.hnswM() + ":" + variant.efConstruction();
+                if (!graphs.containsKey(key)) {
+                    long start = System.nanoTime();
+                    graphs.put(key, HnswIndex.build(store, variant.hnswM(), variant.efConstruction()));
+                    graphBuildMs.put(key, (System.nanoTime() - start) / 1_000_000);
+                }
+                graph = graphs.get(key);
+                buildMs = graphBuildMs.get(key);
+                memory += graph.sizeInBytes();
+            } else if (variant.mode() == RetrievalMode.QUANTIZED) {
+                if (quantized == null) {
+                    long start = System.nanoTime();
+                    quantized = QuantizedVectors.build(store);
+                    quantizedBuildMs = (System.nanoTime() - start) / 1_000_000;
+                }
+                buildMs = quantizedBuildMs;
+                memory += quantized.sizeInBytes();
+            }
+
+            BitSet allowed = variant.filtered() ? filter : null;
+            int[][] expected = variant.filtered() ? filteredTruth : truth;
+            int[] rows = new int[k];
+            float[] scores = new float[k];
+
+            for (int round = 0; round < warmup; round++) {
+                for (float[] query : queries) search(variant, graph, quantized, allowed, query, rows, scores);
+            }
+
+            long[] nanos = new long[queries.length];
+            int hits = 0, total = 0;
+            for (int q = 0; q < queries.length; q++) {
+                long start = System.nanoTime();
+                int found = search(variant, graph, quantized, allowed, queries[q], rows, scores);
+                nanos[q] = System.nanoTime() - start;
+
+                hits += overlap(expected[q], rows, found);
+                total += expected[q].length;
+            }
+
+            Arrays.sort(nanos);
+            double mean = nanos.length == 0 ? 0 : Arrays.stream(nanos).average().orElse(0) / 1e6;
+            results.add(new Result(variant.name(), variant.mode().name(), variant.params(), variant.filtered(),
+                    queries.length, k, total == 0 ? 1.0 : hits / (double) total,
+                    percentile(nanos, 0.50), percentile(nanos, 0.99), mean, buildMs, memory));
+        }
+        return results;
+    }
+
+    private int search(Variant variant, HnswIndex graph, QuantizedVectors quantized, BitSet allowed,
+                       float[] query, int[] rows, float[] scores) {
+        return switch (variant.mode()) {
+            case HNSW -> graph.search(query, variant.efSearch(), store, rows, scores);
+            case QUANTIZED -> quantized.search(query, store, allowed, variant.rerank(), rows, scores);
+            case EXACT -> store.topK(query, 0, store.size(), allowed, rows, scores);
+        };
+    }
+
+    private int[][] groundTruth(float[][] queries, BitSet allowed) {
+        int[][] truth = new int[queries.length][];
+        int[] rows = new int[k];
+        float[] scores = new float[k];
+        for (int q = 0; q < queries.length; q++) {
+            int found = store.topK(queries[q], 0, store.size(), allowed, rows, scores);
+            truth[q] = Arrays.copyOf(rows, found);
+        }
+        return truth;
+    }
+
+    private static int overlap(int[] expected, int[] rows, int found) {
+        int hits = 0;
+        for (int e : expected) {
+            for (int i = 0; i < found; i++) {
+                if (rows[i] == e) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static double percentile(long[] sortedNanos, double p) {
+        if (sortedNanos.length == 0) return 0;
+        int index = (int) Math.ceil(p * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, index))] / 1e6;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Semantic search'te kullanılacak arama yöntemi.
+ */
+public enum RetrievalMode {
+
+    /** Tüm vektörleri tarayan kesin (brute-force) cosine araması */
+    EXACT,
+
+    /** HNSW grafı üzerinden yaklaşık en yakın komşu araması */
+    HNSW,
+
+    /** int8 kodlar üzerinde tarama + en iyi adayların tam hassasiyetle yeniden skorlanması */
+    QUANTIZED
+}
@@ -0,0 +1,14 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Metadata'sı veritabanından yüklenmiş bir arama sonucu (RAG bağlamı için).
+ * OSDR için {@code imageUrls}, yayınlar için {@code osdrId} null'dır. {@code section} sadece pasajlarda
+ * doludur ("Results" vb.); o zaman {@code text} tüm makale değil eşleşen pasajdır.
+ */
+public record RetrievedDocument(SearchHit hit, String title, String text, String link,
+                                String doi, String osdrId, String imageUrls, String section) {
+
+    public String source() {
+        return hit.type().label();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Saf Java uygulaması. Dört ayrı toplayıcı, toplamalar arasındaki bağımlılık zincirini kırar;
+ * JIT döngüyü açtığında çarpmalar paralel ilerleyebilir.
+ */
+final class ScalarKernel implements SimilarityKernel {
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int bound = length & ~3;
+        for (; i < bound; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float dot(byte[] codes, int offset, float[] query, int length) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int bound = length & ~3;
+        for (; i < bound; i += 4) {
+            s0 += codes[offset + i] * query[i];
+            s1 += codes[offset + i + 1] * query[i + 1];
+            s2 += codes[offset + i + 2] * query[i + 2];
+            s3 += codes[offset + i + 3] * query[i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += codes[offset + i] * query[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+}
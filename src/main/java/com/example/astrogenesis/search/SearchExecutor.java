@@ -0,0 +1,13 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Kesin taramanın nasıl çalıştırılacağı.
+ */
+public enum SearchExecutor {
+
+    /** Sorguyu çağıran iş parçacığında tek başına tara */
+    SERIAL,
+
+    /** Depoyu parçalara bölüp ortak ForkJoinPool üzerinde paralel tara (bkz. {@link ParallelScan}) */
+    PARALLEL
+}
@@ -0,0 +1,91 @@
+package com.example.astrogenesis.search;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Aramayı daraltan metadata koşulları; tüm alanlar opsiyoneldir (null = koşul yok).
+ * <ul>
+ *   <li>{@code types}: kaynak tipi (Publication / OSDR)</li>
+ *   <li>{@code from}/{@code to}: {@code publicationDate} / {@code experimentDate} aralığı (dahil); tarihi olmayanlar elenir</li>
+ *   <li>{@code category}: {@code OSDRDataset.category} (uçuş programı), büyük/küçük harf duyarsız</li>
+ *   <li>{@code keyword}: başlık/anahtar kelime/açıklamada geçen kelimeler (hepsi geçmeli)</li>
+ * </ul>
+ */
+public record SearchFilter(Set<DocType> types, LocalDate from, LocalDate to, String category, String keyword) {
+
+    private static final SearchFilter NONE = new SearchFilter(null, null, null, null, null);
+
+    public static SearchFilter none() {
+        return NONE;
+    }
+
+    /**
+     * İstek parametrelerinden filtre üretir: {@code source} (publication|osdr), {@code from}/{@code to}
+     * (yyyy veya yyyy-MM-dd), {@code category}, {@code keyword}. Tanınmayan değerler yok sayılır.
+     */
+    public static SearchFilter fromParams(Map<String, String> params) {
+        Set<DocType> types = null;
+        String source = params.get("source");
+        if (source != null && !source.isBlank()) {
+            types = EnumSet.noneOf(DocType.class);
+            for (String part : source.split(",")) {
+                for (DocType type : DocType.values()) {
+                    if (type.label().equalsIgnoreCase(part.trim()) || type.name().equalsIgnoreCase(part.trim())) {
+                        types.add(type);
+                    }
+                }
+            }
+            if (types.isEmpty()) types = null;
+        }
+        return new SearchFilter(types,
+                parseDate(params.get("from"), false),
+                parseDate(params.get("to"), true),
+                blankToNull(params.get("category")),
+                blankToNull(params.get("keyword")));
+    }
+
+    /**
+     * {@link #fromParams} ile geri okunabilen parametreler (örn. işçi süreçlere iletmek için); boş alanlar yazılmaz.
+     */
+    public Map<String, String> toParams() {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (types != null) {
+            StringJoiner source = new StringJoiner(",");
+            for (DocType type : types) source.add(type.name());
+            params.put("source", source.toString());
+        }
+        if (from != null) params.put("from", from.toString());
+        if (to != null) params.put("to", to.toString());
+        if (category != null) params.put("category", category);
+        if (keyword != null) params.put("keyword", keyword);
+        return params;
+    }
+
+    public boolean isEmpty() {
+        return types == null && from == null && to == null && category == null && keyword == null;
+    }
+
+    private static LocalDate parseDate(String value, boolean endOfPeriod) {
+        if (value == null || value.isBlank()) return null;
+        String v = value.trim();
+        try {
+            if (v.matches("\\d{4}")) {
+                int year = Integer.parseInt(v);
+                return endOfPeriod ? LocalDate.of(year, 12, 31) : LocalDate.of(year, 1, 1);
+            }
+            return LocalDate.parse(v);
+        } catch (RuntimeException e) {
+            System.err.println("⚠️ Ignoring invalid date filter: " + value);
+            return null;
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
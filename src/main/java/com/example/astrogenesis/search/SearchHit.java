@@ -0,0 +1,9 @@
+package com.example.astrogenesis.search;
+
+/**
+ * İndeksten dönen tek bir sonuç: doküman kimliği, tipi ve skoru.
+ * Metin ve metadata burada taşınmaz; sadece kazanan sonuçlar için ayrıca yüklenir
+ * (bkz. {@link RetrievedDocument}).
+ */
+public record SearchHit(long id, DocType type, float score) {
+}
@@ -0,0 +1,247 @@
+package com.example.astrogenesis.search;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Bir dizindeki segment dosyalarını ve değişken kuyruğu yönetir.
+ * <ul>
+ *   <li>{@code seg-<minGen>-<maxGen>.vseg}: değişmez segmentler (bkz. {@link MappedSegment})</li>
+ *   <li>{@code tail.log}: kuyruğa eklenen vektörlerin append-only kaydı; açılışta tekrar oynatılır</li>
+ *   <li>{@code write.lock}: {@link #open} ile alınıp {@link #close} ile bırakılan işletim sistemi kilidi</li>
+ * </ul>
+ * Kuyruk {@code tailMax} satıra ulaşınca yeni bir segment olarak mühürlenir. {@link #merge} yaşça
+ * bitişik küçük segmentleri birleştirir; birleşen segment girdilerin nesil aralığını devralır, böylece
+ * yarıda kalan bir birleştirmeden sonra açılışta kapsanan eski dosyalar temizlenir.
+ * Yazma metotları tek bir yazar tarafından çağrılmalıdır. Dizin de tek bir sürece aittir: aynı dizini açan
+ * ikinci süreç (aynı makinede iki instance) kilidi alamaz ve hemen hata alır; her instance kendi dizinini kullanmalıdır.
+ */
+public final class SegmentManager implements Closeable {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("seg-(\\d+)-(\\d+)\\.vseg");
+    private static final String TAIL_LOG = "tail.log";
+    private static final String WRITE_LOCK = "write.lock";
+
+    private final Path directory;
+    private final int tailMax;
+    private final int mergeFactor;
+
+    private final List<SegmentFile> files = new ArrayList<>();
+    private FileChannel tailLog;
+    private FileChannel lockChannel;
+    private FileLock writeLock;
+    private long nextGeneration = 1;
+    private long tailValidBytes;
+
+    public SegmentManager(Path directory, int tailMax, int mergeFactor) {
+        this.directory = directory;
+        this.tailMax = Math.max(1, tailMax);
+        this.mergeFactor = Math.max(2, mergeFactor);
+    }
+
+    private record SegmentFile(long minGen, long maxGen, MappedSegment segment) {}
+
+    /**
+     * Dizinin yazma kilidini alır, segmentleri map eder ve kuyruk kaydını tekrar oynatır.
+     *
+     * @throws IllegalStateException dizin başka bir süreç tarafından kilitliyse
+     */
+    public synchronized SegmentedVectorStore open() throws IOException {
+        Files.createDirectories(directory);
+        lock();
+        files.clear();
+
+        List<SegmentFile> found = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "seg-*.vseg")) {
+            for (Path path : stream) {
+                Matcher m = SEGMENT_NAME.matcher(path.getFileName().toString());
+                if (!m.matches()) continue;
+                found.add(new SegmentFile(Long.parseLong(m.group(1)), Long.parseLong(m.group(2)),
+                        MappedSegment.open(path)));
+            }
+        }
+        found.sort(Comparator.comparingLong(SegmentFile::maxGen));
+
+        // Yarıda kalmış birleştirmelerden kalan, başka bir segmentin aralığına düşen dosyaları at
+        for (SegmentFile candidate : found) {
+            boolean covered = found.stream().anyMatch(other -> other != candidate
+                    && other.minGen() <= candidate.minGen() && candidate.maxGen() <= other.maxGen()
+                    && (other.maxGen() - other.minGen()) > (candidate.maxGen() - candidate.minGen()));
+            if (covered) Files.deleteIfExists(candidate.segment().path());
+            else files.add(candidate);
+        }
+        for (SegmentFile file : files) nextGeneration = Math.max(nextGeneration, file.maxGen() + 1);
+
+        VectorIndex tail = replayTail();
+        if (tailLog != null) tailLog.close();
+        tailLog = FileChannel.open(directory.resolve(TAIL_LOG), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        tailLog.truncate(tailValidBytes); // yarım kalmış son kaydı at
+        return SegmentedVectorStore.assemble(mapped(), tail);
+    }
+
+    public synchronized boolean isEmpty() {
+        return files.isEmpty();
+    }
+
+    /**
+     * Tüm içeriği {@code source} ile değiştirir: tek bir segment yazar, eskileri ve kuyruğu siler.
+     */
+    public synchronized SegmentedVectorStore replaceAll(VectorStore source) throws IOException {
+        List<SegmentFile> old = new ArrayList<>(files);
+        files.clear();
+        if (source.size() > 0) {
+            long gen = nextGeneration++;
+            files.add(new SegmentFile(gen, gen, MappedSegment.write(segmentPath(gen, gen), source, 0, source.size())));
+        }
+        truncateTail();
+        for (SegmentFile file : old) Files.deleteIfExists(file.segment().path());
+        return SegmentedVectorStore.assemble(mapped(), VectorIndex.empty());
+    }
+
+    /**
+     * Vektörü kuyruğa ekler (önce kayda, sonra belleğe). Kuyruk dolduysa mühürler.
+     */
+    public synchronized SegmentedVectorStore append(SegmentedVectorStore current, DocType type,
+                                                    long docId, float[] vector) throws IOException {
+        if (current.size() > 0 && vector.length != current.dimension()) return current;
+
+        ByteBuffer record = ByteBuffer.allocate(1 + Long.BYTES + Integer.BYTES + vector.length * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        record.put((byte) type.ordinal()).putLong(docId).putInt(vector.length);
+        for (float v : vector) record.putFloat(v);
+        record.flip();
+        while (record.hasRemaining()) tailLog.write(record);
+
+        SegmentedVectorStore next = current.withTail(current.tail().append(type, docId, vector));
+        return next.tail().size() >= tailMax ? seal(next) : next;
+    }
+
+    /**
+     * Kuyruğu değişmez bir segment olarak diske yazar ve kuyruğu boşaltır.
+     */
+    public synchronized SegmentedVectorStore seal(SegmentedVectorStore current) throws IOException {
+        VectorIndex tail = current.tail();
+        if (tail.size() == 0) return current;
+
+        long gen = nextGeneration++;
+        files.add(new SegmentFile(gen, gen, MappedSegment.write(segmentPath(gen, gen), tail, 0, tail.size())));
+        truncateTail();
+        return SegmentedVectorStore.assemble(mapped(), VectorIndex.empty()).keepSuperseded(current);
+    }
+
+    /**
+     * Segment sayısı {@code mergeFactor}'ü aşarsa, toplam boyutu en küçük olan bitişik
+     * {@code mergeFactor} segmenti tek segmentte birleştirir (geçersiz satırlar atılır).
+     *
+     * @return birleştirme yapılmadıysa aynı örnek
+     */
+    public synchronized SegmentedVectorStore merge(SegmentedVectorStore current) throws IOException {
+        if (files.size() <= mergeFactor) return current;
+
+        int bestStart = 0;
+        long bestRows = Long.MAX_VALUE;
+        for (int start = 0; start + mergeFactor <= files.size(); start++) {
+            long rows = 0;
+            for (int i = start; i < start + mergeFactor; i++) rows += files.get(i).segment().count();
+            if (rows < bestRows) {
+                bestRows = rows;
+                bestStart = start;
+            }
+        }
+
+        int fromRow = 0;
+        for (int i = 0; i < bestStart; i++) fromRow += files.get(i).segment().count();
+        int toRow = fromRow + (int) bestRows;
+
+        List<SegmentFile> inputs = new ArrayList<>(files.subList(bestStart, bestStart + mergeFactor));
+        long minGen = inputs.get(0).minGen();
+        long maxGen = inputs.get(inputs.size() - 1).maxGen();
+        MappedSegment merged = MappedSegment.write(segmentPath(minGen, maxGen), current, fromRow, toRow);
+
+        files.subList(bestStart, bestStart + mergeFactor).clear();
+        files.add(bestStart, new SegmentFile(minGen, maxGen, merged));
+        for (SegmentFile input : inputs) {
+            if (!input.segment().path().equals(merged.path())) Files.deleteIfExists(input.segment().path());
+        }
+        return SegmentedVectorStore.assemble(mapped(), current.tail());
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (tailLog != null) tailLog.close();
+        if (lockChannel != null) lockChannel.close(); // kilidi de bırakır
+        lockChannel = null;
+        writeLock = null;
+    }
+
+    private void lock() throws IOException {
+        if (writeLock != null && writeLock.isValid()) return;
+        FileChannel channel = FileChannel.open(directory.resolve(WRITE_LOCK),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = channel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null; // aynı JVM'de başka bir SegmentManager tutuyor
+        }
+        if (lock == null) {
+            channel.close();
+            throw new IllegalStateException("Vector segment directory " + directory
+                    + " is in use by another instance; give each instance its own search.segments.dir");
+        }
+        lockChannel = channel;
+        writeLock = lock;
+    }
+
+    private List<MappedSegment> mapped() {
+        List<MappedSegment> segments = new ArrayList<>(files.size());
+        for (SegmentFile file : files) segments.add(file.segment());
+        return segments;
+    }
+
+    private Path segmentPath(long minGen, long maxGen) {
+        return directory.resolve(String.format("seg-%016d-%016d.vseg", minGen, maxGen));
+    }
+
+    private void truncateTail() throws IOException {
+        if (tailLog != null) {
+            tailLog.truncate(0);
+            tailLog.force(true);
+        }
+    }
+
+    private VectorIndex replayTail() throws IOException {
+        Path path = directory.resolve(TAIL_LOG);
+        tailValidBytes = 0;
+        if (!Files.exists(path)) return VectorIndex.empty();
+
+        ByteBuffer log = ByteBuffer.wrap(Files.readAllBytes(path)).order(ByteOrder.LITTLE_ENDIAN);
+        VectorIndex tail = VectorIndex.empty();
+        while (log.remaining() >= 1 + Long.BYTES + Integer.BYTES) {
+            DocType type = DocType.fromOrdinal(log.get());
+            long docId = log.getLong();
+            int dimension = log.getInt();
+            if (dimension <= 0 || log.remaining() < dimension * Float.BYTES) break; // yarım kalmış son kayıt
+            float[] vector = new float[dimension];
+            for (int i = 0; i < dimension; i++) vector[i] = log.getFloat();
+            tail = tail.append(type, docId, vector);
+            tailValidBytes = log.position();
+        }
+        return tail;
+    }
+}
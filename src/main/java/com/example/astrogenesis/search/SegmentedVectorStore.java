@@ -0,0 +1,200 @@
+package com.example.astrogenesis.search;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Map edilmiş değişmez segmentler + bellekteki küçük değişken kuyruk (tail) üzerinde tek bir görünüm.
+ * <p>
+ * Satırlar önce segmentlerde (yaşa göre sıralı), sonra kuyrukta numaralanır. Aynı doküman birden
+ * fazla yerde bulunursa en yeni kopya geçerlidir; eskileri {@link #isLive} ile gizlenir.
+ * Örnekler değişmezdir; değişiklikleri {@link SegmentManager} yeni örnek üreterek yayınlar.
+ */
+public final class SegmentedVectorStore implements VectorStore {
+
+    private final MappedSegment[] segments;
+    private final int[] offsets;
+    private final int segmentRows;
+    private final VectorIndex tail;
+    private final BitSet superseded;
+    private final int dimension;
+
+    private SegmentedVectorStore(MappedSegment[] segments, VectorIndex tail, BitSet superseded) {
+        this.segments = segments;
+        this.offsets = new int[segments.length];
+        int rows = 0;
+        for (int i = 0; i < segments.length; i++) {
+            offsets[i] = rows;
+            rows += segments[i].count();
+        }
+        this.segmentRows = rows;
+        this.tail = tail;
+        this.superseded = superseded;
+        this.dimension = segments.length > 0 ? segments[0].dimension() : tail.dimension();
+    }
+
+    /**
+     * Segmentleri (eskiden yeniye) ve kuyruğu birleştirir; tekrar eden dokümanlarda en yeniyi tutar.
+     */
+    static SegmentedVectorStore assemble(List<MappedSegment> segments, VectorIndex tail) {
+        SegmentedVectorStore store = new SegmentedVectorStore(
+                segments.toArray(new MappedSegment[0]), tail, new BitSet());
+
+        Map<Long, Integer> latest = new HashMap<>();
+        BitSet superseded = new BitSet(store.size());
+        for (int row = 0; row < store.size(); row++) {
+            Integer previous = latest.put(key(store.docType(row), store.docId(row)), row);
+            if (previous != null) superseded.set(previous);
+        }
+        return superseded.isEmpty() ? store : new SegmentedVectorStore(store.segments, tail, superseded);
+    }
+
+    /**
+     * Mühürlemede satır numaraları değişmez; {@code before}'da elle geçersiz sayılmış satırlar korunur.
+     */
+    SegmentedVectorStore keepSuperseded(SegmentedVectorStore before) {
+        if (before.superseded.isEmpty()) return this;
+        BitSet next = (BitSet) superseded.clone();
+        next.or(before.superseded);
+        return new SegmentedVectorStore(segments, tail, next);
+    }
+
+    SegmentedVectorStore withTail(VectorIndex newTail) {
+        return new SegmentedVectorStore(segments, newTail, superseded);
+    }
+
+    /**
+     * Satırları geçersiz sayan yeni görünüm döner (doküman kuyrukta yeni bir satırla güncellendiğinde).
+     * Bir sonraki açılış/birleştirmede tekrarlar doküman anahtarından yeniden hesaplanır; diğer satırları
+     * (ör. metni silinmiş doküman) çağıran yeniden geçersiz sayar.
+     */
+    public SegmentedVectorStore supersede(int... rows) {
+        if (rows.length == 0) return this;
+        BitSet next = (BitSet) superseded.clone();
+        for (int row : rows) next.set(row);
+        return new SegmentedVectorStore(segments, tail, next);
+    }
+
+    MappedSegment[] segments() {
+        return segments;
+    }
+
+    VectorIndex tail() {
+        return tail;
+    }
+
+    public int segmentCount() {
+        return segments.length;
+    }
+
+    @Override
+    public int size() {
+        return segmentRows + tail.size();
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public boolean isLive(int row) {
+        return !superseded.get(row);
+    }
+
+    @Override
+    public long docId(int row) {
+        if (row >= segmentRows) return tail.docId(row - segmentRows);
+        int s = segmentOf(row);
+        return segments[s].docId(row - offsets[s]);
+    }
+
+    @Override
+    public DocType docType(int row) {
+        if (row >= segmentRows) return tail.docType(row - segmentRows);
+        int s = segmentOf(row);
+        return segments[s].docType(row - offsets[s]);
+    }
+
+    @Override
+    public float dot(int row, float[] query) {
+        if (row >= segmentRows) return tail.dot(row - segmentRows, query);
+        int s = segmentOf(row);
+        return segments[s].dot(row - offsets[s], query);
+    }
+
+    @Override
+    public void dot(int row, float[][] queries, int from, int to, float[] out) {
+        if (row >= segmentRows) {
+            tail.dot(row - segmentRows, queries, from, to, out);
+            return;
+        }
+        int s = segmentOf(row);
+        segments[s].dot(row - offsets[s], queries, from, to, out);
+    }
+
+    @Override
+    public float dot(int rowA, int rowB) {
+        return dot(rowA, vector(rowB));
+    }
+
+    @Override
+    public float[] vector(int row) {
+        if (row >= segmentRows) return tail.vector(row - segmentRows);
+        int s = segmentOf(row);
+        float[] copy = new float[dimension];
+        segments[s].copyVector(row - offsets[s], copy);
+        return copy;
+    }
+
+    /**
+     * Segment segment tarar; satır başına segment araması yapılmaz.
+     */
+    @Override
+    public int topK(float[] query, int fromRow, int toRow, BitSet filter, int[] rows, float[] scores) {
+        int k = Math.min(rows.length, scores.length);
+        if (k == 0 || query.length != dimension) return 0;
+
+        int found = 0;
+        toRow = Math.min(toRow, size());
+        for (int s = fromRow < segmentRows ? segmentOf(fromRow) : segments.length; s < segments.length; s++) {
+            MappedSegment segment = segments[s];
+            int base = offsets[s];
+            if (base >= toRow) break;
+            int end = Math.min(segment.count(), toRow - base);
+            for (int local = next(filter, base, Math.max(0, fromRow - base)); local >= 0 && local < end;
+                 local = next(filter, base, local + 1)) {
+                int row = base + local;
+                if (superseded.get(row)) continue;
+                found = TopK.offer(rows, scores, found, k, row, segment.dot(local, query));
+            }
+        }
+        for (int row = VectorStore.next(filter, Math.max(fromRow, segmentRows)); row >= 0 && row < toRow;
+             row = VectorStore.next(filter, row + 1)) {
+            if (superseded.get(row)) continue;
+            found = TopK.offer(rows, scores, found, k, row, tail.dot(row - segmentRows, query));
+        }
+        return TopK.sortDescending(rows, scores, found);
+    }
+
+    private static int next(BitSet filter, int base, int local) {
+        int row = VectorStore.next(filter, base + local);
+        return row < 0 ? -1 : row - base;
+    }
+
+    private int segmentOf(int row) {
+        int lo = 0, hi = offsets.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (offsets[mid] <= row) lo = mid;
+            else hi = mid - 1;
+        }
+        return lo;
+    }
+
+    static long key(DocType type, long docId) {
+        return ((long) type.ordinal() << 56) | docId;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Dokümanların {@code count} işçi süreç arasında hash ile bölünmesi; her doküman tam olarak bir parçaya düşer.
+ * {@code count <= 1} ise tek parça vardır ve her doküman sahiplenilir.
+ */
+public record ShardPartition(int index, int count) {
+
+    public ShardPartition {
+        if (count < 1) count = 1;
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Shard index " + index + " is out of range for " + count + " shards");
+        }
+    }
+
+    public static ShardPartition single() {
+        return new ShardPartition(0, 1);
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public boolean owns(DocType type, long docId) {
+        return count <= 1 || shardOf(type, docId, count) == index;
+    }
+
+    /**
+     * Doküman anahtarını karıştırıp (ardışık id'ler parçalara eşit dağılsın diye) parçaya eşler.
+     */
+    public static int shardOf(DocType type, long docId, int count) {
+        long h = ((long) type.ordinal() << 56) | docId;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) Math.floorMod(h, (long) count);
+    }
+
+    /** Dosya adlarında kullanılan etiket, örn. {@code shard-0-of-4} */
+    public String label() {
+        return "shard-" + index + "-of-" + count;
+    }
+}
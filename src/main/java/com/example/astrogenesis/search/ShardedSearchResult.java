@@ -0,0 +1,18 @@
+package com.example.astrogenesis.search;
+
+import java.util.List;
+
+/**
+ * Scatter-gather aramanın birleştirilmiş sonucu. {@code failedShards} cevap vermeyen (zaman aşımı, hata,
+ * model uyuşmazlığı) işçileri açıklar; boş değilse sonuçlar sadece cevap veren parçaları kapsar.
+ */
+public record ShardedSearchResult(List<SearchHit> hits, int shards, List<String> failedShards) {
+
+    public boolean isPartial() {
+        return !failedShards.isEmpty();
+    }
+
+    public int answeredShards() {
+        return shards - failedShards.size();
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Aramanın en içteki döngüsü: normalize edilmiş vektörler arasında dot product (= cosine benzerliği).
+ * Uygulama çalışma anında {@link SimilarityKernels#get()} ile seçilir.
+ */
+public interface SimilarityKernel {
+
+    /**
+     * {@code a[aOffset..aOffset+length)} · {@code b[bOffset..bOffset+length)}
+     */
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * int8 kodlar ile float sorgu arasında dot product: {@code sum(codes[offset+i] * query[i])}.
+     */
+    float dot(byte[] codes, int offset, float[] query, int length);
+
+    /**
+     * Loglarda görünen kısa ad.
+     */
+    String name();
+}
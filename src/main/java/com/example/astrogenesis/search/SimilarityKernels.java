@@ -0,0 +1,44 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Çalışma anında {@link SimilarityKernel} seçimi.
+ * <p>
+ * JVM {@code --add-modules jdk.incubator.vector} ile başlatıldıysa SIMD uygulaması, aksi halde skaler
+ * uygulama kullanılır. {@code -Dsearch.kernel=scalar} SIMD'yi devre dışı bırakır (karşılaştırma için).
+ */
+public final class SimilarityKernels {
+
+    private static final SimilarityKernel SCALAR = new ScalarKernel();
+    private static final SimilarityKernel SELECTED = select();
+
+    private SimilarityKernels() {}
+
+    /**
+     * Seçilmiş (mümkünse SIMD) uygulama.
+     */
+    public static SimilarityKernel get() {
+        return SELECTED;
+    }
+
+    public static SimilarityKernel scalar() {
+        return SCALAR;
+    }
+
+    private static SimilarityKernel select() {
+        if ("scalar".equalsIgnoreCase(System.getProperty("search.kernel"))) return SCALAR;
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) return SCALAR;
+        try {
+            SimilarityKernel kernel = (SimilarityKernel) Class
+                    .forName("com.example.astrogenesis.search.VectorApiKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+            // Başlangıçta bir kez dene: desteklenmeyen bir platformda burada patlasın, sorguda değil
+            kernel.dot(new float[33], 0, new float[33], 0, 33);
+            kernel.dot(new byte[33], 0, new float[33], 33);
+            return kernel;
+        } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+            System.err.println("⚠️ Vector API kernel unavailable, using scalar: " + e);
+            return SCALAR;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.astrogenesis.search;
+
+/**
+ * Sabit boyutlu top-k seçimi için yardımcı: {@code rows}/{@code scores} dizileri, kökünde en düşük skorun
+ * durduğu bir min-heap olarak kullanılır. Aday başına maliyet {@code O(log k)}; k'dan kötü adaylar tek
+ * karşılaştırmayla elenir. Tarama bitince {@link #sortDescending} heap'i yerinde azalan sıraya çevirir.
+ */
+final class TopK {
+
+    private TopK() {
+    }
+
+    /**
+     * Adayı heap'e ekler; heap doluysa ve aday en kötüden iyi değilse atlar.
+     *
+     * @return heap'teki yeni eleman sayısı
+     */
+    static int offer(int[] rows, float[] scores, int found, int k, int row, float score) {
+        if (found < k) {
+            siftUp(rows, scores, found, row, score);
+            return found + 1;
+        }
+        if (score <= scores[0]) return found;
+        siftDown(rows, scores, k, 0, row, score);
+        return found;
+    }
+
+    /**
+     * İlk {@code found} elemanı (geçerli bir heap) skora göre azalan sıraya dizer.
+     *
+     * @return {@code found}
+     */
+    static int sortDescending(int[] rows, float[] scores, int found) {
+        for (int n = found - 1; n > 0; n--) {
+            int minRow = rows[0];
+            float minScore = scores[0];
+            siftDown(rows, scores, n, 0, rows[n], scores[n]);
+            rows[n] = minRow;
+            scores[n] = minScore;
+        }
+        return found;
+    }
+
+    private static void siftUp(int[] rows, float[] scores, int pos, int row, float score) {
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (scores[parent] <= score) break;
+            rows[pos] = rows[parent];
+            scores[pos] = scores[parent];
+            pos = parent;
+        }
+        rows[pos] = row;
+        scores[pos] = score;
+    }
+
+    private static void siftDown(int[] rows, float[] scores, int size, int pos, int row, float score) {
+        while (true) {
+            int child = 2 * pos + 1;
+            if (child >= size) break;
+            if (child + 1 < size && scores[child + 1] < scores[child]) child++;
+            if (scores[child] >= score) break;
+            rows[pos] = rows[child];
+            scores[pos] = scores[child];
+            pos = child;
+        }
+        rows[pos] = row;
+        scores[pos] = score;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.astrogenesis.search;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@code jdk.incubator.vector} ile SIMD uygulama: platformun tercih ettiği genişlikte lane'ler
+ * üzerinde fused multiply-add, sonda tek bir yatay toplama. Kuyruktaki artık elemanlar skaler işlenir.
+ * <p>
+ * Bu sınıfa doğrudan referans verilmez; modül yoksa yüklenmesin diye {@link SimilarityKernels}
+ * onu reflection ile oluşturur.
+ */
+final class VectorApiKernel implements SimilarityKernel {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    // Aynı lane sayısına sahip byte türü; int8 kodlar float lane'lere genişletilir
+    private static final VectorSpecies<Byte> BYTES =
+            VectorSpecies.of(byte.class, VectorShape.forBitSize(FLOATS.length() * Byte.SIZE));
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector acc = FloatVector.zero(FLOATS);
+        int i = 0;
+        int bound = FLOATS.loopBound(length);
+        for (; i < bound; i += FLOATS.length()) {
+            FloatVector va = FloatVector.fromArray(FLOATS, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(FLOATS, b, bOffset + i);
+            acc = va.fma(vb, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    @Override
+    public float dot(byte[] codes, int offset, float[] query, int length) {
+        FloatVector acc = FloatVector.zero(FLOATS);
+        int i = 0;
+        int bound = FLOATS.loopBound(length);
+        for (; i < bound; i += FLOATS.length()) {
+            FloatVector vc = (FloatVector) ByteVector.fromArray(BYTES, codes, offset + i)
+                    .convertShape(VectorOperators.B2F, FLOATS, 0);
+            FloatVector vq = FloatVector.fromArray(FLOATS, query, i);
+            acc = vc.fma(vq, acc);
+        }
+        float sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += codes[offset + i] * query[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public String name() {
+        return "vector-api (" + FLOATS.length() + " x float32)";
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.astrogenesis.search;
+
+import java.util.BitSet;
+
+/**
+ * Bellekte tutulan, değişmez vektör indeksi.
+ * <p>
+ * Tüm vektörler normalize edilmiş olarak tek bir bitişik {@code float[]} içinde saklanır
+ * (satır {@code r}, {@code [r * dimension, (r + 1) * dimension)} aralığındadır).
+ * Doküman id'leri ve kaynak tipleri aynı satır numarasıyla paralel dizilerde tutulur.
+ * <p>
+ * {@link #append} yeni bir örnek döner ve kapasite yettiği sürece dizileri eski örnekle paylaşır;
+ * eski örnek yalnızca kendi {@code size} değerine kadar okuduğu için etkilenmez. Bu yüzden append
+ * her zaman en güncel örnek üzerinde, tek bir yazar tarafından çağrılmalıdır.
+ */
+public final class VectorIndex implements VectorStore {
+
+    private static final VectorIndex EMPTY = new VectorIndex(0, 0, new float[0], new long[0], new byte[0]);
+    private static final SimilarityKernel KERNEL = SimilarityKernels.get();
+
+    private final int dimension;
+    private final int size;
+    private final float[] vectors;
+    private final long[] docIds;
+    private final byte[] docTypes;
+    private final BitSet superseded; // güncellenen dokümanların eski satırları; null = hiç yok
+
+    private VectorIndex(int dimension, int size, float[] vectors, long[] docIds, byte[] docTypes) {
+        this(dimension, size, vectors, docIds, docTypes, null);
+    }
+
+    private VectorIndex(int dimension, int size, float[] vectors, long[] docIds, byte[] docTypes, BitSet superseded) {
+        this.dimension = dimension;
+        this.size = size;
+        this.vectors = vectors;
+        this.docIds = docIds;
+        this.docTypes = docTypes;
+        this.superseded = superseded;
+    }
+
+    public static VectorIndex empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Zaten normalize edilmiş, paketlenmiş dizilerden indeks oluşturur (kopyalamaz).
+     */
+    static VectorIndex wrap(int dimension, int size, float[] vectors, long[] docIds, byte[] docTypes) {
+        return size == 0 ? EMPTY : new VectorIndex(dimension, size, vectors, docIds, docTypes);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public long docId(int row) {
+        return docIds[row];
+    }
+
+    @Override
+    public DocType docType(int row) {
+        return DocType.fromOrdinal(docTypes[row]);
+    }
+
+    @Override
+    public float dot(int row, float[] query) {
+        return KERNEL.dot(vectors, row * dimension, query, 0, dimension);
+    }
+
+    @Override
+    public float dot(int rowA, int rowB) {
+        return KERNEL.dot(vectors, rowA * dimension, vectors, rowB * dimension, dimension);
+    }
+
+    @Override
+    public float[] vector(int row) {
+        float[] copy = new float[dimension];
+        System.arraycopy(vectors, row * dimension, copy, 0, dimension);
+        return copy;
+    }
+
+    /**
+     * Sonuna bir vektör eklenmiş yeni indeks döner (tek yazar; bkz. sınıf açıklaması).
+     * Boyutu uymayan vektörlerde aynı örnek döner.
+     */
+    public VectorIndex append(DocType type, long docId, float[] vector) {
+        if (vector == null || vector.length == 0) return this;
+        if (size == 0) return builder().add(type, docId, vector).build();
+        if (vector.length != dimension) return this;
+
+        float[] v = vectors;
+        long[] ids = docIds;
+        byte[] types = docTypes;
+        if (size == ids.length) {
+            int capacity = Math.max(16, size * 2);
+            v = new float[capacity * dimension];
+            System.arraycopy(vectors, 0, v, 0, size * dimension);
+            ids = new long[capacity];
+            System.arraycopy(docIds, 0, ids, 0, size);
+            types = new byte[capacity];
+            System.arraycopy(docTypes, 0, types, 0, size);
+        }
+
+        System.arraycopy(vector, 0, v, size * dimension, dimension);
+        normalizeRow(v, size * dimension, dimension);
+        ids[size] = docId;
+        types[size] = (byte) type.ordinal();
+        return new VectorIndex(dimension, size + 1, v, ids, types, superseded);
+    }
+
+    /**
+     * Satırları geçersiz sayan yeni indeks döner (doküman yeni bir satırla güncellendiğinde).
+     * Diziler paylaşılır, sadece küçük BitSet çağrı başına bir kez kopyalanır.
+     */
+    public VectorIndex supersede(int... rows) {
+        if (rows.length == 0) return this;
+        BitSet next = superseded != null ? (BitSet) superseded.clone() : new BitSet(size);
+        for (int row : rows) next.set(row);
+        return new VectorIndex(dimension, size, vectors, docIds, docTypes, next);
+    }
+
+    @Override
+    public boolean isLive(int row) {
+        return superseded == null || !superseded.get(row);
+    }
+
+    /**
+     * Skorlama sırasında bellek ayrılmaz; sonuç dizileri çağıran tarafından verilir.
+     */
+    @Override
+    public int topK(float[] query, int fromRow, int toRow, BitSet filter, int[] rows, float[] scores) {
+        int k = Math.min(rows.length, scores.length);
+        if (k == 0 || query.length != dimension) return 0;
+
+        int found = 0;
+        toRow = Math.min(toRow, size);
+        for (int row = VectorStore.next(filter, fromRow); row >= 0 && row < toRow; row = VectorStore.next(filter, row + 1)) {
+            if (superseded != null && superseded.get(row)) continue;
+            found = TopK.offer(rows, scores, found, k, row, dot(row, query));
+        }
+        return TopK.sortDescending(rows, scores, found);
+    }
+
+    /**
+     * İndeksi satır satır doldurur. İlk eklenen vektörün boyutu indeksin boyutunu belirler;
+     * farklı boyuttaki vektörler atlanır.
+     */
+    public static final class Builder {
+
+        private int dimension = -1;
+        private int size;
+        private float[] vectors = new float[0];
+        private long[] docIds = new long[16];
+        private byte[] docTypes = new byte[16];
+
+        private Builder() {
+        }
+
+        public Builder add(DocType type, long docId, float[] vector) {
+            if (vector == null || vector.length == 0) return this;
+            if (dimension < 0) {
+                dimension = vector.length;
+                vectors = new float[dimension * 16];
+            }
+            if (vector.length != dimension) return this;
+
+            ensureCapacity(size + 1);
+            System.arraycopy(vector, 0, vectors, size * dimension, dimension);
+            normalizeRow(vectors, size * dimension, dimension);
+            docIds[size] = docId;
+            docTypes[size] = (byte) type.ordinal();
+            size++;
+            return this;
+        }
+
+        public VectorIndex build() {
+            if (size == 0) return EMPTY;
+
+            float[] packed = new float[size * dimension];
+            System.arraycopy(vectors, 0, packed, 0, packed.length);
+            long[] ids = new long[size];
+            System.arraycopy(docIds, 0, ids, 0, size);
+            byte[] types = new byte[size];
+            System.arraycopy(docTypes, 0, types, 0, size);
+            return new VectorIndex(dimension, size, packed, ids, types);
+        }
+
+        private void ensureCapacity(int rows) {
+            if (rows <= docIds.length) return;
+            int capacity = Math.max(rows, docIds.length * 2);
+
+            float[] v = new float[capacity * dimension];
+            System.arraycopy(vectors, 0, v, 0, size * dimension);
+            vectors = v;
+            long[] ids = new long[capacity];
+            System.arraycopy(docIds, 0, ids, 0, size);
+            docIds = ids;
+            byte[] types = new byte[capacity];
+            System.arraycopy(docTypes, 0, types, 0, size);
+            docTypes = types;
+        }
+    }
+
+    private static void normalizeRow(float[] vectors, int base, int dimension) {
+        double norm = 0.0;
+        for (int i = 0; i < dimension; i++) norm += vectors[base + i] * vectors[base + i];
+        if (norm == 0.0) return;
+
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < dimension; i++) vectors[base + i] *= inv;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.astrogenesis.search;
+
+import java.util.BitSet;
+
+/**
+ * Satır numarasıyla adreslenen, normalize edilmiş vektör deposu.
+ * Bellekteki {@link VectorIndex} ve dosyadan map edilen {@link SegmentedVectorStore} bunu uygular.
+ * Uygulamalar değişmezdir; yeni vektör eklemek yeni bir örnek üretir.
+ */
+public interface VectorStore {
+
+    int size();
+
+    int dimension();
+
+    long docId(int row);
+
+    DocType docType(int row);
+
+    /**
+     * Satır hâlâ geçerli mi (daha yeni bir kopyası tarafından geçersiz kılınmamış mı)?
+     */
+    default boolean isLive(int row) {
+        return true;
+    }
+
+    /**
+     * Normalize edilmiş sorgu vektörü ile satır arasındaki dot product (= cosine benzerliği).
+     */
+    float dot(int row, float[] query);
+
+    /**
+     * İki satır arasındaki dot product.
+     */
+    float dot(int rowA, int rowB);
+
+    /**
+     * Satırı {@code queries[from..to)} sorgularının her biriyle çarpar, sonuçları {@code out[0..to-from)}'a yazar.
+     * Toplu aramada ({@link BatchScan}) satır bellekten bir kez okunup tüm sorgular için kullanılır.
+     */
+    default void dot(int row, float[][] queries, int from, int to, float[] out) {
+        for (int q = from; q < to; q++) out[q - from] = dot(row, queries[q]);
+    }
+
+    /**
+     * Satırın normalize edilmiş vektörünün bir kopyası.
+     */
+    float[] vector(int row);
+
+    /**
+     * En yüksek skorlu {@code rows.length} canlı satırı skora göre azalan sırada yazar.
+     *
+     * @return bulunan sonuç sayısı
+     */
+    default int topK(float[] query, int[] rows, float[] scores) {
+        return topK(query, 0, size(), null, rows, scores);
+    }
+
+    /**
+     * {@link #topK(float[], int[], float[])} ile aynı, ama sadece {@code [fromRow, toRow)} aralığını tarar
+     * (paralel taramada her parça kendi aralığını çağırır). {@code filter} verilirse sadece bitleri set
+     * edilmiş satırlar skorlanır; diğerleri için dot product hiç hesaplanmaz.
+     */
+    default int topK(float[] query, int fromRow, int toRow, BitSet filter, int[] rows, float[] scores) {
+        int k = Math.min(rows.length, scores.length);
+        if (k == 0 || query.length != dimension()) return 0;
+
+        int found = 0;
+        toRow = Math.min(toRow, size());
+        for (int row = next(filter, fromRow); row >= 0 && row < toRow; row = next(filter, row + 1)) {
+            if (!isLive(row)) continue;
+            found = TopK.offer(rows, scores, found, k, row, dot(row, query));
+        }
+        return TopK.sortDescending(rows, scores, found);
+    }
+
+    /**
+     * Filtre yoksa {@code row}, varsa {@code row}'dan itibaren ilk izinli satır (-1 = kalmadı).
+     */
+    static int next(BitSet filter, int row) {
+        return filter == null ? row : filter.nextSetBit(row);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.repository.EmbeddingChangeRepository;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Birden fazla uygulama örneği çalışırken her örneğin bellek içi indeksini güncel tutar:
+ * {@code embedding_changes} tablosunu sıra numarasıyla takip eder ve yeni kayıtların güncel vektörlerini
+ * {@link SemanticIndexService#add(String, DocType, long, float[])} ile uygular. Tabloları yeniden taramaya gerek kalmaz.
+ * <p>
+ * Sıra numaraları commit sırasına göre değil, insert sırasına göre verilir: küçük numaralı bir transaction
+ * daha sonra commit olabilir. Bu yüzden imleç bir boşluğu ancak boşluktan sonraki kayıt
+ * {@code search.sync.gap-timeout-ms}'den eskiyse geçer (rollback'ler kalıcı boşluk bırakır); yaş, örnekler arası
+ * saat farkından etkilenmesin diye veritabanı saatiyle damgalanır ve ölçülür. O zamana kadar
+ * boşluktan sonraki kayıtlar her turda tekrar uygulanır. Aynı vektör tekrar uygulandığında indeks değişmez.
+ * Bu örneğin kendi yazımları da geri gelir, onlar da aynı şekilde atlanır.
+ */
+@Service
+public class ChangeLogTailer {
+
+    private final EmbeddingChangeRepository changeRepository;
+    private final SemanticIndexService semanticIndexService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${search.sync.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.sync.batch-size:500}")
+    private int batchSize;
+
+    @Value("${search.sync.gap-timeout-ms:10000}")
+    private long gapTimeoutMs;
+
+    @Value("${search.sync.retention-days:7}")
+    private int retentionDays;
+
+    // Son kesin uygulanan sıra numarası; -1 → henüz başlanmadı
+    private long cursor = -1;
+
+    public ChangeLogTailer(EmbeddingChangeRepository changeRepository,
+                           SemanticIndexService semanticIndexService,
+                           TransactionTemplate transactionTemplate) {
+        this.changeRepository = changeRepository;
+        this.semanticIndexService = semanticIndexService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Yeni değişiklikleri okur ve uygular. İlk çağrıda sadece imleci sona alır; indeks ilk kurulumda
+     * zaten veritabanının tamamını okur.
+     */
+    @Scheduled(fixedDelayString = "${search.sync.interval-ms:2000}")
+    public synchronized void poll() {
+        if (!enabled) return;
+
+        try {
+            if (cursor < 0) {
+                cursor = changeRepository.findLastId();
+                return;
+            }
+
+            List<Object[]> rows = changeRepository.findChangesAfter(cursor, gapTimeoutMs, PageRequest.of(0, batchSize));
+            long safe = cursor;
+            boolean gap = false;
+            int applied = 0;
+            for (Object[] row : rows) {
+                // id, recent, docType, docId, model, vector
+                long id = (Long) row[0];
+                if (!gap && id != safe + 1 && (Boolean) row[1]) {
+                    gap = true; // daha küçük numaralı bir yazım henüz commit olmamış olabilir
+                }
+                if (row[5] != null) {
+                    semanticIndexService.add((String) row[4], (DocType) row[2], (Long) row[3],
+                            EmbeddingCodec.fromBytes((byte[]) row[5]));
+                    applied++;
+                }
+                if (!gap) safe = id;
+            }
+            if (safe > cursor) {
+                System.out.printf("🔄 Applied %d embedding changes from the change log (seq %d → %d)%n",
+                        applied, cursor, safe);
+            }
+            cursor = safe;
+        } catch (Exception e) {
+            System.err.println("⚠️ Change log poll failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Saklama süresini aşan kayıtları siler. Bu süreden uzun kapalı kalan bir örnek zaten açılışta tam kurulum yapar.
+     */
+    @Scheduled(initialDelayString = "${search.sync.prune-interval-ms:3600000}",
+               fixedDelayString = "${search.sync.prune-interval-ms:3600000}")
+    public void prune() {
+        if (!enabled) return;
+
+        try {
+            Integer removed = transactionTemplate.execute(status ->
+                    changeRepository.deleteOlderThan(LocalDateTime.now().minusDays(retentionDays)));
+            if (removed != null && removed > 0) {
+                System.out.printf("🧹 Pruned %d embedding change log entries%n", removed);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Change log prune failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.astrogenesis.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Bir dış bağımlılık için devre kesici.
+ * <p>
+ * CLOSED: istekler geçer; art arda {@code failureThreshold} geçici hata devreyi OPEN yapar.
+ * OPEN: {@code openDuration} boyunca istekler hiç gönderilmeden reddedilir (thread'ler timeout beklemez).
+ * HALF_OPEN: süre dolunca tek bir deneme isteğine izin verilir; başarılıysa CLOSED, değilse yeniden OPEN.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    private long successes;
+    private long failures;
+    private long rejected;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration openDuration) {
+        this(name, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * İstek gönderilebilir mi? OPEN iken {@code false}; HALF_OPEN'da sadece tek deneme isteğine {@code true}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.CLOSED) return true;
+        if (state == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return true;
+        }
+        rejected++;
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        successes++;
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            System.out.println("🟢 Circuit '" + name + "' closed");
+            state = State.CLOSED;
+        }
+        trialInFlight = false;
+    }
+
+    /**
+     * Bağımlılığın sağlığıyla ilgili (geçici) hata; 4xx gibi istemci hataları sayılmamalı.
+     */
+    public synchronized void onFailure() {
+        failures++;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            System.err.printf("🔴 Circuit '%s' opened after %d consecutive failures%n", name, consecutiveFailures);
+            state = State.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+        trialInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("name", name);
+        snapshot.put("state", state.name());
+        snapshot.put("consecutiveFailures", consecutiveFailures);
+        snapshot.put("successes", successes);
+        snapshot.put("failures", failures);
+        snapshot.put("rejected", rejected);
+        if (state == State.OPEN) {
+            long remaining = Math.max(0, openNanos - (nanoTime.getAsLong() - openedAt));
+            snapshot.put("retryInMs", remaining / 1_000_000);
+        }
+        return snapshot;
+    }
+
+    /**
+     * "Full jitter" üstel bekleme: {@code [0, min(max, base * 2^attempt)]} arası rastgele; sunucu
+     * {@code Retry-After} verdiyse en az o kadar.
+     *
+     * @param attempt 0'dan başlayan yeniden deneme sırası
+     */
+    public static long backoffMillis(int attempt, long baseMillis, long maxMillis, Duration retryAfter, double random) {
+        long ceiling = Math.min(maxMillis, baseMillis << Math.min(attempt, 30));
+        long delay = (long) (ceiling * random);
+        return retryAfter != null ? Math.max(delay, retryAfter.toMillis()) : delay;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Henüz embedding'i olmayan dokümanları keyset sayfalamayla tarar, her sayfayı toplu embed eder
+ * ve sonuçları tek transaction'da yazar. Bellek kullanımı tablo boyutundan bağımsızdır; veritabanı
+ * gidiş-dönüşleri satır başına değil sayfa başınadır.
+ * <p>
+ * Embed edilebilen her tablo bir {@link Source} verir; yayınlar {@link PublicationService}, OSDR
+ * datasetleri {@link OSDREmbeddingService} üzerinden gelir.
+ */
+@Service
+public class EmbeddingBackfillService {
+
+    /**
+     * Backfill edilecek bir tablo.
+     */
+    public interface Source {
+
+        DocType type();
+
+        /**
+         * {@code afterId}'den sonraki, {@code model} ile embedding'i olmayan satırlar id sırasıyla:
+         * id, embed edilecek metin, metin boşsa kullanılacak yedek (örn. başlık).
+         */
+        List<Object[]> findMissing(long afterId, String model, Pageable page);
+
+        /**
+         * Eski JSON TEXT kolonunu doldurur (aynı transaction'da); kolonu olmayan tablolar için no-op.
+         */
+        default void writeLegacyJson(Map<Long, String> vectors) {
+        }
+    }
+
+    private final EmbeddingService embeddingService;
+    private final EmbeddingStore embeddingStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${embedding.backfill.page-size:200}")
+    private int pageSize;
+
+    public EmbeddingBackfillService(EmbeddingService embeddingService,
+                                    EmbeddingStore embeddingStore,
+                                    TransactionTemplate transactionTemplate) {
+        this.embeddingService = embeddingService;
+        this.embeddingStore = embeddingStore;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Tabloyu baştan sona bir kez tarar. Embed edilemeyen satırlar atlanır ve bir sonraki çalıştırmada denenir.
+     *
+     * @return yazılan embedding sayısı
+     */
+    public int run(Source source) {
+        String model = embeddingStore.model();
+        long cursor = 0;
+        int total = 0;
+
+        while (true) {
+            List<Object[]> rows = source.findMissing(cursor, model, PageRequest.of(0, pageSize));
+            if (rows.isEmpty()) break;
+
+            List<String> texts = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                String text = (String) row[1];
+                texts.add(text != null && !text.isBlank() ? text : (String) row[2]);
+            }
+            List<float[]> vectors = embeddingService.generateEmbeddings(texts, model);
+
+            Map<Long, float[]> embedded = new LinkedHashMap<>();
+            for (int i = 0; i < rows.size(); i++) {
+                Long id = (Long) rows.get(i)[0];
+                cursor = id;
+                float[] vector = vectors.get(i);
+                if (vector != null && vector.length > 0) embedded.put(id, vector);
+            }
+
+            if (!embedded.isEmpty()) {
+                boolean legacyJson = embeddingStore.writesLegacyJson(model);
+                transactionTemplate.executeWithoutResult(status -> {
+                    embeddingStore.saveAll(source.type(), model, embedded);
+                    if (legacyJson) {
+                        Map<Long, String> json = new LinkedHashMap<>();
+                        embedded.forEach((id, vector) -> json.put(id, EmbeddingCodec.toJson(vector)));
+                        source.writeLegacyJson(json);
+                    }
+                });
+            }
+            total += embedded.size();
+            System.out.printf("✅ [%s] Embedded %d/%d rows (up to id %d, %d so far)%n",
+                    source.type(), embedded.size(), rows.size(), cursor, total);
+        }
+
+        System.out.printf("🎯 Total %s embeddings generated: %d%n", source.type(), total);
+        return total;
+    }
+}
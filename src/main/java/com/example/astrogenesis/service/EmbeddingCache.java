@@ -0,0 +1,169 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.entity.EmbeddingCacheEntry;
+import com.example.astrogenesis.repository.EmbeddingCacheRepository;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link EmbeddingService}'in ağ çağrısından önce baktığı içerik adresli önbellek.
+ * <p>
+ * Anahtar, temizlenmiş metnin SHA-256'sı + model adıdır. Önde süreç içi bir LRU, arkada kalıcı
+ * {@code embedding_cache} tablosu vardır; tablo tüm örnekler ve yeniden başlatmalar arasında paylaşılır.
+ * Dönen vektörler her zaman kopyadır ({@link EmbeddingCodec#normalize} diziyi yerinde değiştirir).
+ */
+@Service
+public class EmbeddingCache {
+
+    // Tek IN sorgusundaki en fazla hash
+    private static final int LOOKUP_CHUNK = 500;
+
+    private final EmbeddingCacheRepository repository;
+    private final boolean enabled;
+    private final Map<String, float[]> memory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EmbeddingCache(EmbeddingCacheRepository repository,
+                          @Value("${embedding.cache.enabled:true}") boolean enabled,
+                          @Value("${embedding.cache.memory-entries:10000}") int memoryEntries) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > memoryEntries;
+            }
+        };
+    }
+
+    /**
+     * Temizlenmiş metnin içerik anahtarı (küçük harf hex SHA-256).
+     */
+    public static String key(String cleanText) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(cleanText.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Önbellekte bulunan anahtarlar için vektörler (önce bellek, kalanlar tek tablo sorgusuyla).
+     */
+    public Map<String, float[]> getAll(String model, Collection<String> keys) {
+        Map<String, float[]> found = new HashMap<>();
+        if (!enabled || keys.isEmpty()) return found;
+
+        List<String> remote = new ArrayList<>();
+        synchronized (memory) {
+            for (String key : keys) {
+                float[] vector = memory.get(memoryKey(model, key));
+                if (vector != null) found.put(key, vector.clone());
+                else remote.add(key);
+            }
+        }
+
+        for (int from = 0; from < remote.size(); from += LOOKUP_CHUNK) {
+            List<String> chunk = remote.subList(from, Math.min(remote.size(), from + LOOKUP_CHUNK));
+            try {
+                for (Object[] row : repository.findVectors(model, chunk)) {
+                    float[] vector = EmbeddingCodec.fromBytes((byte[]) row[1]);
+                    remember(model, (String) row[0], vector);
+                    found.put((String) row[0], vector.clone());
+                }
+            } catch (Exception e) {
+                System.err.println("⚠️ Embedding cache lookup failed: " + e.getMessage());
+            }
+        }
+
+        hits.addAndGet(found.size());
+        misses.addAndGet(keys.size() - found.size());
+        return found;
+    }
+
+    /**
+     * Yeni üretilen vektörleri belleğe ve tabloya yazar: tabloda olmayanlar parça başına tek sorguyla bulunur,
+     * kalanlar tek {@code saveAll} ile yazılır. Başka bir örnek aynı anahtarı önce yazdıysa yok sayılır.
+     */
+    public void putAll(String model, Map<String, float[]> vectors) {
+        if (!enabled) return;
+
+        List<String> keys = new ArrayList<>(vectors.size());
+        for (Map.Entry<String, float[]> entry : vectors.entrySet()) {
+            float[] vector = entry.getValue();
+            if (vector == null || vector.length == 0) continue;
+            remember(model, entry.getKey(), vector.clone());
+            keys.add(entry.getKey());
+        }
+
+        for (int from = 0; from < keys.size(); from += LOOKUP_CHUNK) {
+            List<String> chunk = keys.subList(from, Math.min(keys.size(), from + LOOKUP_CHUNK));
+            List<String> missing = new ArrayList<>(chunk);
+            try {
+                Set<String> existing = new HashSet<>();
+                for (Object[] row : repository.findVectors(model, chunk)) existing.add((String) row[0]);
+                missing.removeAll(existing);
+                if (!missing.isEmpty()) repository.saveAll(entries(model, missing, vectors));
+            } catch (DataIntegrityViolationException e) {
+                // Yarış: başka bir örnek aynı metinlerden birini yazdı; parti geri alındı, tek tek yaz
+                for (EmbeddingCacheEntry entry : entries(model, missing, vectors)) {
+                    try {
+                        repository.save(entry);
+                    } catch (DataIntegrityViolationException ignored) {
+                        // bu anahtar zaten yazılmış
+                    } catch (Exception failed) {
+                        System.err.println("⚠️ Embedding cache write failed: " + failed.getMessage());
+                    }
+                }
+            } catch (Exception e) {
+                System.err.println("⚠️ Embedding cache write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static List<EmbeddingCacheEntry> entries(String model, List<String> keys, Map<String, float[]> vectors) {
+        List<EmbeddingCacheEntry> entries = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            float[] vector = vectors.get(key);
+            entries.add(new EmbeddingCacheEntry(key, model, vector.length, EmbeddingCodec.toBytes(vector)));
+        }
+        return entries;
+    }
+
+    public long hits() {
+        return hits.get();
+    }
+
+    public long misses() {
+        return misses.get();
+    }
+
+    private void remember(String model, String key, float[] vector) {
+        synchronized (memory) {
+            memory.put(memoryKey(model, key), vector);
+        }
+    }
+
+    private static String memoryKey(String model, String key) {
+        return model + '\u0000' + key;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.entity.DocumentEmbedding;
+import com.example.astrogenesis.repository.DocumentEmbeddingRepository;
+import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JSON TEXT kolonlarındaki embedding'leri arka planda, küçük partiler halinde
+ * {@code document_embeddings} tablosuna (little-endian float32) taşır.
+ * <p>
+ * Her parti kendi transaction'ında çalışır; okuma yolu taşınmamış satırlar için JSON'a düştüğü
+ * için uygulama taşıma sırasında kesintisiz çalışır. {@code embedding.storage.legacy-json=false}
+ * ise taşınan satırların JSON kolonu da boşaltılır.
+ */
+@Service
+public class EmbeddingMigrationService {
+
+    private final PublicationRepository publicationRepository;
+    private final OSDRDatasetRepository osdrDatasetRepository;
+    private final DocumentEmbeddingRepository documentEmbeddingRepository;
+    private final EmbeddingStore embeddingStore;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${embedding.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${embedding.migration.batch-size:200}")
+    private int batchSize;
+
+    // Keyset imleçleri: her tabloda en son işlenen id
+    private long publicationCursor;
+    private long datasetCursor;
+    private volatile boolean finished;
+
+    public EmbeddingMigrationService(PublicationRepository publicationRepository,
+                                     OSDRDatasetRepository osdrDatasetRepository,
+                                     DocumentEmbeddingRepository documentEmbeddingRepository,
+                                     EmbeddingStore embeddingStore,
+                                     TransactionTemplate transactionTemplate) {
+        this.publicationRepository = publicationRepository;
+        this.osdrDatasetRepository = osdrDatasetRepository;
+        this.documentEmbeddingRepository = documentEmbeddingRepository;
+        this.embeddingStore = embeddingStore;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Her çağrıda tablo başına en fazla bir parti taşır. Taşınacak satır kalmayınca durur.
+     */
+    @Scheduled(initialDelayString = "${embedding.migration.initial-delay-ms:30000}",
+               fixedDelayString = "${embedding.migration.interval-ms:5000}")
+    public synchronized void migrateNextBatch() {
+        if (!enabled || finished) return;
+
+        try {
+            int publications = migrateBatch(DocType.PUBLICATION);
+            int datasets = migrateBatch(DocType.OSDR);
+
+            if (publications + datasets > 0) {
+                System.out.printf("🔁 Migrated %d publication + %d OSDR embeddings to binary storage%n",
+                        publications, datasets);
+            } else {
+                finished = true;
+                System.out.println("✅ Binary embedding migration complete.");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Embedding migration batch failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    private int migrateBatch(DocType type) {
+        String model = embeddingStore.baseModel(); // JSON kolonu yapılandırılmış modele ait
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<Object[]> rows = type == DocType.PUBLICATION
+                ? publicationRepository.findUnmigratedEmbeddings(publicationCursor, model, page)
+                : osdrDatasetRepository.findUnmigratedEmbeddings(datasetCursor, model, page);
+        if (rows.isEmpty()) return 0;
+
+        List<DocumentEmbedding> converted = new ArrayList<>(rows.size());
+        List<Long> ids = new ArrayList<>(rows.size());
+        long lastId = 0;
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            lastId = id;
+            float[] vector = EmbeddingCodec.parseJson((String) row[1]);
+            if (vector.length == 0) continue;
+
+            DocumentEmbedding embedding = new DocumentEmbedding();
+            embedding.setDocType(type);
+            embedding.setDocId(id);
+            embedding.setModel(model);
+            embedding.setDimension(vector.length);
+            embedding.setVector(EmbeddingCodec.toBytes(vector));
+            converted.add(embedding);
+            ids.add(id);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            documentEmbeddingRepository.saveAll(converted);
+            if (!embeddingStore.keepsLegacyJson() && !ids.isEmpty()) {
+                if (type == DocType.PUBLICATION) publicationRepository.clearEmbeddingVectors(ids);
+                else osdrDatasetRepository.clearEmbeddingVectors(ids);
+            }
+        });
+
+        if (type == DocType.PUBLICATION) publicationCursor = lastId;
+        else datasetCursor = lastId;
+        return rows.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.astrogenesis.service;
+
+import java.util.List;
+
+/**
+ * Temizlenmiş metinleri vektöre çeviren arka uç. {@link EmbeddingService} temizleme, önbellek ve
+ * tekrar eden metinleri ayıklama işini yapar; sağlayıcı sadece kendisine gelenleri embed eder.
+ * <p>
+ * Varsayılan {@link HuggingFaceEmbeddingProvider}'dır; {@code offline} profili ağsız
+ * {@link LocalEmbeddingProvider}'ı seçer.
+ */
+public interface EmbeddingProvider {
+
+    /**
+     * Girdilerle aynı sırada vektörler; embed edilemeyen girdi için eleman {@code null} olur, liste asla null değildir.
+     */
+    List<float[]> embed(List<String> inputs, String model);
+
+    /** Loglar için kısa ad */
+    String name();
+}
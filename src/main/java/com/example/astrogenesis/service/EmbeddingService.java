@@ -1,128 +1,138 @@
 package com.example.astrogenesis.service;
 
-import com.example.astrogenesis.entity.OSDRDataset;
-import com.example.astrogenesis.repository.OSDRDatasetRepository;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.search.QueryVectorCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Uygulamanın tek embedding giriş noktası: metinleri temizler, {@link EmbeddingCache}'e bakar ve sadece
+ * önbellekte olmayanları yapılandırılmış {@link EmbeddingProvider}'a gönderir.
+ */
 @Service
 public class EmbeddingService {
 
-    @Value("${huggingface.api.key}")
-    private String apiKey;
+    private final EmbeddingStore embeddingStore;
+    private final EmbeddingCache embeddingCache;
+    private final EmbeddingProvider provider;
+    private final QueryVectorCache queryCache;
+
+    public EmbeddingService(EmbeddingStore embeddingStore,
+                            EmbeddingCache embeddingCache,
+                            EmbeddingProvider provider,
+                            @Value("${embedding.query-cache.max-entries:1000}") int queryCacheEntries,
+                            @Value("${embedding.query-cache.ttl-seconds:600}") long queryCacheTtlSeconds) {
+        this.embeddingStore = embeddingStore;
+        this.embeddingCache = embeddingCache;
+        this.provider = provider;
+        this.queryCache = new QueryVectorCache(queryCacheEntries, Duration.ofSeconds(queryCacheTtlSeconds));
+    }
 
-    private static final String API_URL =
-            "https://api-inference.huggingface.co/models/BAAI/bge-small-en-v1.5";
+    /**
+     * Tek bir metin için aktif modelle embedding oluşturur
+     */
+    public String generateEmbedding(String text) {
+        return generateEmbedding(text, embeddingStore.model());
+    }
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
-    private final HttpClient httpClient = HttpClient.newHttpClient();
+    /**
+     * Arama sorgusunun birim vektörü; yakın zamanda aynı (normalize edilmiş) sorgu sorulduysa
+     * ağa gidilmeden {@link QueryVectorCache}'ten döner. Embed edilemezse {@code null}.
+     */
+    public float[] embedQuery(String query, String model) {
+        if (query == null || query.isBlank()) return null;
 
-    private final OSDRDatasetRepository datasetRepository;
+        float[] cached = queryCache.get(model, query);
+        if (cached != null) return cached;
 
-    public EmbeddingService(OSDRDatasetRepository datasetRepository) {
-        this.datasetRepository = datasetRepository;
+        float[] vector = generateEmbeddings(List.of(query), model).get(0);
+        if (vector == null) return null;
+        EmbeddingCodec.normalize(vector);
+        queryCache.put(model, query, vector);
+        return vector;
     }
 
     /**
-     * Tek bir metin için embedding oluşturur
+     * Sorgu önbelleği sayaçları: size, hits, misses, evictions, hitRate.
      */
-    public String generateEmbedding(String text) {
+    public Map<String, Object> queryCacheStats() {
+        return queryCache.stats();
+    }
+
+    /**
+     * Tek bir metin için verilen modelle embedding oluşturur (sorgu, indeksin modeliyle embed edilmeli).
+     * JSON dizi metni döner; embed edilemezse {@code null}.
+     */
+    public String generateEmbedding(String text, String model) {
         if (text == null || text.isBlank()) {
             System.err.println("⚠️ Empty text, skipping embedding generation.");
             return null;
         }
 
-        try {
-            // 🔹 Metni temizle
-            String cleanText = text
-                    .replaceAll("[\\p{Cntrl}&&[^\r\n\t]]", " ") // kontrol karakterlerini sil
-                    .replaceAll("\"", "'")                      // çift tırnakları düzelt
-                    .replaceAll("\\s+", " ")                    // fazla boşlukları azalt
-                    .trim();
-
-            // 🔹 Hugging Face API karakter sınırını aşma
-            if (cleanText.length() > 9000) {
-                cleanText = cleanText.substring(0, 9000);
-            }
-
-            // 🔹 JSON body
-            String requestBody = "{\"inputs\": \"" + cleanText + "\"}";
+        float[] vector = generateEmbeddings(List.of(text), model).get(0);
+        return vector != null ? EmbeddingCodec.toJson(vector) : null;
+    }
 
-            // 🔹 HTTP isteği oluştur
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(API_URL))
-                    .header("Authorization", "Bearer " + apiKey)
-                    .header("Content-Type", "application/json")
-                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                    .build();
+    /**
+     * Birden fazla metni aktif modelle embed eder (bkz. {@link #generateEmbeddings(List, String)}).
+     */
+    public List<float[]> generateEmbeddings(List<String> texts) {
+        return generateEmbeddings(texts, embeddingStore.model());
+    }
 
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    /**
+     * Metinleri temizler, {@link EmbeddingCache}'te olmayanları (istek içindeki tekrarlar bir kez)
+     * {@link EmbeddingProvider}'a gönderir; sonuçlar girdi sırasıyla döner. Boş veya embed edilemeyen
+     * metinler için ilgili eleman {@code null} olur; liste kendisi asla null değildir.
+     */
+    public List<float[]> generateEmbeddings(List<String> texts, String model) {
+        // İçerik anahtarı → temizlenmiş metin; aynı metin istek içinde de tek kez embed edilir
+        String[] keys = new String[texts.size()];
+        Map<String, String> inputs = new LinkedHashMap<>();
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (text == null || text.isBlank()) continue;
+            String input = clean(text);
+            keys[i] = EmbeddingCache.key(input);
+            inputs.putIfAbsent(keys[i], input);
+        }
 
-            if (response.statusCode() != 200) {
-                System.err.println("❌ HuggingFace API failed (" + response.statusCode() + "): " + response.body());
-                return null;
-            }
+        Map<String, float[]> vectors = embeddingCache.getAll(model, inputs.keySet());
+        inputs.keySet().removeAll(vectors.keySet());
+        if (!inputs.isEmpty()) {
+            List<String> missingKeys = new ArrayList<>(inputs.keySet());
+            List<float[]> embedded = provider.embed(new ArrayList<>(inputs.values()), model);
 
-            JsonNode json = objectMapper.readTree(response.body());
-            if (json.isArray() && json.size() == 1 && json.get(0).isArray()) {
-                json = json.get(0);
+            Map<String, float[]> fetched = new LinkedHashMap<>();
+            for (int i = 0; i < missingKeys.size(); i++) {
+                float[] vector = embedded.get(i);
+                if (vector != null && vector.length > 0) fetched.put(missingKeys.get(i), vector);
             }
-
-            return json.toString();
-
-        } catch (Exception e) {
-            System.err.println("❌ Error generating embedding: " + e.getMessage());
-            return null;
+            embeddingCache.putAll(model, fetched);
+            vectors.putAll(fetched);
         }
-    }
 
-    /**
-     * OSDR tablosundaki embedding’i boş olan kayıtlar için embedding oluşturur.
-     */
-    public void generateMissingEmbeddings() {
-        System.out.println("🧠 Checking OSDR datasets for missing embeddings...");
-
-        List<OSDRDataset> datasets = datasetRepository.findAll();
-        int total = datasets.size();
-        int updated = 0;
-
-        for (OSDRDataset dataset : datasets) {
-            try {
-                if (dataset.getEmbeddingVector() != null && !dataset.getEmbeddingVector().isBlank())
-                    continue;
-
-                String textForEmbedding = dataset.getDescription();
-                if (textForEmbedding == null || textForEmbedding.isBlank()) {
-                    textForEmbedding = dataset.getName();
-                }
-
-                String embedding = generateEmbedding(textForEmbedding);
-                if (embedding != null) {
-                    dataset.setEmbeddingVector(embedding);
-                    datasetRepository.save(dataset);
-                    updated++;
-                }
-
-                System.out.printf("✅ [%d/%d] Embedded: %s%n", updated, total, dataset.getName());
-
-                // Küçük bekleme (rate limit koruması)
-                Thread.sleep(500);
-
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to generate embedding for: " + dataset.getName());
-                e.printStackTrace();
-            }
+        List<float[]> result = new ArrayList<>(texts.size());
+        for (String key : keys) {
+            float[] vector = key != null ? vectors.get(key) : null;
+            result.add(vector != null ? vector.clone() : null);
         }
+        return result;
+    }
 
-        System.out.printf("🎯 Total embeddings generated: %d / %d%n", updated, total);
-        System.out.println("✅ Embedding generation complete!");
+    // 🔹 Metni temizle ve Hugging Face API karakter sınırına göre kısalt
+    private static String clean(String text) {
+        String cleanText = text
+                .replaceAll("[\\p{Cntrl}&&[^\r\n\t]]", " ") // kontrol karakterlerini sil
+                .replaceAll("\"", "'")                      // çift tırnakları düzelt
+                .replaceAll("\\s+", " ")                    // fazla boşlukları azalt
+                .trim();
+        return cleanText.length() > 9000 ? cleanText.substring(0, 9000) : cleanText;
     }
 }
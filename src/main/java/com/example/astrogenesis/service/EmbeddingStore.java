@@ -0,0 +1,173 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.entity.DocumentEmbedding;
+import com.example.astrogenesis.entity.EmbeddingChange;
+import com.example.astrogenesis.repository.DocumentEmbeddingRepository;
+import com.example.astrogenesis.repository.EmbeddingChangeRepository;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedding'leri ikili yan tabloya ({@code document_embeddings}) yazar ve okur.
+ * Her yazım (toplu yazımda parti başına bir) {@link EmbeddingUpdatedEvent} yayınlar; arama indeksi bunu dinleyerek kendini günceller.
+ * Aynı transaction'da {@code embedding_changes}'e de bir kayıt eklenir; diğer uygulama örnekleri
+ * bu kaydı {@link ChangeLogTailer} ile okuyarak kendi indekslerini günceller.
+ */
+@Service
+public class EmbeddingStore {
+
+    private final DocumentEmbeddingRepository repository;
+    private final EmbeddingChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Yapılandırılmış model; eski JSON TEXT kolonundaki embedding'ler bu modele aittir
+    private final String baseModel;
+
+    // Blue/green geçişte arka planda vektörleri üretilen yeni model (boşsa geçiş yok)
+    private final String nextModel;
+
+    // false → yeni embedding'ler artık JSON TEXT kolonuna yazılmaz, migrator eskilerini temizler
+    private final boolean legacyJson;
+
+    // Sorguların ve yeni dokümanların kullandığı model; geçiş tamamlanınca nextModel olur
+    private volatile String activeModel;
+
+    public EmbeddingStore(DocumentEmbeddingRepository repository, EmbeddingChangeRepository changeRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${embedding.model:BAAI/bge-small-en-v1.5}") String baseModel,
+                          @Value("${embedding.next-model:}") String nextModel,
+                          @Value("${embedding.storage.legacy-json:true}") boolean legacyJson) {
+        this.repository = repository;
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.baseModel = baseModel;
+        this.nextModel = nextModel == null || nextModel.isBlank() ? null : nextModel.trim();
+        this.legacyJson = legacyJson;
+        this.activeModel = baseModel;
+    }
+
+    /**
+     * Aktif model: sorgu embedding'leri ve yeni dokümanlar bununla üretilir.
+     */
+    public String model() {
+        return activeModel;
+    }
+
+    /**
+     * Yapılandırmadaki {@code embedding.model}; eski JSON kolonu bu modelin vektörlerini tutar.
+     */
+    public String baseModel() {
+        return baseModel;
+    }
+
+    /**
+     * Geçiş hedefi ({@code embedding.next-model}); yoksa veya zaten aktifse {@code null}.
+     */
+    public String pendingModel() {
+        return nextModel != null && !nextModel.equals(activeModel) ? nextModel : null;
+    }
+
+    /**
+     * Aktif modeli değiştirir. Sadece yeni modelin indeksi hazır olduğunda {@link SemanticIndexService} çağırır.
+     */
+    public void activate(String model) {
+        if (!model.equals(activeModel)) {
+            System.out.println("🔀 Active embedding model: " + activeModel + " → " + model);
+            activeModel = model;
+        }
+    }
+
+    /**
+     * {@code embedding.storage.legacy-json}: JSON TEXT kolonu korunur mu. Aktif modelden bağımsızdır;
+     * false değilse migrator taşıdığı JSON'u silmez (geçişte geri dönüş için base model JSON'u kalır).
+     */
+    public boolean keepsLegacyJson() {
+        return legacyJson;
+    }
+
+    /**
+     * {@code model} vektörlerinin JSON TEXT kolonuna da yazılıp yazılmayacağı; kolon sadece yapılandırılmış modele ait.
+     */
+    public boolean writesLegacyJson(String model) {
+        return legacyJson && baseModel.equals(model);
+    }
+
+    /**
+     * Aktif model için embedding'i kaydeder (varsa günceller).
+     */
+    @Transactional
+    public void save(DocType type, long docId, float[] vector) {
+        save(type, docId, activeModel, vector);
+    }
+
+    @Transactional
+    public void save(DocType type, long docId, String model, float[] vector) {
+        if (vector == null || vector.length == 0) return;
+
+        DocumentEmbedding embedding = repository.findByDocTypeAndDocIdAndModel(type, docId, model)
+                .orElseGet(DocumentEmbedding::new);
+        embedding.setDocType(type);
+        embedding.setDocId(docId);
+        embedding.setModel(model);
+        embedding.setDimension(vector.length);
+        embedding.setVector(EmbeddingCodec.toBytes(vector));
+        repository.save(embedding);
+        changeRepository.save(new EmbeddingChange(type, docId, model));
+
+        eventPublisher.publishEvent(new EmbeddingUpdatedEvent(type, model, Map.of(docId, vector)));
+    }
+
+    /**
+     * Bir partinin embedding'lerini tek transaction'da yazar: mevcut satırlar tek sorguyla okunur,
+     * ekleme/güncellemeler ve change log kayıtları {@code hibernate.jdbc.batch_size}'a göre toplu gönderilir.
+     */
+    @Transactional
+    public void saveAll(DocType type, String model, Map<Long, float[]> vectors) {
+        Map<Long, DocumentEmbedding> existing = new HashMap<>();
+        for (DocumentEmbedding embedding : repository.findByDocTypeAndModelAndDocIdIn(type, model, vectors.keySet())) {
+            existing.put(embedding.getDocId(), embedding);
+        }
+
+        List<DocumentEmbedding> embeddings = new ArrayList<>(vectors.size());
+        List<EmbeddingChange> changes = new ArrayList<>(vectors.size());
+        Map<Long, float[]> written = new LinkedHashMap<>();
+        for (Map.Entry<Long, float[]> entry : vectors.entrySet()) {
+            float[] vector = entry.getValue();
+            if (vector == null || vector.length == 0) continue;
+            written.put(entry.getKey(), vector);
+
+            DocumentEmbedding embedding = existing.getOrDefault(entry.getKey(), new DocumentEmbedding());
+            embedding.setDocType(type);
+            embedding.setDocId(entry.getKey());
+            embedding.setModel(model);
+            embedding.setDimension(vector.length);
+            embedding.setVector(EmbeddingCodec.toBytes(vector));
+            embeddings.add(embedding);
+            changes.add(new EmbeddingChange(type, entry.getKey(), model));
+        }
+        repository.saveAll(embeddings);
+        changeRepository.saveAll(changes);
+
+        // Parti için tek olay: indeks metadata'yı tek sorguyla yükler ve tek epoch yayınlar
+        if (!written.isEmpty()) eventPublisher.publishEvent(new EmbeddingUpdatedEvent(type, model, written));
+    }
+
+    /**
+     * İkili tabloda aktif model için embedding'i bulunan doküman id'leri.
+     */
+    public Set<Long> embeddedIds(DocType type) {
+        return new HashSet<>(repository.findDocIds(type, activeModel));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.search.DocType;
+
+import java.util.Map;
+
+/**
+ * Bir veya birden fazla dokümanın (aynı tip ve model) embedding'i {@code document_embeddings} tablosuna
+ * yazıldığında yayınlanır: doküman id → vektör. Toplu yazım parti başına tek olay yayınlar.
+ * Transaction içinde yayınlanırsa dinleyiciler commit'ten sonra çalışır.
+ */
+public record EmbeddingUpdatedEvent(DocType type, String model, Map<Long, float[]> vectors) {
+}
@@ -0,0 +1,69 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.search.EmbeddingCodec;
+
+import java.util.Locale;
+
+/**
+ * Ağ ve model dosyası gerektirmeyen deterministik embedding: kelimeler ve 3-5 karakterlik n-gram'lar
+ * işaretli feature hashing ile sabit boyuta izdüşürülür, sonuç birim vektördür.
+ * <p>
+ * Anlamsal değil sözcüksel benzerlik yakalar ("bone loss" ≈ "bone density loss"); çevrimdışı
+ * derleme/test makineleri ve yük testleri için yeterlidir, HuggingFace modelleriyle aynı uzayda değildir.
+ */
+public class HashingEmbedder {
+
+    private static final int MIN_GRAM = 3;
+    private static final int MAX_GRAM = 5;
+
+    private final int dimension;
+
+    public HashingEmbedder(int dimension) {
+        if (dimension < 1) throw new IllegalArgumentException("Dimension must be positive: " + dimension);
+        this.dimension = dimension;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Metnin birim vektörü; hiç kelime/harf içermiyorsa {@code null}.
+     */
+    public float[] embed(String text) {
+        String normalized = text.toLowerCase(Locale.ROOT).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+        if (normalized.isEmpty()) return null;
+
+        float[] vector = new float[dimension];
+        for (String word : normalized.split(" ")) {
+            add(vector, "w:" + word, 1f);
+        }
+        // Kelime sınırları n-gram'lara dahil: " bon", "one "
+        String padded = " " + normalized + " ";
+        for (int n = MIN_GRAM; n <= MAX_GRAM; n++) {
+            for (int i = 0; i + n <= padded.length(); i++) {
+                add(vector, padded.substring(i, i + n), 0.5f);
+            }
+        }
+        return EmbeddingCodec.normalize(vector);
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        long h = hash(feature);
+        int index = (int) Math.floorMod(h, (long) dimension);
+        vector[index] += (h >>> 63) == 0 ? weight : -weight;
+    }
+
+    // FNV-1a + son karıştırma (String.hashCode kısa n-gram'larda kümelenir)
+    private static long hash(String feature) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < feature.length(); i++) {
+            h ^= feature.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
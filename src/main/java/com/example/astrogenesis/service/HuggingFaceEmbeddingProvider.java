@@ -0,0 +1,295 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * HuggingFace Inference API üzerinden embedding.
+ * <p>
+ * Girdiler adet ({@code embedding.batch.max-inputs}) ve bayt ({@code embedding.batch.max-bytes}) sınırlı
+ * partilere bölünür; partiler {@code embedding.concurrency} kadar eşzamanlı istekle gönderilir ve istek hızını
+ * 429/503 ve {@code Retry-After}'a uyum sağlayan {@link TokenBucket} belirler. Kısıtlanan parti yeniden kuyruğa
+ * girer. Geçici hatada (I/O, 5xx) parti {@link ResilienceService} ayarlarıyla jitter'lı beklemeden sonra
+ * yeniden denenir; 400/413'te öğeler tek tek denenir (tek bir bozuk metin tüm partiyi kaybettirmez).
+ * 401/403/404 gibi diğer hatalar her öğe için aynı kalacağından parti bırakılır ve devreye hata sayılır.
+ * {@code huggingface} devresi açıkken hiç istek gönderilmez, ilgili öğeler {@code null} döner.
+ * Bağlantı ve istek süreleri sınırlıdır; zaman aşımı devre için hata sayılır ama yeniden denenmez, böylece
+ * takılan bir istek {@link #embed} çağıranını (ör. sohbet/arama sorgusu) en fazla bir istek süresi bekletir.
+ */
+@Service
+@Profile("!offline")
+public class HuggingFaceEmbeddingProvider implements EmbeddingProvider {
+
+    @Value("${huggingface.api.key}")
+    private String apiKey;
+
+    private static final String API_BASE_URL = "https://api-inference.huggingface.co/models/";
+
+    // Tek API çağrısına giren en fazla metin ve toplam (temizlenmiş) UTF-8 bayt
+    @Value("${embedding.batch.max-inputs:32}")
+    private int maxBatchInputs;
+
+    @Value("${embedding.batch.max-bytes:131072}")
+    private int maxBatchBytes;
+
+    // Aynı anda uçuşta olabilecek parti isteği sayısı (HTTP/2 ile tek bağlantı üzerinde çoklanır)
+    @Value("${embedding.concurrency:4}")
+    private int concurrency;
+
+    // 429/503 alan bir parti en fazla bu kadar yeniden kuyruğa girer
+    @Value("${embedding.rate.throttle-retries:5}")
+    private int throttleRetries;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+    private final Duration requestTimeout;
+
+    private final TokenBucket rateLimiter;
+    private final ResilienceService resilience;
+    private final CircuitBreaker breaker;
+
+    public HuggingFaceEmbeddingProvider(ResilienceService resilience,
+                                        @Value("${embedding.rate.initial-per-second:5}") double initialRate,
+                                        @Value("${embedding.rate.max-per-second:20}") double maxRate,
+                                        @Value("${embedding.rate.burst:4}") int burst,
+                                        @Value("${embedding.http.connect-timeout-ms:5000}") long connectTimeoutMs,
+                                        @Value("${embedding.http.request-timeout-ms:20000}") long requestTimeoutMs) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.rateLimiter = new TokenBucket(initialRate, maxRate, burst);
+        this.resilience = resilience;
+        this.breaker = resilience.breaker("huggingface");
+    }
+
+    @Override
+    public String name() {
+        return "huggingface";
+    }
+
+    @Override
+    public List<float[]> embed(List<String> inputs, String model) {
+        float[][] result = new float[inputs.size()][];
+
+        BlockingQueue<Batch> pending = new LinkedBlockingQueue<>(pack(inputs));
+        AtomicInteger outstanding = new AtomicInteger(pending.size());
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+        try {
+            while (outstanding.get() > 0) {
+                Batch batch = pending.poll(50, TimeUnit.MILLISECONDS);
+                if (batch == null) continue; // uçuştaki istekler bekleniyor
+                if (!breaker.tryAcquire()) {
+                    // Devre açık: timeout beklemek yerine hemen vazgeç
+                    System.err.println("⛔ Circuit 'huggingface' is open, skipping batch of " + batch.inputs().size());
+                    outstanding.decrementAndGet();
+                    continue;
+                }
+
+                inFlight.acquire();
+                try {
+                    rateLimiter.acquire();
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+                sendBatch(batch.inputs(), model).whenComplete((response, error) -> {
+                    try {
+                        complete(batch, response, error, result, pending, outstanding);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            // Yanıt işleyicileri bitmeden sonuç okunmasın
+            inFlight.acquire(Math.max(1, concurrency));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("⚠️ Embedding interrupted, " + outstanding.get() + " batches left unembedded");
+        }
+        return new ArrayList<>(Arrays.asList(result));
+    }
+
+    /** Girdi konumları ve metinleriyle bir API çağrısı; {@code attempts} kısıtlanma sayısı. */
+    private record Batch(List<Integer> positions, List<String> inputs, int attempts) {
+    }
+
+    private List<Batch> pack(List<String> inputs) {
+        List<Batch> batches = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        List<String> texts = new ArrayList<>();
+        int bytes = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            int size = inputs.get(i).getBytes(StandardCharsets.UTF_8).length;
+            if (!texts.isEmpty() && (texts.size() >= maxBatchInputs || bytes + size > maxBatchBytes)) {
+                batches.add(new Batch(positions, texts, 0));
+                positions = new ArrayList<>();
+                texts = new ArrayList<>();
+                bytes = 0;
+            }
+            positions.add(i);
+            texts.add(inputs.get(i));
+            bytes += size;
+        }
+        if (!texts.isEmpty()) batches.add(new Batch(positions, texts, 0));
+        return batches;
+    }
+
+    private void complete(Batch batch, HttpResponse<String> response, Throwable error, float[][] result,
+                          BlockingQueue<Batch> pending, AtomicInteger outstanding) {
+        if (response != null && isThrottled(response)) {
+            // 429: sağlayıcı ayakta ama sınırda · 503: aşırı yük, devre için de hata
+            if (response.statusCode() == 503) breaker.onFailure();
+            else breaker.onSuccess();
+            rateLimiter.onThrottle(retryAfter(response));
+            if (batch.attempts() < throttleRetries) {
+                System.err.printf("⏳ Embedding API throttled (%d), rate now %.1f req/s%n",
+                        response.statusCode(), rateLimiter.rate());
+                pending.add(new Batch(batch.positions(), batch.inputs(), batch.attempts() + 1));
+                return;
+            }
+            System.err.println("❌ Embedding batch dropped after " + throttleRetries + " throttled attempts");
+            outstanding.decrementAndGet();
+            return;
+        }
+
+        if (isTimeout(error)) {
+            // Takılan sağlayıcı: devreye say, aynı süreyi tekrar bekletme
+            breaker.onFailure();
+            System.err.println("⌛ Embedding batch of " + batch.inputs().size() + " timed out after "
+                    + requestTimeout.toMillis() + " ms");
+            outstanding.decrementAndGet();
+            return;
+        }
+        boolean transientFailure = error != null || ResilienceService.isRetryableStatus(response.statusCode());
+        if (transientFailure) {
+            breaker.onFailure();
+            long delay = batch.attempts() + 1 < resilience.maxAttempts()
+                    ? resilience.backoffMillis(batch.attempts(), retryAfter(response)) : -1;
+            String cause = error != null ? error.getMessage() : "HTTP " + response.statusCode();
+            if (delay >= 0) {
+                System.err.printf("🔁 Embedding batch failed (%s), retrying in %d ms%n", cause, delay);
+                Batch retry = new Batch(batch.positions(), batch.inputs(), batch.attempts() + 1);
+                CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(() -> pending.add(retry));
+            } else {
+                System.err.println("❌ Embedding batch dropped after " + (batch.attempts() + 1) + " attempts: " + cause);
+                outstanding.decrementAndGet();
+            }
+            return;
+        }
+        if (response.statusCode() != 200 && !isRejectedInput(response)) {
+            // 401/403/404 vb.: anahtar veya model hatası, tek tek denemek aynı yanıtı N kez alır
+            breaker.onFailure();
+            System.err.println("❌ HuggingFace API batch failed (" + response.statusCode() + "), dropping batch of "
+                    + batch.inputs().size() + ": " + response.body());
+            outstanding.decrementAndGet();
+            return;
+        }
+        breaker.onSuccess();
+
+        List<float[]> vectors = parseBatch(response, batch.inputs().size());
+        if (vectors != null) {
+            rateLimiter.onSuccess();
+            for (int i = 0; i < vectors.size(); i++) result[batch.positions().get(i)] = vectors.get(i);
+        } else if (isRejectedInput(response) && batch.inputs().size() > 1) {
+            // 400/413: partideki bir girdi (veya partinin boyu) reddedildi; diğerleri tek tek geçebilir
+            System.err.printf("⚠️ Embedding batch of %d failed, retrying items individually%n", batch.inputs().size());
+            outstanding.addAndGet(batch.inputs().size());
+            for (int i = 0; i < batch.inputs().size(); i++) {
+                pending.add(new Batch(List.of(batch.positions().get(i)), List.of(batch.inputs().get(i)),
+                        batch.attempts()));
+            }
+        }
+        // Kuyruğa eklenenler sayıldıktan sonra: ana döngü erken bitmesin
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Temizlenmiş metinler için tek asenkron API çağrısı.
+     */
+    private CompletableFuture<HttpResponse<String>> sendBatch(List<String> inputs, String model) {
+        try {
+            String requestBody = objectMapper.writeValueAsString(Map.of("inputs", inputs));
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(API_BASE_URL + model))
+                    .header("Authorization", "Bearer " + apiKey)
+                    .header("Content-Type", "application/json")
+                    .timeout(requestTimeout)
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                    .build();
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Parti yanıtı → girdi sırasıyla vektörler; başarısız veya beklenmedik yanıtta {@code null}.
+     */
+    private List<float[]> parseBatch(HttpResponse<String> response, int expected) {
+        if (response.statusCode() != 200) {
+            System.err.println("❌ HuggingFace API batch failed (" + response.statusCode() + "): " + response.body());
+            return null;
+        }
+        try {
+            JsonNode json = objectMapper.readTree(response.body());
+            if (!json.isArray() || json.size() != expected) {
+                System.err.println("❌ Unexpected batch embedding response for " + expected + " inputs");
+                return null;
+            }
+            List<float[]> vectors = new ArrayList<>(expected);
+            for (JsonNode item : json) {
+                float[] vector = EmbeddingCodec.parseJson(item.toString());
+                vectors.add(vector.length > 0 ? vector : null);
+            }
+            return vectors;
+        } catch (Exception e) {
+            System.err.println("❌ Error parsing batch embeddings: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof HttpTimeoutException) return true;
+        }
+        return false;
+    }
+
+    private static boolean isRejectedInput(HttpResponse<?> response) {
+        return response.statusCode() == 400 || response.statusCode() == 413;
+    }
+
+    private static boolean isThrottled(HttpResponse<?> response) {
+        return response.statusCode() == 429 || response.statusCode() == 503;
+    }
+
+    private static Duration retryAfter(HttpResponse<?> response) {
+        if (response == null) return null;
+        return TokenBucket.parseRetryAfter(response.headers().firstValue("Retry-After").orElse(null), ZonedDateTime.now());
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.astrogenesis.service;
 
+import com.example.astrogenesis.search.RetrievedDocument;
+import com.example.astrogenesis.search.SearchFilter;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
@@ -23,13 +26,20 @@ public class LLMService {
     private final RestTemplate restTemplate;
     private final SemanticSearchService semanticSearchService;
     private final PromptHandler promptHandler;
+    private final ResilienceService resilience;
 
-    public LLMService(SemanticSearchService semanticSearchService, PromptHandler promptHandler) {
+    public LLMService(SemanticSearchService semanticSearchService, PromptHandler promptHandler,
+                      ResilienceService resilience,
+                      @Value("${ai.read-timeout-ms:60000}") int readTimeoutMs) {
         this.semanticSearchService = semanticSearchService;
         this.promptHandler = promptHandler;
+        this.resilience = resilience;
 
         // Configure RestTemplate with timeout
-        this.restTemplate = new RestTemplate();
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(10000);
+        factory.setReadTimeout(readTimeoutMs);
+        this.restTemplate = new RestTemplate(factory);
         this.restTemplate.getInterceptors().add((request, body, execution) -> {
             request.getHeaders().add("Accept", "application/json");
             return execution.execute(request, body);
@@ -50,6 +60,14 @@ public class LLMService {
      * @param audience "scientist", "manager", "mission_architect", or "general"
      */
     public Map<String, Object> generateAnalyticalReport(String query, String audience) {
+        return generateAnalyticalReport(query, audience, SearchFilter.none());
+    }
+
+    /**
+     * 🧠 Generate analytical report using only sources that pass the given filter
+     * @param filter Source type / date range / OSDR category / keyword restrictions for retrieval
+     */
+    public Map<String, Object> generateAnalyticalReport(String query, String audience, SearchFilter filter) {
         System.out.println("🧠 [RAG] Generating analytical report for: " + query + " (Audience: " + audience + ")");
 
         // 1️⃣ Pre-filter simple/greeting/off-topic queries
@@ -61,34 +79,20 @@ public class LLMService {
         // If preResponse is null → proceed to RAG
 
         // 2️⃣ Semantic search to collect context
-        List<String> relevantTexts = semanticSearchService.findRelevantTexts(query, 5);
+        List<RetrievedDocument> relevantDocuments = semanticSearchService.findRelevantDocuments(query, 5, filter);
         StringBuilder context = new StringBuilder();
         List<Map<String, String>> sourcesMetadata = new ArrayList<>();
 
-        if (relevantTexts != null && !relevantTexts.isEmpty()) {
-            for (String text : relevantTexts) {
-                String[] parts = text.split("\\|\\|\\|");
-                String title = parts.length > 0 ? parts[0].trim() : "Untitled";
-                String summary = parts.length > 1 ? parts[1].trim() : "";
-
-                // Extract metadata
-                String link = null;
-                String doi = null;
-                String osdrId = null;
-                String imageUrls = null;
-
-                for (int i = 2; i < parts.length; i++) {
-                    String part = parts[i].trim();
-                    if (part.startsWith("LINK:")) {
-                        link = part.substring(5).trim();
-                    } else if (part.startsWith("DOI:")) {
-                        doi = part.substring(4).trim();
-                    } else if (part.startsWith("OSDR_ID:")) {
-                        osdrId = part.substring(8).trim();
-                    } else if (part.startsWith("IMAGES:")) {
-                        imageUrls = part.substring(7).trim();
-                    }
-                }
+        if (!relevantDocuments.isEmpty()) {
+            for (RetrievedDocument doc : relevantDocuments) {
+                String title = "[" + doc.source() + "] " + (doc.title() != null ? doc.title().trim() : "Untitled");
+                // Pasaj sonucu: LLM'in bölüm analizine (Results → kanıtlanmış bulgu vb.) göre değerlendirebilmesi için
+                String section = doc.section() != null ? " — " + doc.section() + " section" : "";
+                String summary = doc.text().trim();
+                String link = blankToNull(doc.link());
+                String doi = blankToNull(doc.doi());
+                String osdrId = blankToNull(doc.osdrId());
+                String imageUrls = blankToNull(doc.imageUrls());
 
                 // Build source metadata
                 Map<String, String> source = new HashMap<>();
@@ -100,7 +104,7 @@ public class LLMService {
                 sourcesMetadata.add(source);
 
                 // Build context for LLM
-                context.append("📘 ").append(title).append("\n").append(summary);
+                context.append("📘 ").append(title).append(section).append("\n").append(summary);
                 if (link != null) context.append("\n   🔗 Link: ").append(link);
                 if (doi != null) context.append("\n   📄 DOI: ").append(doi);
                 if (osdrId != null) context.append("\n   🛰️ OSDR: ").append(osdrId);
@@ -288,7 +292,7 @@ public class LLMService {
                 Generate at least 1-2 tables comparing different studies.
 
                 Start your response with { and end with }
-                """.formatted(query, contextText, relevantTexts.size());
+                """.formatted(query, contextText, relevantDocuments.size());
 
         // 5️⃣ Call LLM API
         long startTime = System.currentTimeMillis();
@@ -414,7 +418,9 @@ public class LLMService {
             headers.set("X-Title", "Astrogenesis AI Analytical Report");
 
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, entity, Map.class);
+            // 🔹 429/5xx/bağlantı hatasında jitter'lı bekleme ile yeniden dener; okuma timeout'u ve açık devre → null
+            ResponseEntity<Map> response = resilience.execute("llm", () -> restTemplate.postForEntity(url, entity, Map.class));
+            if (response == null) return null;
 
             if (response.getStatusCode() != HttpStatus.OK) {
                 System.err.println("❌ LLM API Error: " + response.getStatusCode());
@@ -469,4 +475,8 @@ public class LLMService {
                     """;
         };
     }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
 }
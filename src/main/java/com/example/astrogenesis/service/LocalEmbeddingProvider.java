@@ -0,0 +1,38 @@
+package com.example.astrogenesis.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Süreç içi, ağsız embedding ({@link HashingEmbedder}); {@code offline} profiliyle seçilir.
+ * <p>
+ * Vektörleri HuggingFace modelleriyle karşılaştırılamaz; bu yüzden profil {@code embedding.model}'i ayrı
+ * bir ada ({@code local/hashing-ngram-384}) çeker ve indeks, önbellek ve tablo satırları o modelle anahtarlanır.
+ */
+@Service
+@Profile("offline")
+public class LocalEmbeddingProvider implements EmbeddingProvider {
+
+    private final HashingEmbedder embedder;
+
+    public LocalEmbeddingProvider(@Value("${embedding.local.dimension:384}") int dimension) {
+        this.embedder = new HashingEmbedder(dimension);
+        System.out.println("📴 Offline embedding provider: hashed n-grams, dim=" + dimension);
+    }
+
+    @Override
+    public String name() {
+        return "local";
+    }
+
+    @Override
+    public List<float[]> embed(List<String> inputs, String model) {
+        List<float[]> vectors = new ArrayList<>(inputs.size());
+        for (String input : inputs) vectors.add(embedder.embed(input));
+        return vectors;
+    }
+}
@@ -2,61 +2,51 @@ package com.example.astrogenesis.service;
 
 import com.example.astrogenesis.entity.OSDRDataset;
 import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.search.DocType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class OSDREmbeddingService {
 
     private final OSDRDatasetRepository datasetRepository;
-    private final EmbeddingService embeddingService; // Hugging Face ile çalışan servis
+    private final EmbeddingBackfillService backfillService;
 
     public OSDREmbeddingService(OSDRDatasetRepository datasetRepository,
-                                EmbeddingService embeddingService) {
+                                EmbeddingBackfillService backfillService) {
         this.datasetRepository = datasetRepository;
-        this.embeddingService = embeddingService;
+        this.backfillService = backfillService;
     }
 
     /**
-     * Veritabanında embedding'i eksik olan OSDR datasetleri için embedding oluşturur.
+     * Veritabanında embedding'i eksik olan OSDR datasetleri için embedding oluşturur
+     * (açıklama, yoksa ad embed edilir).
      */
     public void generateMissingEmbeddings() {
         System.out.println("🧠 Checking OSDR datasets for missing embeddings...");
 
-        List<OSDRDataset> datasets = datasetRepository.findAll();
-        int total = datasets.size();
-        int updated = 0;
-
-        for (OSDRDataset dataset : datasets) {
-            try {
-                if (dataset.getEmbeddingVector() != null && !dataset.getEmbeddingVector().isBlank())
-                    continue;
-
-                String textForEmbedding = dataset.getDescription();
-                if (textForEmbedding == null || textForEmbedding.isBlank()) {
-                    textForEmbedding = dataset.getName();
-                }
-
-                String embedding = embeddingService.generateEmbedding(textForEmbedding);
-                if (embedding != null) {
-                    dataset.setEmbeddingVector(embedding);
-                    datasetRepository.save(dataset);
-                    updated++;
-                }
-
-                System.out.printf("✅ [%d/%d] Embedded: %s%n", updated, total, dataset.getName());
+        backfillService.run(new EmbeddingBackfillService.Source() {
+            @Override
+            public DocType type() {
+                return DocType.OSDR;
+            }
 
-                // Küçük bekleme (rate limit koruması)
-                Thread.sleep(500);
+            @Override
+            public List<Object[]> findMissing(long afterId, String model, Pageable page) {
+                return datasetRepository.findUnembedded(afterId, model, page);
+            }
 
-            } catch (Exception e) {
-                System.err.println("⚠️ Failed to generate embedding for: " + dataset.getName());
-                e.printStackTrace();
+            @Override
+            public void writeLegacyJson(Map<Long, String> vectors) {
+                List<OSDRDataset> datasets = datasetRepository.findAllById(vectors.keySet());
+                datasets.forEach(dataset -> dataset.setEmbeddingVector(vectors.get(dataset.getId())));
+                datasetRepository.saveAll(datasets);
             }
-        }
+        });
 
-        System.out.printf("🎯 Total embeddings generated: %d / %d%n", updated, total);
         System.out.println("✅ OSDR embedding generation complete!");
     }
 }
@@ -11,6 +11,7 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -29,6 +30,9 @@ public class OSDRIngestionService {
     @Autowired
     private OSDREmbeddingService osdrEmbeddingService; // ✅ Embedding servisini ekledik
 
+    @Autowired
+    private ResilienceService resilience;
+
     private final HttpClient httpClient = HttpClient.newHttpClient();
     private final ObjectMapper objectMapper = new ObjectMapper();
 
@@ -46,13 +50,22 @@ public class OSDRIngestionService {
 
                 HttpRequest request = HttpRequest.newBuilder()
                         .uri(URI.create(url))
+                        .timeout(Duration.ofSeconds(30))
                         .GET()
                         .build();
 
-                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                // 🔹 Geçici hatalarda (429/5xx/bağlantı) bekleyip yeniden dener; okuma timeout'u tekrarlanmaz, devre açıksa hiç istek atmaz
+                HttpResponse<String> response = resilience.execute("osdr", () -> {
+                    HttpResponse<String> r = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+                    if (ResilienceService.isRetryableStatus(r.statusCode())) {
+                        throw ResilienceService.RetryableStatusException.of(r);
+                    }
+                    return r;
+                });
 
-                if (response.statusCode() != 200) {
-                    System.err.println("❌ Failed to fetch page " + from + ": HTTP " + response.statusCode());
+                if (response == null || response.statusCode() != 200) {
+                    System.err.println("❌ Failed to fetch page " + from + ": "
+                            + (response != null ? "HTTP " + response.statusCode() : "OSDR unavailable"));
                     break;
                 }
 
@@ -0,0 +1,154 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.entity.PublicationPassage;
+import com.example.astrogenesis.repository.PublicationPassageRepository;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.PaperSection;
+import com.example.astrogenesis.search.PassageSplitter;
+import org.jsoup.nodes.Element;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Yayınları pasaj düzeyinde aranabilir yapar: PMC tam metnini bölümlere/pasajlara ayırıp
+ * {@code publication_passages}'a yazar, sonra pasajları partiler halinde embed eder.
+ * <p>
+ * Yayın başına tek embedding metnin ilk 9000 karakterini görür; pasajlar tüm gövdeyi kapsar ve LLM'e
+ * tüm {@code content} yerine sadece eşleşen pasaj gönderilir. Embedding'ler {@link EmbeddingStore} üzerinden
+ * yazıldığı için indeks, change log ve blue/green geçiş pasajları diğer dokümanlar gibi işler.
+ */
+@Service
+public class PassageService {
+
+    private final PublicationPassageRepository passageRepository;
+    private final PublicationLoader publicationLoader;
+    private final EmbeddingService embeddingService;
+    private final EmbeddingStore embeddingStore;
+    private final PassageSplitter splitter;
+
+    @Value("${search.passages.enabled:true}")
+    private boolean enabled;
+
+    // Tur başına pasajlara ayrılan yayın sayısı (her biri bir efetch isteği)
+    @Value("${search.passages.batch-size:5}")
+    private int batchSize;
+
+    // Tek embedding API çağrısındaki pasaj sayısı
+    @Value("${search.passages.embed-batch-size:32}")
+    private int embedBatchSize;
+
+    @Value("${search.passages.fetch-delay-ms:400}")
+    private long fetchDelayMs;
+
+    // Keyset imleçleri. Bölme imleci tur sonunda sıfırlanmaz: pasaj çıkmayan yayınlar yeniden başlatmada denenir
+    private long splitCursor;
+    private final Map<String, Long> embedCursors = new HashMap<>();
+
+    public PassageService(PublicationPassageRepository passageRepository,
+                          PublicationLoader publicationLoader,
+                          EmbeddingService embeddingService,
+                          EmbeddingStore embeddingStore,
+                          @Value("${search.passages.max-chars:1500}") int maxChars) {
+        this.passageRepository = passageRepository;
+        this.publicationLoader = publicationLoader;
+        this.embeddingService = embeddingService;
+        this.embeddingStore = embeddingStore;
+        this.splitter = new PassageSplitter(maxChars);
+    }
+
+    @Scheduled(initialDelayString = "${search.passages.initial-delay-ms:30000}",
+               fixedDelayString = "${search.passages.interval-ms:5000}")
+    public synchronized void indexNextBatch() {
+        if (!enabled) return;
+
+        try {
+            int split = splitNextBatch();
+            int embedded = embedMissing(embeddingStore.model());
+            if (split + embedded > 0) {
+                System.out.printf("📑 Split %d publications into passages, embedded %d passages with %s%n",
+                        split, embedded, embeddingStore.model());
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Passage indexing batch failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@code model} ile henüz embed edilmemiş bir parti pasajı tek API çağrısıyla embed eder.
+     * Blue/green yeniden embed de hedef model için bunu çağırır.
+     *
+     * @return embed edilen pasaj sayısı
+     */
+    public synchronized int embedMissing(String model) {
+        long cursor = embedCursors.getOrDefault(model, 0L);
+        List<Object[]> rows = passageRepository.findMissingModel(cursor, model, PageRequest.of(0, embedBatchSize));
+        if (rows.isEmpty()) {
+            // Tur bitti: atlananlar için baştan
+            if (cursor > 0) embedCursors.put(model, 0L);
+            return 0;
+        }
+
+        List<String> texts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // id, title, section, text
+            texts.add(embeddingText((String) row[1], (PaperSection) row[2], (String) row[3]));
+        }
+        List<float[]> vectors = embeddingService.generateEmbeddings(texts, model);
+
+        // Parti tek saveAll ile yazılır (tek sorgu + JDBC batch), pasaj başına save değil
+        Map<Long, float[]> embedded = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Long id = (Long) rows.get(i)[0];
+            cursor = id;
+            float[] vector = vectors.get(i);
+            if (vector != null && vector.length > 0) embedded.put(id, vector);
+        }
+        if (!embedded.isEmpty()) embeddingStore.saveAll(DocType.PASSAGE, model, embedded);
+        embedCursors.put(model, cursor);
+        return embedded.size();
+    }
+
+    private int splitNextBatch() throws InterruptedException {
+        List<Object[]> rows = passageRepository.findUnsplitPublications(splitCursor, PageRequest.of(0, batchSize));
+
+        int split = 0;
+        for (Object[] row : rows) {
+            // id, link, content
+            Long id = (Long) row[0];
+            String link = (String) row[1];
+            splitCursor = id;
+
+            // XML alınamazsa düz content tek bölüm olarak bölünür (yine tüm metni kapsar)
+            Element body = publicationLoader.fetchFullTextBody(link);
+            List<PassageSplitter.Passage> passages = body != null
+                    ? splitter.split(body)
+                    : splitter.splitText(PaperSection.OTHER, (String) row[2]);
+
+            if (!passages.isEmpty()) {
+                List<PublicationPassage> entities = new ArrayList<>(passages.size());
+                for (int i = 0; i < passages.size(); i++) {
+                    entities.add(new PublicationPassage(id, passages.get(i).section(), i, passages.get(i).text()));
+                }
+                passageRepository.saveAll(entities);
+                split++;
+            }
+            if (link != null) Thread.sleep(fetchDelayMs); // API rate limit
+        }
+        return split;
+    }
+
+    /**
+     * Pasajın embed edilen metni: başlık ve bölüm adı, kısa pasajın hangi çalışmaya ait olduğunu taşır.
+     */
+    static String embeddingText(String title, PaperSection section, String text) {
+        return (title != null && !title.isBlank() ? title.trim() + "\n" : "") + section.label() + ": " + text;
+    }
+}
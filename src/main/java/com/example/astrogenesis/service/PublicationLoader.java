@@ -1,9 +1,11 @@
 package com.example.astrogenesis.service;
 
 import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.search.EmbeddingCodec;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
 import org.jsoup.select.Elements;
 import org.springframework.stereotype.Service;
 
@@ -59,18 +61,47 @@ public class PublicationLoader {
                 pub.setFetchedAt(LocalDateTime.now());
                 pub.setSource("PubMed Central / NASA Bioscience");
 
-                // 🔹 Embedding oluştur (summary + content birleştirerek)
-                String textToEmbed = (pub.getSummary() != null ? pub.getSummary() : "") + " " +
-                        (pub.getContent() != null ? pub.getContent() : "");
-                pub.setEmbeddingVector(embeddingService.generateEmbedding(textToEmbed));
-
                 publications.add(pub);
                 Thread.sleep(400); // API rate limit
             }
         }
+
+        // 🔹 Embedding oluştur (summary + content birleştirerek), partiler halinde
+        List<String> texts = new ArrayList<>(publications.size());
+        for (Publication pub : publications) {
+            texts.add((pub.getSummary() != null ? pub.getSummary() : "") + " " +
+                    (pub.getContent() != null ? pub.getContent() : ""));
+        }
+        List<float[]> vectors = embeddingService.generateEmbeddings(texts);
+        for (int i = 0; i < publications.size(); i++) {
+            if (vectors.get(i) != null) publications.get(i).setEmbeddingVector(EmbeddingCodec.toJson(vectors.get(i)));
+        }
         return publications;
     }
 
+    /**
+     * PMC efetch XML'inden makalenin {@code <body>}'sini bölüm yapısıyla döner (pasajlara ayırmak için).
+     * Link'te PMC id yoksa, tam metin yoksa veya istek başarısızsa {@code null}.
+     */
+    public Element fetchFullTextBody(String link) {
+        String pmcId = link != null ? extractPmcId(link) : null;
+        if (pmcId == null || pmcId.isEmpty()) return null;
+
+        try {
+            // HTML parser JATS <body>'yi belgenin gövdesiyle birleştirir; bölümler için XML parser şart
+            Document doc = Jsoup.connect(BASE_API + pmcId + "&retmode=xml")
+                    .ignoreContentType(true)
+                    .userAgent("Mozilla/5.0")
+                    .timeout(25000)
+                    .parser(Parser.xmlParser())
+                    .get();
+            return doc.selectFirst("article > body");
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not fetch full text for PMC" + pmcId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     private String extractPmcId(String url) {
         try {
             int start = url.indexOf("PMC");
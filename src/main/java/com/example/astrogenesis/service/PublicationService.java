@@ -2,18 +2,21 @@ package com.example.astrogenesis.service;
 
 import com.example.astrogenesis.entity.Publication;
 import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.DocType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class PublicationService {
 
     private final PublicationRepository repository;
-    private final EmbeddingService embeddingService;
+    private final EmbeddingBackfillService backfillService;
 
-    public PublicationService(PublicationRepository repository, EmbeddingService embeddingService) {
+    public PublicationService(PublicationRepository repository, EmbeddingBackfillService backfillService) {
         this.repository = repository;
-        this.embeddingService = embeddingService;
+        this.backfillService = backfillService;
     }
 
     public List<Publication> getAllPublications() {
@@ -28,37 +31,25 @@ public class PublicationService {
         return repository.searchPublications(query);
     }
 
-    // 🧠 Eksik embedding'leri oluştur ve DB'ye kaydet
+    // 🧠 Eksik embedding'leri oluştur ve DB'ye kaydet (keyset sayfalarla, sayfa başına tek transaction)
     public void generateMissingEmbeddings() {
-        List<Publication> publications = repository.findAll();
-        int count = 0;
-
-        for (Publication pub : publications) {
-            try {
-                if (pub.getEmbeddingVector() == null || pub.getEmbeddingVector().isBlank()) {
-                    String sourceText = pub.getSummary() != null && !pub.getSummary().isBlank()
-                            ? pub.getSummary()
-                            : pub.getTitle();
-
-                    String embedding = embeddingService.generateEmbedding(sourceText);
-
-                    if (embedding != null) {
-                        pub.setEmbeddingVector(embedding);
-                        repository.save(pub);
-                        count++;
-                        System.out.println("✅ Embedded: " + pub.getTitle());
-                    } else {
-                        System.err.println("⚠️ Failed to generate embedding for: " + pub.getTitle());
-                    }
-
-                    Thread.sleep(1000); // API hız limiti için küçük gecikme
-                }
+        backfillService.run(new EmbeddingBackfillService.Source() {
+            @Override
+            public DocType type() {
+                return DocType.PUBLICATION;
+            }
 
-            } catch (Exception e) {
-                System.err.println("❌ Error embedding " + pub.getTitle() + ": " + e.getMessage());
+            @Override
+            public List<Object[]> findMissing(long afterId, String model, Pageable page) {
+                return repository.findUnembedded(afterId, model, page);
             }
-        }
 
-        System.out.println("🎯 Total embeddings generated: " + count);
+            @Override
+            public void writeLegacyJson(Map<Long, String> vectors) {
+                List<Publication> publications = repository.findAllById(vectors.keySet());
+                publications.forEach(pub -> pub.setEmbeddingVector(vectors.get(pub.getId())));
+                repository.saveAll(publications);
+            }
+        });
     }
 }
@@ -0,0 +1,122 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.DocType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Blue/green yeniden embed: {@code embedding.next-model} ayarlıysa, embedding'i olan her dokümanı arka planda
+ * (ve her pasajı) küçük partiler halinde yeni modelle de embed eder ve {@code document_embeddings}'e o modelin etiketiyle yazar.
+ * Eski modelin satırlarına dokunulmaz; sorgular geçişe kadar eski modelin indeksini kullanır.
+ * <p>
+ * Eksik doküman kalmayınca {@link SemanticIndexService#switchModel} ile indeks ve sorgu modeli birlikte değişir.
+ * Durum veritabanındaki model etiketlerinden hesaplandığı için yeniden başlatmada kaldığı yerden devam eder.
+ * <p>
+ * Embed işini sadece {@code embedding.reembed.enabled=true} olan örnek yapar (varsayılan kapalı; çok örnekli
+ * kurulumda tek bir örnekte açılmalı, yoksa her örnek aynı partileri embed edip API kotasını katlar).
+ * Kapsam kontrolü ve model geçişi her örnekte çalışır; böylece hepsi aynı anda yeni modele geçer.
+ */
+@Service
+public class ReembeddingService {
+
+    private final PublicationRepository publicationRepository;
+    private final OSDRDatasetRepository osdrDatasetRepository;
+    private final EmbeddingService embeddingService;
+    private final EmbeddingStore embeddingStore;
+    private final SemanticIndexService semanticIndexService;
+    private final PassageService passageService;
+
+    @Value("${embedding.reembed.batch-size:50}")
+    private int batchSize;
+
+    @Value("${embedding.reembed.enabled:false}")
+    private boolean enabled;
+
+    // Keyset imleçleri: her tabloda en son denenen id (başarısız olanlar bir sonraki turda tekrar denenir)
+    private long publicationCursor;
+    private long datasetCursor;
+
+    public ReembeddingService(PublicationRepository publicationRepository,
+                              OSDRDatasetRepository osdrDatasetRepository,
+                              EmbeddingService embeddingService,
+                              EmbeddingStore embeddingStore,
+                              SemanticIndexService semanticIndexService,
+                              PassageService passageService) {
+        this.publicationRepository = publicationRepository;
+        this.osdrDatasetRepository = osdrDatasetRepository;
+        this.embeddingService = embeddingService;
+        this.embeddingStore = embeddingStore;
+        this.semanticIndexService = semanticIndexService;
+        this.passageService = passageService;
+    }
+
+    /**
+     * Her çağrıda tablo başına en fazla bir parti embed eder; kapsam %100 olunca indeksi yeni modele geçirir.
+     */
+    @Scheduled(initialDelayString = "${embedding.reembed.initial-delay-ms:60000}",
+               fixedDelayString = "${embedding.reembed.interval-ms:10000}")
+    public synchronized void reembedNextBatch() {
+        String target = embeddingStore.pendingModel();
+        if (target == null) return;
+
+        try {
+            int publications = enabled ? reembedBatch(DocType.PUBLICATION, target) : 0;
+            int datasets = enabled ? reembedBatch(DocType.OSDR, target) : 0;
+            int passages = enabled ? passageService.embedMissing(target) : 0;
+
+            long missing = semanticIndexService.missingEmbeddings(target);
+            if (publications + datasets + passages > 0) {
+                System.out.printf("🟩 Re-embedded %d publication + %d OSDR documents + %d passages with %s (%d remaining)%n",
+                        publications, datasets, passages, target, missing);
+            }
+            if (missing == 0) {
+                System.out.println("✅ Re-embedding with " + target + " complete, switching index.");
+                semanticIndexService.switchModel(target);
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Re-embedding batch failed: " + e.getMessage());
+        }
+    }
+
+    private int reembedBatch(DocType type, String target) {
+        long cursor = type == DocType.PUBLICATION ? publicationCursor : datasetCursor;
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<Object[]> rows = type == DocType.PUBLICATION
+                ? publicationRepository.findMissingModel(cursor, target, page)
+                : osdrDatasetRepository.findMissingModel(cursor, target, page);
+        if (rows.isEmpty() && cursor > 0) {
+            // Tur bitti: atlananlar için baştan
+            if (type == DocType.PUBLICATION) publicationCursor = 0;
+            else datasetCursor = 0;
+            return 0;
+        }
+
+        List<String> texts = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // Publication: title, summary · OSDR: name, description — özet/açıklama varsa o embed edilir
+            texts.add(row[2] != null && !((String) row[2]).isBlank() ? (String) row[2] : (String) row[1]);
+        }
+        List<float[]> vectors = embeddingService.generateEmbeddings(texts, target);
+
+        int embedded = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Long id = (Long) rows.get(i)[0];
+            cursor = id;
+            float[] vector = vectors.get(i);
+            if (vector == null || vector.length == 0) continue;
+            embeddingStore.save(type, id, target, vector);
+            embedded++;
+        }
+
+        if (type == DocType.PUBLICATION) publicationCursor = cursor;
+        else datasetCursor = cursor;
+        return embedded;
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.astrogenesis.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Dış çağrılar (embedding, LLM, OSDR) için ortak dayanıklılık katmanı: bağımlılık başına devre kesici,
+ * geçici hatalarda jitter'lı üstel bekleme ile yeniden deneme ve {@code Retry-After}'a uyma.
+ * <p>
+ * Geçici hata: I/O hatası, 408, 429 ve 5xx. Diğer 4xx'ler yeniden denenmez ve devreyi açmaz
+ * (bağımlılık ayakta, istek hatalı). Okuma/istek zaman aşımı devre için hata sayılır ama yeniden denenmez:
+ * yavaş bir sağlayıcı çağıran thread'i en fazla bir timeout süresi tutar. Devre açıkken çağrı hiç yapılmaz,
+ * hemen {@code null} döner.
+ */
+@Service
+public class ResilienceService {
+
+    /**
+     * Çağıranın, yeniden denenebilir bir HTTP durumu aldığını bildirmek için fırlattığı hata.
+     */
+    public static class RetryableStatusException extends IOException {
+
+        private final int status;
+        private final Duration retryAfter;
+
+        public RetryableStatusException(int status, Duration retryAfter) {
+            super("HTTP " + status);
+            this.status = status;
+            this.retryAfter = retryAfter;
+        }
+
+        public static RetryableStatusException of(HttpResponse<?> response) {
+            return new RetryableStatusException(response.statusCode(), TokenBucket.parseRetryAfter(
+                    response.headers().firstValue("Retry-After").orElse(null), ZonedDateTime.now()));
+        }
+
+        public int status() {
+            return status;
+        }
+
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+
+    @FunctionalInterface
+    public interface Attempt<T> {
+        T call() throws Exception;
+    }
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    // Toplam deneme sayısı (ilk istek dahil)
+    @Value("${resilience.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${resilience.backoff-base-ms:200}")
+    private long backoffBaseMs;
+
+    // Bundan uzun beklemek (Retry-After dahil) yerine vazgeçilir: thread'i tutmaktansa hızlı hata
+    @Value("${resilience.backoff-max-ms:5000}")
+    private long backoffMaxMs;
+
+    @Value("${resilience.breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${resilience.breaker.open-ms:30000}")
+    private long openMs;
+
+    /**
+     * {@code dependency} için devre kesici (ilk kullanımda oluşturulur).
+     */
+    public CircuitBreaker breaker(String dependency) {
+        return breakers.computeIfAbsent(dependency,
+                name -> new CircuitBreaker(name, failureThreshold, Duration.ofMillis(openMs)));
+    }
+
+    public int maxAttempts() {
+        return Math.max(1, maxAttempts);
+    }
+
+    /**
+     * {@code attempt}'inci (0'dan) yeniden deneme öncesi beklenecek süre; {@code backoff-max-ms}'i aşıyorsa -1.
+     */
+    public long backoffMillis(int attempt, Duration retryAfter) {
+        long delay = CircuitBreaker.backoffMillis(attempt, backoffBaseMs, backoffMaxMs, retryAfter,
+                ThreadLocalRandom.current().nextDouble());
+        return delay > backoffMaxMs ? -1 : delay;
+    }
+
+    /**
+     * Çağrıyı devre kesici arkasında, geçici hatalarda {@code resilience.max-attempts}'e kadar yeniden deneyerek
+     * çalıştırır. Devre açıksa, hata kalıcıysa veya denemeler tükenirse {@code null}.
+     */
+    public <T> T execute(String dependency, Attempt<T> attempt) {
+        CircuitBreaker breaker = breaker(dependency);
+        for (int i = 0; ; i++) {
+            if (!breaker.tryAcquire()) {
+                System.err.println("⛔ Circuit '" + dependency + "' is open, skipping call");
+                return null;
+            }
+            try {
+                T result = attempt.call();
+                breaker.onSuccess();
+                return result;
+            } catch (Exception e) {
+                if (isTimeout(e)) {
+                    breaker.onFailure();
+                    System.err.println("⌛ " + dependency + " call timed out: " + e.getMessage());
+                    return null;
+                }
+                if (!isRetryable(e)) {
+                    // Bağımlılık cevap verdi; sağlık sorunu değil
+                    breaker.onSuccess();
+                    System.err.println("❌ " + dependency + " call failed: " + e.getMessage());
+                    return null;
+                }
+                breaker.onFailure();
+
+                long delay = i + 1 < maxAttempts() ? backoffMillis(i, retryAfter(e)) : -1;
+                if (delay < 0) {
+                    System.err.printf("❌ %s call failed after %d attempt(s): %s%n", dependency, i + 1, e.getMessage());
+                    return null;
+                }
+                System.err.printf("🔁 %s call failed (%s), retrying in %d ms%n", dependency, e.getMessage(), delay);
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+            }
+        }
+    }
+
+    /**
+     * İzlemek için tüm devre kesicilerin durumu.
+     */
+    public List<Map<String, Object>> snapshot() {
+        List<Map<String, Object>> snapshot = new ArrayList<>();
+        breakers.values().stream()
+                .sorted((a, b) -> a.name().compareTo(b.name()))
+                .forEach(breaker -> snapshot.add(breaker.snapshot()));
+        return snapshot;
+    }
+
+    public static boolean isRetryableStatus(int status) {
+        return status == 408 || status == 429 || status >= 500;
+    }
+
+    static boolean isRetryable(Throwable e) {
+        if (e instanceof HttpStatusCodeException status) return isRetryableStatus(status.getStatusCode().value());
+        return e instanceof IOException || e instanceof ResourceAccessException;
+    }
+
+    /**
+     * Okuma veya istek zaman aşımı; bağlantı kurulamaması ({@code ConnectException}) buna dahil değil.
+     */
+    static boolean isTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) return true;
+        }
+        return false;
+    }
+
+    private static Duration retryAfter(Throwable e) {
+        if (e instanceof RetryableStatusException status) return status.retryAfter();
+        if (e instanceof HttpStatusCodeException status && status.getResponseHeaders() != null) {
+            return TokenBucket.parseRetryAfter(status.getResponseHeaders().getFirst("Retry-After"), ZonedDateTime.now());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.entity.ChatHistory;
+import com.example.astrogenesis.repository.ChatHistoryRepository;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.search.RetrievalBenchmark;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.search.SimilarityKernels;
+import com.example.astrogenesis.search.VectorStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Arama yöntemleri için kalite/gecikme benchmark'ı (bkz. {@link RetrievalBenchmark}).
+ * <p>
+ * Altın sorgu kümesi: {@code chat_history}'deki son farklı kullanıcı sorguları (aktif modelle tek çağrıda
+ * embed edilir) + korpustan sabit seed'le türetilen sentetik sorgular. Her varyantın recall@k, p50/p99
+ * gecikmesi ve belleği {@code search.benchmark.output} altına JSON rapor olarak yazılır; raporlar farklı
+ * commit'ler arasında karşılaştırılabilir. {@code benchmark} profili ile çalıştırılır ({@code BenchmarkRunner}).
+ */
+@Service
+public class RetrievalBenchmarkService {
+
+    private final SemanticIndexService semanticIndexService;
+    private final EmbeddingService embeddingService;
+    private final ChatHistoryRepository chatHistoryRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Value("${search.benchmark.k:10}")
+    private int k;
+
+    @Value("${search.benchmark.history-queries:200}")
+    private int historyQueries;
+
+    @Value("${search.benchmark.synthetic-queries:200}")
+    private int syntheticQueries;
+
+    @Value("${search.benchmark.seed:42}")
+    private long seed;
+
+    @Value("${search.benchmark.warmup:2}")
+    private int warmup;
+
+    // M:efConstruction:efSearch, virgülle ayrılmış
+    @Value("${search.benchmark.hnsw:16:100:32,16:200:64,32:200:128}")
+    private String hnswParams;
+
+    @Value("${search.benchmark.rerank:50,200}")
+    private String rerankParams;
+
+    // Filtreli varyantlar için SearchFilter parametreleri, örn. source=osdr;from=2015
+    @Value("${search.benchmark.filter:source=osdr}")
+    private String filterParams;
+
+    @Value("${search.benchmark.output:data/benchmark}")
+    private String outputDir;
+
+    public RetrievalBenchmarkService(SemanticIndexService semanticIndexService,
+                                     EmbeddingService embeddingService,
+                                     ChatHistoryRepository chatHistoryRepository) {
+        this.semanticIndexService = semanticIndexService;
+        this.embeddingService = embeddingService;
+        this.chatHistoryRepository = chatHistoryRepository;
+    }
+
+    /**
+     * Benchmark'ı geçerli indeks üzerinde çalıştırır ve raporun yolunu döner.
+     */
+    public Path run() throws IOException {
+        SemanticIndexService.IndexState state = semanticIndexService.state();
+        VectorStore store = state.vectors();
+        System.out.printf("🏁 Retrieval benchmark: %d vectors (dim=%d), k=%d%n", store.size(), store.dimension(), k);
+
+        // 1️⃣ Altın sorgular: geçmiş kullanıcı sorguları + sentetik
+        List<String> texts = historyQueries();
+        List<float[]> queries = new ArrayList<>();
+        int embeddedHistory = 0;
+        if (!texts.isEmpty()) {
+            for (float[] embedding : embeddingService.generateEmbeddings(texts, state.model())) {
+                if (embedding == null || embedding.length != store.dimension()) continue;
+                queries.add(EmbeddingCodec.normalize(embedding));
+                embeddedHistory++;
+            }
+            if (embeddedHistory == 0) {
+                System.err.println("⚠️ Could not embed chat history queries, using synthetic queries only.");
+            }
+        }
+        for (float[] query : RetrievalBenchmark.syntheticQueries(store, syntheticQueries, 0.05, seed)) {
+            queries.add(query);
+        }
+
+        // 2️⃣ Varyantlar
+        List<RetrievalBenchmark.Variant> variants = new ArrayList<>();
+        variants.add(RetrievalBenchmark.Variant.exact());
+        for (String rerank : rerankParams.split(",")) {
+            if (!rerank.isBlank()) variants.add(RetrievalBenchmark.Variant.quantized(Integer.parseInt(rerank.trim())));
+        }
+        for (String spec : hnswParams.split(",")) {
+            if (spec.isBlank()) continue;
+            String[] p = spec.trim().split(":");
+            variants.add(RetrievalBenchmark.Variant.hnsw(Integer.parseInt(p[0]), Integer.parseInt(p[1]),
+                    Integer.parseInt(p[2])));
+        }
+        SearchFilter filter = SearchFilter.fromParams(parseParams(filterParams));
+        BitSet allowed = state.metadata().allowed(filter);
+        if (allowed != null) {
+            variants.add(RetrievalBenchmark.Variant.exact().withFilter());
+            for (String rerank : rerankParams.split(",")) {
+                if (!rerank.isBlank()) {
+                    variants.add(RetrievalBenchmark.Variant.quantized(Integer.parseInt(rerank.trim())).withFilter());
+                }
+            }
+        }
+
+        // 3️⃣ Ölçüm
+        long start = System.currentTimeMillis();
+        List<RetrievalBenchmark.Result> results = new RetrievalBenchmark(store, allowed, k, warmup)
+                .run(queries.toArray(new float[0][]), variants);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("createdAt", LocalDateTime.now().toString());
+        report.put("corpus", Map.of(
+                "model", state.model(),
+                "vectors", store.size(),
+                "dimension", store.dimension(),
+                "storage", store.getClass().getSimpleName(),
+                "kernel", SimilarityKernels.get().name()));
+        Map<String, Object> golden = new LinkedHashMap<>();
+        golden.put("history", embeddedHistory);
+        golden.put("synthetic", queries.size() - embeddedHistory);
+        golden.put("seed", seed);
+        golden.put("historyTexts", texts);
+        report.put("queries", golden);
+        Map<String, Object> filterReport = new LinkedHashMap<>(filter.toParams());
+        filterReport.put("allowedRows", allowed != null ? allowed.cardinality() : store.size());
+        report.put("filter", filterReport);
+        report.put("jvm", Map.of(
+                "version", System.getProperty("java.version"),
+                "processors", Runtime.getRuntime().availableProcessors(),
+                "maxHeapBytes", Runtime.getRuntime().maxMemory()));
+        report.put("k", k);
+        report.put("results", results);
+
+        Path dir = Path.of(outputDir);
+        Files.createDirectories(dir);
+        Path file = dir.resolve("retrieval-" + LocalDateTime.now()
+                .format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        objectMapper.writeValue(file.toFile(), report);
+
+        for (RetrievalBenchmark.Result r : results) {
+            System.out.printf("   %-40s recall@%d=%.3f p50=%.3f ms p99=%.3f ms mem=%d KB%n",
+                    r.name(), k, r.recall(), r.p50Ms(), r.p99Ms(), r.memoryBytes() / 1024);
+        }
+        System.out.printf("✅ Benchmark finished in %d ms, report: %s%n", System.currentTimeMillis() - start, file);
+        return file;
+    }
+
+    private List<String> historyQueries() {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (ChatHistory history : chatHistoryRepository.findAllByOrderByCreatedAtDesc()) {
+            if (distinct.size() >= historyQueries) break;
+            if (history.getQuery() != null && !history.getQuery().isBlank()) distinct.add(history.getQuery().trim());
+        }
+        return new ArrayList<>(distinct);
+    }
+
+    private static Map<String, String> parseParams(String spec) {
+        Map<String, String> params = new HashMap<>();
+        for (String pair : spec.split(";")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) params.put(pair.substring(0, eq).trim(), pair.substring(eq + 1).trim());
+        }
+        return params;
+    }
+}
@@ -0,0 +1,712 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.config.SearchIndexProperties;
+import com.example.astrogenesis.repository.DocumentEmbeddingRepository;
+import com.example.astrogenesis.repository.EmbeddingChangeRepository;
+import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.repository.PublicationPassageRepository;
+import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.BatchScan;
+import com.example.astrogenesis.search.CorpusVersion;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.DocumentMetadata;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.search.HnswIndex;
+import com.example.astrogenesis.search.IndexSnapshot;
+import com.example.astrogenesis.search.MetadataIndex;
+import com.example.astrogenesis.search.ParallelScan;
+import com.example.astrogenesis.search.QuantizedVectors;
+import com.example.astrogenesis.search.RetrievalMode;
+import com.example.astrogenesis.search.SearchExecutor;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.search.SegmentManager;
+import com.example.astrogenesis.search.SegmentedVectorStore;
+import com.example.astrogenesis.search.ShardPartition;
+import com.example.astrogenesis.search.SimilarityKernels;
+import com.example.astrogenesis.search.VectorIndex;
+import com.example.astrogenesis.search.VectorStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Semantic search için bellekte tutulan vektör indeksinin sahibi.
+ * İndeks ilk sorguda bir kez kurulur; yeni embedding'ler {@link EmbeddingUpdatedEvent} ile artımlı olarak
+ * eklenir ve her değişiklik yeni, değişmez bir epoch olarak yayınlanır. Başka uygulama örneklerinin yazımları
+ * {@link ChangeLogTailer} ile aynı yoldan gelir.
+ * {@code search.mode=hnsw} ise vektörlerin yanında bir HNSW grafı da tutulur.
+ * <p>
+ * {@code search.storage=mmap} ise vektörler heap yerine {@code search.segments.dir} altındaki
+ * map edilmiş segment dosyalarında durur; yeni embedding'ler küçük bir kuyruğa eklenir ve
+ * kuyruk dolunca segment olarak mühürlenir, küçük segmentler periyodik olarak birleştirilir.
+ * <p>
+ * {@code search.mode=quantized} ise vektörlerin int8 kopyası tutulur; tarama bu kodlar üzerinden yapılır ve
+ * en iyi {@code search.quantized.rerank} aday tam vektörlerle yeniden skorlanır. Kurulumda, kesin aramaya
+ * göre ölçülen recall@5 loglanır.
+ * <p>
+ * {@code search.executor=parallel} ise kesin tarama {@code search.parallel.pool-size} iş parçacıklı ayrı bir
+ * ForkJoinPool üzerinde parçalara bölünerek yapılır ({@code search.parallel.threshold} satırın altında seri kalır).
+ * <p>
+ * Her state, satırlarla hizalı bir {@link MetadataIndex} taşır; filtreli aramalarda sadece filtreyi geçen
+ * satırlar skorlanır. HNSW grafı filtreyi bilmediği için filtreli sorgular kesin taramaya yönlendirilir.
+ * Aranabilir metni olmayan (veya silinmiş) dokümanların vektörleri indekse hiç alınmaz; eski bir snapshot'ta
+ * ya da segmentte kalmışlarsa açılışta geçersiz sayılır ({@link VectorStore#isLive}); HNSW ve taramalar onları
+ * atlar, top-k yükleme sırasında elenecek sonuçlarla dolmaz.
+ * <p>
+ * Heap modunda her tam kurulumdan sonra indeks {@code search.snapshot.path}'e yazılır ({@link IndexSnapshot}).
+ * Açılışta snapshot map edilip yüklenir; veritabanındaki {@link CorpusVersion} ile karşılaştırılır ve
+ * sonradan eklenen vektörler {@code embedding_changes} sıra numarasından itibaren tamamlanır. Silinen vektör
+ * varsa ya da change log snapshot'ın gerisine kadar budanmışsa tam kuruluma düşülür.
+ * <p>
+ * Her epoch tek bir embedding modeline aittir. {@code embedding.next-model} ile yeni model arka planda
+ * ({@link ReembeddingService}) embed edilirken sorgular eski modelin indeksini kullanır; kapsam %100 olunca
+ * {@link #switchModel} yeni indeksi kurar ve sorgu modeli ile indeksi tek bir state yayınıyla birlikte değiştirir.
+ * <p>
+ * {@code search.shard.count > 1} ise bu süreç bir scatter-gather işçisidir: sadece
+ * {@link ShardPartition#owns} ile kendisine düşen dokümanları indeksler. Snapshot ve segment dosyaları
+ * parçaya özel adlarla yazılır, böylece aynı makinede birden fazla işçi çalışabilir.
+ */
+@Service
+public class SemanticIndexService {
+
+    private final PublicationRepository publicationRepository;
+    private final OSDRDatasetRepository osdrDatasetRepository;
+    private final DocumentEmbeddingRepository documentEmbeddingRepository;
+    private final EmbeddingChangeRepository changeRepository;
+    private final PublicationPassageRepository passageRepository;
+    private final EmbeddingStore embeddingStore;
+
+    private final RetrievalMode defaultMode;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int hnswEfSearch;
+    private final int quantizedRerank;
+    private final int quantizedRecallSample;
+    private final SearchExecutor defaultExecutor;
+    private final ForkJoinPool scanPool;
+    private final ParallelScan parallelScan;
+    private final ShardPartition partition;
+    private final SegmentManager segmentManager; // sadece mmap modunda
+    private final Path segmentsModelFile;         // segmentlerin hangi modele ait olduğu (sadece mmap modunda)
+    private final Path snapshotPath;              // sadece heap modunda, kapalıysa null
+    private final long syncGapTimeoutMs;          // ChangeLogTailer ile aynı: bundan yeni sıra numaraları kesin değil
+
+    // Doküman anahtarı → satır (sadece yazar tarafı kullanır)
+    private final Map<Long, Integer> rowsByDoc = new HashMap<>();
+
+    private volatile IndexState state;
+    private long lastEpoch; // sadece yazar tarafı (senkronize) artırır
+
+    public SemanticIndexService(PublicationRepository publicationRepository,
+                                OSDRDatasetRepository osdrDatasetRepository,
+                                DocumentEmbeddingRepository documentEmbeddingRepository,
+                                EmbeddingChangeRepository changeRepository,
+                                PublicationPassageRepository passageRepository,
+                                EmbeddingStore embeddingStore,
+                                SearchIndexProperties properties) {
+        this.publicationRepository = publicationRepository;
+        this.osdrDatasetRepository = osdrDatasetRepository;
+        this.documentEmbeddingRepository = documentEmbeddingRepository;
+        this.changeRepository = changeRepository;
+        this.passageRepository = passageRepository;
+        this.embeddingStore = embeddingStore;
+        this.defaultMode = RetrievalMode.valueOf(properties.mode().trim().toUpperCase());
+        this.hnswM = properties.hnsw().m();
+        this.hnswEfConstruction = properties.hnsw().efConstruction();
+        this.hnswEfSearch = properties.hnsw().efSearch();
+        this.quantizedRerank = properties.quantized().rerank();
+        this.quantizedRecallSample = properties.quantized().recallSample();
+        this.defaultExecutor = SearchExecutor.valueOf(properties.executor().trim().toUpperCase());
+        int poolSize = properties.parallel().poolSize();
+        this.scanPool = new ForkJoinPool(poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors());
+        this.parallelScan = new ParallelScan(scanPool, properties.parallel().threshold());
+        this.partition = new ShardPartition(properties.shard().index(), properties.shard().count());
+        Path segmentsDir = Path.of(properties.segments().dir());
+        Path snapshotPath = Path.of(properties.snapshot().path());
+        Path segments = partition.isSharded() ? segmentsDir.resolve(partition.label()) : segmentsDir;
+        Path snapshot = partition.isSharded()
+                ? snapshotPath.resolveSibling(snapshotPath.getFileName() + "." + partition.label())
+                : snapshotPath;
+        this.segmentManager = "mmap".equalsIgnoreCase(properties.storage().trim())
+                ? new SegmentManager(segments, properties.segments().tailMax(), properties.segments().mergeFactor())
+                : null;
+        this.segmentsModelFile = segmentManager != null ? segments.resolve("model") : null;
+        this.snapshotPath = properties.snapshot().enabled() && segmentManager == null ? snapshot : null;
+        this.syncGapTimeoutMs = properties.sync().gapTimeoutMs();
+    }
+
+    /**
+     * Değişmez bir indeks epoch'u: aynı anda okunması gereken vektörler, filtre metadata'sı ve (varsa)
+     * HNSW grafı / int8 kopyası. Satır numaraları sadece aynı epoch içinde anlamlıdır; her yayında
+     * {@code epoch} artar. Sorgular {@code model} ile embed edilmelidir.
+     */
+    public record IndexState(long epoch, String model, VectorStore vectors, MetadataIndex metadata, HnswIndex hnsw,
+                             QuantizedVectors quantized) {}
+
+    public RetrievalMode defaultMode() {
+        return defaultMode;
+    }
+
+    public SearchExecutor defaultExecutor() {
+        return defaultExecutor;
+    }
+
+    public ShardPartition partition() {
+        return partition;
+    }
+
+    /**
+     * Geçerli indeks durumunu döner; henüz kurulmadıysa kurar.
+     */
+    public IndexState state() {
+        IndexState snapshot = state;
+        if (snapshot != null) return snapshot;
+
+        synchronized (this) {
+            if (state == null) {
+                state = initialBuild();
+            }
+            return state;
+        }
+    }
+
+    public VectorStore current() {
+        return state().vectors();
+    }
+
+    /**
+     * Verilen state üzerinde en iyi {@code rows.length} sonucu bulur.
+     * Seçilen yöntemin yapısı yoksa (veya HNSW sonuç vermezse) kesin taramaya düşülür.
+     */
+    public int search(IndexState snapshot, float[] query, RetrievalMode mode, int[] rows, float[] scores) {
+        return search(snapshot, query, mode, defaultExecutor, SearchFilter.none(), rows, scores);
+    }
+
+    /**
+     * {@code executor} kesin taramanın (doğrudan veya fallback olarak) seri mi paralel mi yapılacağını belirler.
+     * {@code filter}'ı geçmeyen satırlar hiç skorlanmaz.
+     */
+    public int search(IndexState snapshot, float[] query, RetrievalMode mode, SearchExecutor executor,
+                      SearchFilter filter, int[] rows, float[] scores) {
+        BitSet allowed = snapshot.metadata().allowed(filter);
+        if (allowed != null && allowed.isEmpty()) return 0;
+
+        if (mode == RetrievalMode.HNSW && snapshot.hnsw() != null && allowed == null) {
+            int found = snapshot.hnsw().search(query, hnswEfSearch, snapshot.vectors(), rows, scores);
+            if (found > 0) return found;
+        }
+        if (mode == RetrievalMode.QUANTIZED && snapshot.quantized() != null) {
+            return snapshot.quantized().search(query, snapshot.vectors(), allowed, quantizedRerank, rows, scores);
+        }
+        if (executor == SearchExecutor.PARALLEL) {
+            return parallelScan.topK(snapshot.vectors(), query, allowed, rows, scores);
+        }
+        return snapshot.vectors().topK(query, 0, snapshot.vectors().size(), allowed, rows, scores);
+    }
+
+    /**
+     * Birden fazla sorgu için arama. Kesin taramada depo sorgu başına değil sorgu grubu başına bir kez taranır
+     * ({@link BatchScan}); HNSW ve int8 yolları zaten korpusu taramadığı için sorgu sorgu çalışır.
+     *
+     * @return sorgu başına bulunan sonuç sayısı
+     */
+    public int[] searchBatch(IndexState snapshot, float[][] queries, RetrievalMode mode, SearchFilter filter,
+                             int[][] rows, float[][] scores) {
+        BitSet allowed = snapshot.metadata().allowed(filter);
+        if (allowed != null && allowed.isEmpty()) return new int[queries.length];
+
+        boolean graph = mode == RetrievalMode.HNSW && snapshot.hnsw() != null && allowed == null;
+        boolean quantized = mode == RetrievalMode.QUANTIZED && snapshot.quantized() != null;
+        if (!graph && !quantized) {
+            return BatchScan.topK(snapshot.vectors(), queries, allowed, rows, scores);
+        }
+        int[] found = new int[queries.length];
+        for (int q = 0; q < queries.length; q++) {
+            if (queries[q] == null) continue;
+            found[q] = search(snapshot, queries[q], mode, SearchExecutor.SERIAL, filter, rows[q], scores[q]);
+        }
+        return found;
+    }
+
+    /**
+     * İndeksi veritabanından yeniden kurar ve atomik olarak değiştirir.
+     * Devam eden sorgular eski indeksi kullanmaya devam eder.
+     */
+    public synchronized void rebuild() {
+        state = build(state != null ? state.model() : embeddingStore.model());
+    }
+
+    /**
+     * Blue/green geçiş: {@code newModel}'in vektörlerinden yeni bir indeks kurar, sonra aktif modeli ve
+     * state'i birlikte değiştirir. Kurulum sırasında sorgular eski modelle eski indeksten cevaplanır;
+     * geçişten sonra {@link #state()} alan her sorgu yeni modelle embed edilir.
+     */
+    public synchronized void switchModel(String newModel) {
+        IndexState current = state;
+        if (current != null && current.model().equals(newModel)) return;
+
+        long start = System.currentTimeMillis();
+        IndexState next = build(newModel);
+        if (next.vectors().size() == 0) {
+            System.err.println("⚠️ No vectors for model " + newModel + ", keeping " + embeddingStore.model());
+            return;
+        }
+        embeddingStore.activate(newModel);
+        state = next;
+        System.out.printf("🔀 Search index switched to %s (%d vectors) in %d ms — set embedding.model=%s to make it permanent%n",
+                newModel, next.vectors().size(), System.currentTimeMillis() - start, newModel);
+    }
+
+    /**
+     * Verilen modelle henüz embed edilmemiş (ama başka bir embedding'i olan) doküman sayısı.
+     */
+    public long missingEmbeddings(String model) {
+        return publicationRepository.countMissingModel(model) + osdrDatasetRepository.countMissingModel(model)
+                + passageRepository.countMissingModel(model);
+    }
+
+    /**
+     * Modelin vektörü olan ve eksiği kalmamış mı (geçişe hazır mı)?
+     */
+    public boolean isComplete(String model) {
+        return missingEmbeddings(model) == 0 && corpusVersion(model).count() > 0;
+    }
+
+    /**
+     * mmap modunda küçük segmentleri birleştirir. Satır numaraları değiştiği için HNSW grafı yeniden kurulur.
+     */
+    @Scheduled(fixedDelayString = "${search.segments.merge-interval-ms:60000}")
+    public synchronized void mergeSegments() {
+        IndexState current = state;
+        if (segmentManager == null || current == null) return;
+
+        try {
+            SegmentedVectorStore store = (SegmentedVectorStore) current.vectors();
+            SegmentedVectorStore merged = segmentManager.merge(store);
+            if (merged == store) return;
+
+            System.out.printf("🗜️ Merged vector segments: %d → %d%n", store.segmentCount(), merged.segmentCount());
+            publish(merged);
+        } catch (IOException e) {
+            System.err.println("⚠️ Segment merge failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        scanPool.shutdown();
+        if (segmentManager != null) segmentManager.close();
+    }
+
+    /**
+     * {@link EmbeddingStore} her yazımdan sonra bu olayı yayınlar; transaction varsa commit'ten sonra işlenir,
+     * böylece indekse sadece kalıcı olmuş vektörler girer.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmbeddingUpdated(EmbeddingUpdatedEvent event) {
+        addAll(event.model(), event.type(), event.vectors());
+    }
+
+    /**
+     * Bir dokümanın embedding'ini indekse (ve varsa HNSW grafına / int8 kopyasına) ekler ve yeni bir epoch yayınlar.
+     * Doküman zaten indeksteyse ve vektörü değiştiyse yeni satır eklenip eski satır geçersiz sayılır;
+     * vektör aynıysa bir şey yapılmaz. İndeks henüz kurulmadıysa da bir şey yapılmaz; ilk kurulumda
+     * zaten veritabanından okunacak.
+     * <p>
+     * Tek yazar: metot senkronizedir. Okuyucular hiç kilit almaz; {@link #state()} ile aldıkları epoch
+     * değişmez kalır ve yeni epoch tek bir volatile yazımla yayınlanır.
+     */
+    public synchronized void add(DocType type, long docId, float[] vector) {
+        IndexState current = state;
+        if (current != null) add(current.model(), type, docId, vector);
+    }
+
+    /**
+     * Sadece geçerli epoch'un modeline ait vektörler eklenir; geçiş sırasında yeni modelin vektörleri
+     * {@link #switchModel} ile veritabanından okunur. Aynı vektör tekrar gelirse bir şey yapılmaz,
+     * bu yüzden aynı değişikliği ({@link ChangeLogTailer}) birden fazla uygulamak güvenlidir.
+     */
+    public synchronized void add(String model, DocType type, long docId, float[] vector) {
+        addAll(model, type, Collections.singletonMap(docId, vector));
+    }
+
+    /**
+     * {@link #add(String, DocType, long, float[])}'in toplu hali: metadata tek IN sorgusuyla yüklenir,
+     * metadata BitSet'leri parti başına bir kez kopyalanır ve parti için tek bir epoch yayınlanır.
+     */
+    public synchronized void addAll(String model, DocType type, Map<Long, float[]> vectors) {
+        IndexState current = state;
+        if (current == null || !current.model().equals(model) || vectors.isEmpty()) return;
+
+        List<Long> ids = new ArrayList<>(vectors.size());
+        vectors.forEach((docId, vector) -> {
+            if (vector != null && vector.length > 0 && partition.owns(type, docId)) ids.add(docId);
+        });
+        if (ids.isEmpty()) return;
+        Map<Long, DocumentMetadata> documents = loadMetadata(type, ids);
+
+        VectorStore next = current.vectors();
+        List<DocumentMetadata> metas = new ArrayList<>(ids.size());
+        List<Integer> superseded = new ArrayList<>();
+        Map<Long, Integer> rows = new HashMap<>();
+        for (Long docId : ids) {
+            float[] vector = vectors.get(docId);
+            long key = key(type, docId);
+            DocumentMetadata meta = documents.get(key);
+            if (meta == null) continue; // metinsiz veya silinmiş doküman aranmaz
+            if (next.size() > 0 && vector.length != next.dimension()) continue;
+            Integer previous = rowsByDoc.get(key);
+            if (previous != null && sameVector(next.vector(previous), EmbeddingCodec.normalize(vector.clone()))) {
+                continue;
+            }
+
+            VectorStore appended;
+            if (segmentManager != null) {
+                try {
+                    appended = segmentManager.append((SegmentedVectorStore) next, type, docId, vector);
+                } catch (IOException e) {
+                    System.err.println("⚠️ Could not append to vector tail segment: " + e.getMessage());
+                    break;
+                }
+            } else {
+                appended = ((VectorIndex) next).append(type, docId, vector);
+            }
+            if (appended.size() == next.size()) continue;
+            next = appended;
+            if (previous != null) superseded.add(previous);
+            rows.put(key, next.size() - 1);
+            metas.add(meta);
+        }
+        if (metas.isEmpty()) return;
+        if (!superseded.isEmpty()) {
+            int[] old = superseded.stream().mapToInt(Integer::intValue).toArray();
+            next = next instanceof SegmentedVectorStore segmented ? segmented.supersede(old)
+                    : ((VectorIndex) next).supersede(old);
+        }
+
+        int firstRow = current.vectors().size();
+        HnswIndex hnsw = current.hnsw();
+        if (defaultMode == RetrievalMode.HNSW) {
+            if (hnsw == null) hnsw = new HnswIndex(hnswM, hnswEfConstruction);
+            for (int row = firstRow; row < next.size(); row++) hnsw.insert(row, next);
+        }
+        QuantizedVectors quantized = current.quantized();
+        if (defaultMode == RetrievalMode.QUANTIZED) {
+            if (quantized == null) {
+                quantized = QuantizedVectors.build(next);
+            } else {
+                for (int row = firstRow; row < next.size(); row++) quantized = quantized.append(next.vector(row));
+            }
+        }
+        MetadataIndex metadata = current.metadata().appendAll(type, metas);
+        rowsByDoc.putAll(rows);
+        state = new IndexState(nextEpoch(), model, next, metadata, hnsw, quantized);
+    }
+
+    private IndexState build(String model) {
+        long start = System.currentTimeMillis();
+        CorpusVersion version = corpusVersion(model); // okumadan önce: arada yazılanlar bir sonraki açılışta tamamlanır
+        Map<Long, DocumentMetadata> documents = loadAllMetadata();
+        VectorIndex.Builder builder = VectorIndex.builder();
+
+        // 1️⃣ İkili tablo (little-endian float32, parse maliyeti yok)
+        for (Object[] row : documentEmbeddingRepository.findVectorsByModel(model)) {
+            DocType type = (DocType) row[0];
+            Long id = (Long) row[1];
+            if (!partition.owns(type, id) || !documents.containsKey(key(type, id))) continue;
+            builder.add(type, id, EmbeddingCodec.fromBytes((byte[]) row[2]));
+        }
+
+        // 2️⃣ Henüz taşınmamış JSON kolonları (migrator bitene kadar; JSON sadece yapılandırılmış modele ait)
+        if (model.equals(embeddingStore.baseModel())) {
+            addJsonRows(builder, DocType.PUBLICATION,
+                    publicationRepository.findUnmigratedEmbeddings(0L, model, Pageable.unpaged()), documents);
+            addJsonRows(builder, DocType.OSDR,
+                    osdrDatasetRepository.findUnmigratedEmbeddings(0L, model, Pageable.unpaged()), documents);
+        }
+
+        VectorStore built = builder.build();
+        System.out.printf("📐 Vector index built for %s: %d vectors (dim=%d) in %d ms, kernel: %s%n",
+                partition.isSharded() ? model + " [" + partition.label() + "]" : model, built.size(), built.dimension(), System.currentTimeMillis() - start,
+                SimilarityKernels.get().name());
+
+        if (segmentManager != null) {
+            try {
+                built = segmentManager.replaceAll(built);
+                Files.writeString(segmentsModelFile, model);
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not write vector segments, serving from heap: " + e.getMessage());
+            }
+        }
+        writeSnapshot(model, version, built);
+        return withGraph(model, built, documents);
+    }
+
+    /**
+     * İlk kurulum: mmap modunda diskte aynı modelin segmentleri varsa veritabanı taranmadan onlar açılır.
+     * Bekleyen yeni model bir önceki çalışmada %100 kapsama ulaştıysa doğrudan onunla açılır.
+     */
+    private IndexState initialBuild() {
+        String pending = embeddingStore.pendingModel();
+        if (pending != null && isComplete(pending)) {
+            embeddingStore.activate(pending);
+        }
+        String model = embeddingStore.model();
+
+        if (segmentManager != null) {
+            try {
+                SegmentedVectorStore opened = segmentManager.open();
+                boolean sameModel = Files.exists(segmentsModelFile)
+                        && Files.readString(segmentsModelFile).equals(model);
+                if (sameModel && (!segmentManager.isEmpty() || opened.size() > 0)) {
+                    System.out.printf("📂 Opened %d mapped vector segments (%d vectors)%n",
+                            opened.segmentCount(), opened.size());
+                    return withGraph(model, opened);
+                }
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not open vector segments, rebuilding: " + e.getMessage());
+            }
+        }
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            VectorStore restored = restoreSnapshot(model);
+            if (restored != null) return withGraph(model, restored);
+        }
+        return build(model);
+    }
+
+    /**
+     * Snapshot'ı yükler ve veritabanına göre tamamlar; kullanılamıyorsa {@code null}.
+     */
+    private VectorStore restoreSnapshot(String model) {
+        long start = System.currentTimeMillis();
+        IndexSnapshot snapshot;
+        try {
+            snapshot = IndexSnapshot.load(snapshotPath);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not load index snapshot, rebuilding: " + e.getMessage());
+            return null;
+        }
+        if (!snapshot.model().equals(model)) {
+            System.out.println("ℹ️ Index snapshot is for model " + snapshot.model() + ", rebuilding for " + model);
+            return null;
+        }
+
+        CorpusVersion current = corpusVersion(model);
+        VectorIndex index = snapshot.index();
+        if (!current.equals(snapshot.corpusVersion())) {
+            index = catchUp(model, index, snapshot.corpusVersion(), current, loadAllMetadata());
+            if (index == null) return null;
+            writeSnapshot(model, current, index);
+        }
+        System.out.printf("💾 Index snapshot loaded: %d vectors (dim=%d) in %d ms%n",
+                index.size(), index.dimension(), System.currentTimeMillis() - start);
+        return index;
+    }
+
+    /**
+     * Snapshot'tan sonra yazılmış vektörleri ekler. Zaten indekste olan bir doküman aynı vektörle gelirse
+     * (örn. JSON'dan ikili tabloya taşınma) atlanır, farklı vektörle gelirse eski satırın yerini alır.
+     * Satır silinmişse {@code null}.
+     */
+    private VectorIndex catchUp(String model, VectorIndex index, CorpusVersion snapshotVersion, CorpusVersion current,
+                                Map<Long, DocumentMetadata> documents) {
+        if (current.count() < snapshotVersion.count()) {
+            System.out.println("ℹ️ Embeddings were removed since the index snapshot, rebuilding");
+            return null;
+        }
+        long first = changeRepository.findFirstId();
+        if (first == 0 ? snapshotVersion.changeSeq() > 0 : first > snapshotVersion.changeSeq() + 1) {
+            System.out.println("ℹ️ Change log was pruned past the index snapshot, rebuilding");
+            return null;
+        }
+
+        Map<Long, Integer> rows = new HashMap<>();
+        for (int row = 0; row < index.size(); row++) rows.put(key(index.docType(row), index.docId(row)), row);
+
+        int appended = 0, changed = 0;
+        for (Object[] row : changeRepository.findModelChangesAfter(snapshotVersion.changeSeq(), model)) {
+            // id, docType, docId, vector
+            DocType type = (DocType) row[1];
+            long docId = (Long) row[2];
+            if (!partition.owns(type, docId)) continue;
+            if (row[3] == null) {
+                System.out.println("ℹ️ Embeddings were removed since the index snapshot, rebuilding");
+                return null;
+            }
+            float[] vector = EmbeddingCodec.fromBytes((byte[]) row[3]);
+            if (!documents.containsKey(key(type, docId))) {
+                appended++; // sayımda var, indekste yok
+                continue;
+            }
+
+            Integer existing = rows.get(key(type, docId));
+            if (existing != null && sameVector(index.vector(existing), EmbeddingCodec.normalize(vector.clone()))) {
+                continue;
+            }
+            VectorIndex next = index.append(type, docId, vector);
+            if (next.size() == index.size()) continue;
+            if (existing != null) next = next.supersede(existing);
+            else appended++;
+            rows.put(key(type, docId), index.size());
+            index = next;
+            changed++;
+        }
+        if (current.count() < snapshotVersion.count() + appended) {
+            System.out.println("ℹ️ Embeddings were removed since the index snapshot, rebuilding");
+            return null;
+        }
+        System.out.printf("⏩ Index snapshot caught up: %d vectors (%d new)%n", changed, appended);
+        return index;
+    }
+
+    private void writeSnapshot(String model, CorpusVersion version, VectorStore store) {
+        if (snapshotPath == null || store.size() == 0) return;
+        try {
+            long start = System.currentTimeMillis();
+            IndexSnapshot.write(snapshotPath, model, version, store);
+            System.out.printf("💾 Index snapshot written to %s in %d ms%n", snapshotPath, System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Could not write index snapshot: " + e.getMessage());
+        }
+    }
+
+    private CorpusVersion corpusVersion(String model) {
+        // Sıra numaraları insert sırasıyla verilir: son gap-timeout içindeki kayıtların gerisinde henüz commit
+        // olmamış daha küçük numaralı bir yazım olabilir. Sürüm onlardan önce durur; catch-up onları tekrar okur
+        // (aynı vektör indekste değişiklik yapmaz).
+        long seq = changeRepository.findLastSettledId(syncGapTimeoutMs);
+        return new CorpusVersion(documentEmbeddingRepository.countByModel(model), seq);
+    }
+
+    private long nextEpoch() {
+        return ++lastEpoch;
+    }
+
+    private static boolean sameVector(float[] a, float[] b) {
+        if (a.length != b.length) return false;
+        for (int i = 0; i < a.length; i++) {
+            if (Math.abs(a[i] - b[i]) > 1e-6f) return false;
+        }
+        return true;
+    }
+
+    private void publish(VectorStore store) {
+        state = withGraph(state.model(), store);
+    }
+
+    private IndexState withGraph(String model, VectorStore store) {
+        return withGraph(model, store, loadAllMetadata());
+    }
+
+    private IndexState withGraph(String model, VectorStore store, Map<Long, DocumentMetadata> documents) {
+        // Snapshot/segmentlerde metni silinmiş dokümanların satırları kalabilir: geçersiz sayılırlar ki
+        // HNSW ve taramalar atlasın, boş filtre de null kalsın
+        List<Integer> orphans = new ArrayList<>();
+        rowsByDoc.clear();
+        for (int row = 0; row < store.size(); row++) {
+            if (!store.isLive(row)) continue;
+            long key = key(store.docType(row), store.docId(row));
+            if (documents.containsKey(key)) rowsByDoc.put(key, row);
+            else orphans.add(row);
+        }
+        if (!orphans.isEmpty()) {
+            int[] rows = orphans.stream().mapToInt(Integer::intValue).toArray();
+            store = store instanceof SegmentedVectorStore segmented ? segmented.supersede(rows)
+                    : ((VectorIndex) store).supersede(rows);
+            System.out.printf("ℹ️ %d indexed vectors have no searchable document, skipped%n", rows.length);
+        }
+
+        HnswIndex hnsw = null;
+        if (defaultMode == RetrievalMode.HNSW) {
+            long start = System.currentTimeMillis();
+            hnsw = HnswIndex.build(store, hnswM, hnswEfConstruction);
+            System.out.printf("🕸️ HNSW graph built (M=%d, efConstruction=%d) in %d ms%n",
+                    hnswM, hnswEfConstruction, System.currentTimeMillis() - start);
+        }
+
+        QuantizedVectors quantized = null;
+        if (defaultMode == RetrievalMode.QUANTIZED) {
+            long start = System.currentTimeMillis();
+            quantized = QuantizedVectors.build(store);
+            double recall = quantized.measureRecall(store, quantizedRecallSample, 5, quantizedRerank, 42L);
+            System.out.printf("🔢 int8 vectors built (%d KB, rerank=%d) in %d ms — recall@5 vs exact: %.3f%n",
+                    quantized.sizeInBytes() / 1024, quantizedRerank, System.currentTimeMillis() - start, recall);
+        }
+        MetadataIndex metadata = MetadataIndex.build(store, (type, id) -> documents.get(key(type, id)));
+        return new IndexState(nextEpoch(), model, store, metadata, hnsw, quantized);
+    }
+
+    /**
+     * Tüm aranabilir dokümanların metadata'sı; anahtarı olmayan doküman indekslenmez.
+     */
+    private Map<Long, DocumentMetadata> loadAllMetadata() {
+        Map<Long, DocumentMetadata> documents = new HashMap<>();
+        documents.putAll(loadMetadata(DocType.PUBLICATION, null));
+        documents.putAll(loadMetadata(DocType.OSDR, null));
+        documents.putAll(loadMetadata(DocType.PASSAGE, null));
+        return documents;
+    }
+
+    /**
+     * Filtre metadata'sını doküman anahtarına göre yükler ({@code ids} null ise tip için hepsi).
+     * Aranabilir metni olmayan dokümanlar sonuçta yer almaz.
+     */
+    private Map<Long, DocumentMetadata> loadMetadata(DocType type, List<Long> ids) {
+        Map<Long, DocumentMetadata> result = new HashMap<>();
+        if (type == DocType.PUBLICATION || type == DocType.PASSAGE) {
+            // Pasajlar yayının tarih ve anahtar kelimelerini miras alır
+            List<Object[]> rows = type == DocType.PASSAGE
+                    ? (ids == null ? passageRepository.findSearchMetadata() : passageRepository.findSearchMetadataByIds(ids))
+                    : (ids == null ? publicationRepository.findSearchMetadata() : publicationRepository.findSearchMetadataByIds(ids));
+            for (Object[] row : rows) {
+                // id, publicationDate, title, keywords
+                result.put(key(type, (Long) row[0]), new DocumentMetadata((LocalDate) row[1], null,
+                        join((String) row[2], (String) row[3])));
+            }
+        } else {
+            List<Object[]> rows = ids == null
+                    ? osdrDatasetRepository.findSearchMetadata()
+                    : osdrDatasetRepository.findSearchMetadataByIds(ids);
+            for (Object[] row : rows) {
+                // id, experimentDate, category, name, description
+                result.put(key(type, (Long) row[0]), new DocumentMetadata((LocalDate) row[1], (String) row[2],
+                        join((String) row[2], join((String) row[3], (String) row[4]))));
+            }
+        }
+        return result;
+    }
+
+    private static String join(String a, String b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a + " " + b;
+    }
+
+    private void addJsonRows(VectorIndex.Builder builder, DocType type, List<Object[]> rows,
+                             Map<Long, DocumentMetadata> documents) {
+        for (Object[] row : rows) {
+            Long id = (Long) row[0];
+            if (!partition.owns(type, id) || !documents.containsKey(key(type, id))) continue;
+            float[] vector = EmbeddingCodec.parseJson((String) row[1]);
+            builder.add(type, id, vector);
+        }
+    }
+
+    private static long key(DocType type, long docId) {
+        return ((long) type.ordinal() << 56) | docId;
+    }
+}
@@ -2,8 +2,19 @@ package com.example.astrogenesis.service;
 
 import com.example.astrogenesis.entity.OSDRDataset;
 import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.entity.PublicationPassage;
 import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.repository.PublicationPassageRepository;
 import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.search.RetrievalMode;
+import com.example.astrogenesis.search.RetrievedDocument;
+import com.example.astrogenesis.search.SearchExecutor;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.search.SearchHit;
+import com.example.astrogenesis.search.ShardedSearchResult;
+import com.example.astrogenesis.search.VectorStore;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -12,142 +23,412 @@ import java.util.stream.Collectors;
 @Service
 public class SemanticSearchService {
 
+    /** Bir makale tekilleştirmesinde istenen limitin en fazla kaç katı hit çekilir (shard işçisi limiti de buna göre). */
+    public static final int MAX_OVERFETCH = 8;
+
     private final PublicationRepository publicationRepository;
     private final OSDRDatasetRepository osdrDatasetRepository;
+    private final PublicationPassageRepository passageRepository;
     private final EmbeddingService embeddingService;
+    private final SemanticIndexService semanticIndexService;
+    private final EmbeddingStore embeddingStore;
+    private final ShardCoordinator shardCoordinator;
 
     public SemanticSearchService(
             PublicationRepository publicationRepository,
             OSDRDatasetRepository osdrDatasetRepository,
-            EmbeddingService embeddingService
+            PublicationPassageRepository passageRepository,
+            EmbeddingService embeddingService,
+            SemanticIndexService semanticIndexService,
+            EmbeddingStore embeddingStore,
+            ShardCoordinator shardCoordinator
     ) {
         this.publicationRepository = publicationRepository;
         this.osdrDatasetRepository = osdrDatasetRepository;
+        this.passageRepository = passageRepository;
         this.embeddingService = embeddingService;
+        this.semanticIndexService = semanticIndexService;
+        this.embeddingStore = embeddingStore;
+        this.shardCoordinator = shardCoordinator;
     }
 
     /**
      * Kullanıcı sorgusuna göre en benzer metinleri bulur (RAG için)
      */
     public List<String> findRelevantTexts(String query, int limit) {
+        return findRelevantTexts(query, limit, semanticIndexService.defaultMode());
+    }
+
+    /**
+     * Seçilen arama yöntemiyle en benzer metinleri
+     * {@code "[source] title ||| text ||| LINK:..."} biçiminde döner.
+     * Yeni kod {@link #findRelevantDocuments} kullanmalı.
+     */
+    public List<String> findRelevantTexts(String query, int limit, RetrievalMode mode) {
+        return retrieve(query, limit, mode, semanticIndexService.defaultExecutor(), SearchFilter.none()).stream()
+                .map(SemanticSearchService::toLegacyText)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * En benzer dokümanları metadata'larıyla birlikte, skora göre azalan sırada döner.
+     * Bir makaleden (özet veya pasajları) sadece en iyi skorlu sonuç gelir; RAG bağlamı tek makaleyle dolmaz.
+     */
+    public List<RetrievedDocument> findRelevantDocuments(String query, int limit) {
+        return findRelevantDocuments(query, limit, SearchFilter.none());
+    }
+
+    /**
+     * Filtreli arama: örn. sadece 2018 sonrası, "ISS" geçen OSDR dataset'leri.
+     */
+    public List<RetrievedDocument> findRelevantDocuments(String query, int limit, SearchFilter filter) {
+        return retrieve(query, limit, semanticIndexService.defaultMode(), semanticIndexService.defaultExecutor(), filter);
+    }
+
+    /**
+     * Makale başına en iyi sonuçla {@code limit} doküman toplanana kadar aramayı genişletir (limit'in 2, 4, 8 katı).
+     * State ve sorgu vektörü bir kez alınır; her tur sadece daha büyük bir top-k ister ve önceki turlarda
+     * yüklenmemiş hit'leri veritabanından okur. İndeks daha az sonuç verirse elde olanla döner.
+     */
+    private List<RetrievedDocument> retrieve(String query, int limit, RetrievalMode mode, SearchExecutor executor,
+                                             SearchFilter filter) {
+        if (limit <= 0) return Collections.emptyList();
         System.out.println("🔎 Running semantic search for: " + query);
 
-        String queryEmbeddingJson = embeddingService.generateEmbedding(query);
-        if (queryEmbeddingJson == null) {
+        SemanticIndexService.IndexState state = shardCoordinator.isEnabled() ? null : semanticIndexService.state();
+        String model = state != null ? state.model() : embeddingStore.model();
+        float[] queryEmbedding = embeddingService.embedQuery(query, model);
+        if (queryEmbedding == null) {
             System.err.println("⚠️ Query embedding could not be generated.");
             return Collections.emptyList();
         }
 
-        List<Double> queryEmbedding = parseEmbedding(queryEmbeddingJson);
+        Set<String> seen = new HashSet<>();
+        Map<String, PaperDocument> loaded = new HashMap<>();
+        int fetch = limit * 2;
+        while (true) {
+            List<SearchHit> hits = state != null
+                    ? searchIndex(state, queryEmbedding, fetch, mode, executor, filter)
+                    : searchShards(queryEmbedding, model, fetch, mode, filter).hits();
+
+            List<SearchHit> fresh = new ArrayList<>();
+            for (SearchHit hit : hits) {
+                if (seen.add(key(hit))) fresh.add(hit);
+            }
+            for (PaperDocument document : loadPapers(fresh)) loaded.put(key(document.document().hit()), document);
+
+            List<PaperDocument> ranked = new ArrayList<>(hits.size());
+            for (SearchHit hit : hits) {
+                PaperDocument document = loaded.get(key(hit));
+                if (document != null) ranked.add(document);
+            }
+            List<RetrievedDocument> documents = onePerPaper(ranked, limit);
+            if (documents.size() >= limit || hits.size() < fetch || fetch >= limit * MAX_OVERFETCH) {
+                return documents;
+            }
+            fetch *= 2;
+        }
+    }
+
+    private static String key(SearchHit hit) {
+        return hit.type() + ":" + hit.id();
+    }
 
-        // 1️⃣ Tüm kayıtları çek
-        List<Publication> publications = publicationRepository.findAll();
-        List<OSDRDataset> datasets = osdrDatasetRepository.findAll();
+    /**
+     * Sadece indeks üzerinde arar; veritabanına gidilmez.
+     * Sonuçlar skora göre azalan sıradadır.
+     */
+    public List<SearchHit> search(String query, int limit, RetrievalMode mode) {
+        return search(query, limit, mode, semanticIndexService.defaultExecutor());
+    }
 
-        List<ScoredText> allTexts = new ArrayList<>();
+    /**
+     * Kesin taramanın seri veya paralel (fork/join) çalışacağını da seçerek arar.
+     */
+    public List<SearchHit> search(String query, int limit, RetrievalMode mode, SearchExecutor executor) {
+        return search(query, limit, mode, executor, SearchFilter.none());
+    }
+
+    /**
+     * Sadece {@code filter}'ı geçen dokümanlar arasında arar (filtre skorlamadan önce uygulanır).
+     * {@code search.shard.workers} ayarlıysa arama işçi süreçlere dağıtılır; cevap vermeyen parça olursa
+     * eldeki sonuçlar uyarıyla döner.
+     */
+    public List<SearchHit> search(String query, int limit, RetrievalMode mode, SearchExecutor executor,
+                                  SearchFilter filter) {
+        if (shardCoordinator.isEnabled()) {
+            return searchShards(query, limit, mode, filter).hits();
+        }
+
+        System.out.println("🔎 Running semantic search for: " + query);
+        if (limit <= 0) return Collections.emptyList();
 
-        // 2️⃣ Publication skorlarını hesapla
-        for (Publication pub : publications) {
-            if (pub.getEmbeddingVector() == null) continue;
+        // Önce state: sorgu, indeksin ait olduğu modelle embed edilir (model geçişinde ikisi birlikte değişir)
+        SemanticIndexService.IndexState state = semanticIndexService.state();
+        float[] queryEmbedding = embeddingService.embedQuery(query, state.model());
+        if (queryEmbedding == null) {
+            System.err.println("⚠️ Query embedding could not be generated.");
+            return Collections.emptyList();
+        }
 
-            List<Double> emb = parseEmbedding(pub.getEmbeddingVector());
-            double score = cosineSimilarity(queryEmbedding, emb);
+        return searchIndex(state, queryEmbedding, limit, mode, executor, filter);
+    }
 
-            String content = (pub.getSummary() != null && !pub.getSummary().isBlank())
-                    ? pub.getSummary()
-                    : pub.getContent();
+    /**
+     * Koordinatör olarak: sorguyu bir kez embed eder, tüm işçilere gönderir ve birleştirir.
+     * Sonuç hangi parçaların cevap vermediğini de taşır.
+     */
+    public ShardedSearchResult searchShards(String query, int limit, RetrievalMode mode, SearchFilter filter) {
+        System.out.printf("🔎 Running sharded semantic search over %d workers for: %s%n",
+                shardCoordinator.workers().size(), query);
+        String model = embeddingStore.model();
+        float[] queryEmbedding = embeddingService.embedQuery(query, model);
+        if (queryEmbedding == null) {
+            System.err.println("⚠️ Query embedding could not be generated.");
+            return new ShardedSearchResult(Collections.emptyList(), shardCoordinator.workers().size(), List.of());
+        }
 
-            if (content != null && !content.isBlank()) {
-                allTexts.add(new ScoredText(
-                        pub.getTitle(),
-                        content,
-                        score,
-                        "Publication",
-                        pub.getLink(),
-                        pub.getDoi(),
-                        null, // OSDR için null
-                        pub.getImageUrls() // Image URLs
-                ));
-            }
+        return searchShards(queryEmbedding, model, limit, mode, filter);
+    }
+
+    private ShardedSearchResult searchShards(float[] queryEmbedding, String model, int limit, RetrievalMode mode,
+                                             SearchFilter filter) {
+        ShardedSearchResult result = shardCoordinator.search(queryEmbedding, model, limit, mode, filter);
+        if (result.isPartial()) {
+            System.err.printf("⚠️ Partial search result: %d/%d shards answered (%s)%n",
+                    result.answeredShards(), result.shards(), String.join("; ", result.failedShards()));
         }
+        return result;
+    }
 
-        // 3️⃣ OSDR Dataset skorlarını hesapla
-        for (OSDRDataset ds : datasets) {
-            if (ds.getEmbeddingVector() == null) continue;
-
-            List<Double> emb = parseEmbedding(ds.getEmbeddingVector());
-            double score = cosineSimilarity(queryEmbedding, emb);
-
-            if (ds.getDescription() != null && !ds.getDescription().isBlank()) {
-                allTexts.add(new ScoredText(
-                        ds.getName(),
-                        ds.getDescription(),
-                        score,
-                        "OSDR",
-                        ds.getLink(), // OSDR link
-                        ds.getDoi(), // OSDR DOI
-                        ds.getName(), // OSDR ID (name field contains the OSDR ID like "OSD-123")
-                        null // OSDR datasets don't have images in this implementation
-                ));
+    /**
+     * Hazır (normalize) sorgu vektörüyle verilen state üzerinde arar; işçi uç noktası da bunu kullanır.
+     */
+    public List<SearchHit> searchIndex(SemanticIndexService.IndexState state, float[] queryEmbedding, int limit,
+                                       RetrievalMode mode, SearchExecutor executor, SearchFilter filter) {
+        if (limit <= 0) return Collections.emptyList();
+
+        VectorStore index = state.vectors();
+        int[] rows = new int[limit];
+        float[] scores = new float[limit];
+        int found = semanticIndexService.search(state, queryEmbedding, mode, executor, filter, rows, scores);
+
+        List<SearchHit> hits = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            hits.add(new SearchHit(index.docId(rows[i]), index.docType(rows[i]), scores[i]));
+        }
+        return hits;
+    }
+
+    /**
+     * Çok sorgulu arama: tüm sorgular tek API çağrısıyla embed edilir ve indeks tek geçişte skorlanır.
+     * Sonuç listesi sorgu sırasıyla döner; embed edilemeyen sorgunun listesi boştur.
+     */
+    public List<List<SearchHit>> searchBatch(List<String> queries, int limit, SearchFilter filter) {
+        System.out.println("🔎 Running batch semantic search for " + queries.size() + " queries");
+        List<List<SearchHit>> results = new ArrayList<>(queries.size());
+        if (limit <= 0 || queries.isEmpty()) {
+            queries.forEach(q -> results.add(Collections.emptyList()));
+            return results;
+        }
+        if (shardCoordinator.isEnabled()) {
+            // İşçi protokolü tek vektör alır; sorgular tek tek dağıtılır
+            for (String query : queries) {
+                results.add(searchShards(query, limit, semanticIndexService.defaultMode(), filter).hits());
             }
+            return results;
         }
 
-        // 4️⃣ En yüksek skorları sırala
-        return allTexts.stream()
-                .sorted(Comparator.comparingDouble(ScoredText::score).reversed())
-                .limit(limit)
-                .map(t -> {
-                    StringBuilder sb = new StringBuilder();
-                    sb.append("[").append(t.source).append("] ").append(t.title).append(" ||| ");
-                    sb.append(t.text);
-
-                    // Add metadata
-                    if (t.link != null && !t.link.isBlank()) {
-                        sb.append(" ||| LINK:").append(t.link);
-                    }
-                    if (t.doi != null && !t.doi.isBlank()) {
-                        sb.append(" ||| DOI:").append(t.doi);
-                    }
-                    if (t.osdrId != null && !t.osdrId.isBlank()) {
-                        sb.append(" ||| OSDR_ID:").append(t.osdrId);
-                    }
-                    if (t.imageUrls != null && !t.imageUrls.isBlank()) {
-                        sb.append(" ||| IMAGES:").append(t.imageUrls);
-                    }
-
-                    return sb.toString();
-                })
-                .collect(Collectors.toList());
+        SemanticIndexService.IndexState state = semanticIndexService.state();
+        List<float[]> embeddings = embeddingService.generateEmbeddings(queries, state.model());
+
+        float[][] vectors = new float[queries.size()][];
+        int[][] rows = new int[queries.size()][];
+        float[][] scores = new float[queries.size()][];
+        for (int q = 0; q < vectors.length; q++) {
+            float[] embedding = embeddings.get(q);
+            vectors[q] = embedding != null && embedding.length > 0 ? EmbeddingCodec.normalize(embedding) : null;
+            rows[q] = new int[limit];
+            scores[q] = new float[limit];
+        }
+
+        long start = System.currentTimeMillis();
+        int[] found = semanticIndexService.searchBatch(state, vectors, semanticIndexService.defaultMode(), filter,
+                rows, scores);
+        System.out.printf("📊 Scored %d queries against %d vectors in %d ms%n",
+                queries.size(), state.vectors().size(), System.currentTimeMillis() - start);
+
+        VectorStore index = state.vectors();
+        for (int q = 0; q < vectors.length; q++) {
+            List<SearchHit> hits = new ArrayList<>(found[q]);
+            for (int i = 0; i < found[q]; i++) {
+                hits.add(new SearchHit(index.docId(rows[q][i]), index.docType(rows[q][i]), scores[q][i]));
+            }
+            results.add(hits);
+        }
+        return results;
     }
 
-    // --- 🔧 Yardımcı metodlar ---
+    /**
+     * {@link #searchBatch} sonuçlarını metadata'larıyla döner; tüm sorguların dokümanları tek seferde yüklenir.
+     * Tekli aramadaki gibi makale başına en iyi sonuç tutulur; genişletme tek turdur (limit'in iki katı hit).
+     */
+    public List<List<RetrievedDocument>> findRelevantDocuments(List<String> queries, int limit, SearchFilter filter) {
+        List<List<SearchHit>> hits = searchBatch(queries, limit * 2, filter);
+
+        LinkedHashMap<String, SearchHit> unique = new LinkedHashMap<>();
+        for (List<SearchHit> list : hits) {
+            for (SearchHit hit : list) unique.putIfAbsent(key(hit), hit);
+        }
+        Map<String, PaperDocument> documents = new HashMap<>();
+        for (PaperDocument loaded : loadPapers(new ArrayList<>(unique.values()))) {
+            RetrievedDocument document = loaded.document();
+            documents.put(key(document.hit()), loaded);
+        }
 
-    private List<Double> parseEmbedding(String json) {
-        try {
-            json = json.replace("[", "").replace("]", "");
-            String[] parts = json.split(",");
-            List<Double> values = new ArrayList<>();
-            for (String p : parts) {
-                values.add(Double.parseDouble(p.trim()));
+        List<List<RetrievedDocument>> results = new ArrayList<>(hits.size());
+        for (List<SearchHit> list : hits) {
+            List<PaperDocument> perQuery = new ArrayList<>(list.size());
+            for (SearchHit hit : list) {
+                PaperDocument loaded = documents.get(key(hit));
+                if (loaded != null) {
+                    RetrievedDocument d = loaded.document();
+                    perQuery.add(new PaperDocument(new RetrievedDocument(hit, d.title(), d.text(), d.link(), d.doi(),
+                            d.osdrId(), d.imageUrls(), d.section()), loaded.paper()));
+                }
             }
-            return values;
-        } catch (Exception e) {
-            return Collections.emptyList();
+            results.add(onePerPaper(perQuery, limit));
+        }
+        return results;
+    }
+
+    /**
+     * Yüklenmiş doküman ve ait olduğu makalenin anahtarı (pasaj ve özet aynı anahtarı paylaşır).
+     */
+    private record PaperDocument(RetrievedDocument document, String paper) {}
+
+    private static List<RetrievedDocument> onePerPaper(List<PaperDocument> loaded, int limit) {
+        Set<String> papers = new HashSet<>();
+        List<RetrievedDocument> documents = new ArrayList<>(Math.min(limit, loaded.size()));
+        for (PaperDocument candidate : loaded) {
+            if (documents.size() >= limit) break;
+            if (papers.add(candidate.paper())) documents.add(candidate.document());
         }
+        return documents;
     }
 
-    private double cosineSimilarity(List<Double> v1, List<Double> v2) {
-        if (v1.isEmpty() || v2.isEmpty() || v1.size() != v2.size()) return 0.0;
+    /**
+     * Verilen sonuçların metin ve metadata'sını tek sorguda (tip başına) yükler; sıra korunur.
+     * Silinmiş veya metni boş olan dokümanlar atlanır (indeks bunları zaten dışarıda tutar; bu sadece
+     * indeks kurulduktan sonra değişen satırlar için).
+     */
+    public List<RetrievedDocument> load(List<SearchHit> hits) {
+        return loadPapers(hits).stream().map(PaperDocument::document).collect(Collectors.toList());
+    }
+
+    private List<PaperDocument> loadPapers(List<SearchHit> hits) {
+        if (hits.isEmpty()) return Collections.emptyList();
+
+        Set<Long> publicationIds = new HashSet<>();
+        List<Long> datasetIds = new ArrayList<>();
+        List<Long> passageIds = new ArrayList<>();
+        for (SearchHit hit : hits) {
+            switch (hit.type()) {
+                case PUBLICATION -> publicationIds.add(hit.id());
+                case OSDR -> datasetIds.add(hit.id());
+                case PASSAGE -> passageIds.add(hit.id());
+            }
+        }
+        // Pasajların yayınları (başlık, link, DOI) diğer yayınlarla aynı sorguda yüklenir
+        Map<Long, PublicationPassage> passages = passageIds.isEmpty() ? Map.of()
+                : passageRepository.findAllById(passageIds).stream()
+                        .collect(Collectors.toMap(PublicationPassage::getId, p -> p));
+        for (PublicationPassage passage : passages.values()) publicationIds.add(passage.getPublicationId());
+        Map<Long, Publication> publications = publicationIds.isEmpty() ? Map.of()
+                : publicationRepository.findAllById(publicationIds).stream()
+                        .collect(Collectors.toMap(Publication::getId, p -> p));
+        Map<Long, OSDRDataset> datasets = datasetIds.isEmpty() ? Map.of()
+                : osdrDatasetRepository.findAllById(datasetIds).stream()
+                        .collect(Collectors.toMap(OSDRDataset::getId, d -> d));
+
+        List<PaperDocument> documents = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            if (hit.type() == DocType.PUBLICATION) {
+                Publication pub = publications.get(hit.id());
+                if (pub == null) continue;
 
-        double dot = 0.0, norm1 = 0.0, norm2 = 0.0;
-        for (int i = 0; i < v1.size(); i++) {
-            dot += v1.get(i) * v2.get(i);
-            norm1 += v1.get(i) * v1.get(i);
-            norm2 += v2.get(i) * v2.get(i);
+                String content = (pub.getSummary() != null && !pub.getSummary().isBlank())
+                        ? pub.getSummary()
+                        : pub.getContent();
+
+                if (content != null && !content.isBlank()) {
+                    documents.add(new PaperDocument(new RetrievedDocument(
+                            hit,
+                            pub.getTitle(),
+                            content,
+                            pub.getLink(),
+                            pub.getDoi(),
+                            null, // OSDR için null
+                            pub.getImageUrls(), // Image URLs
+                            null
+                    ), "publication:" + pub.getId()));
+                }
+            } else if (hit.type() == DocType.PASSAGE) {
+                PublicationPassage passage = passages.get(hit.id());
+                Publication pub = passage != null ? publications.get(passage.getPublicationId()) : null;
+                if (pub == null) continue;
+
+                documents.add(new PaperDocument(new RetrievedDocument(
+                        hit,
+                        pub.getTitle(),
+                        passage.getText(), // tüm content yerine sadece eşleşen pasaj
+                        pub.getLink(),
+                        pub.getDoi(),
+                        null,
+                        pub.getImageUrls(),
+                        passage.getSection().label()
+                ), "publication:" + pub.getId()));
+            } else {
+                OSDRDataset ds = datasets.get(hit.id());
+                if (ds == null) continue;
+
+                if (ds.getDescription() != null && !ds.getDescription().isBlank()) {
+                    documents.add(new PaperDocument(new RetrievedDocument(
+                            hit,
+                            ds.getName(),
+                            ds.getDescription(),
+                            ds.getLink(), // OSDR link
+                            ds.getDoi(), // OSDR DOI
+                            ds.getName(), // OSDR ID (name field contains the OSDR ID like "OSD-123")
+                            null, // OSDR datasets don't have images in this implementation
+                            null
+                    ), "osdr:" + ds.getId()));
+                }
+            }
         }
-        return dot / (Math.sqrt(norm1) * Math.sqrt(norm2) + 1e-8);
+        return documents;
     }
 
-    private record ScoredText(String title, String text, double score, String source,
-                              String link, String doi, String osdrId, String imageUrls) {}
+    private static String toLegacyText(RetrievedDocument t) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("[").append(t.source()).append("] ").append(t.title());
+        if (t.section() != null) sb.append(" (").append(t.section()).append(")");
+        sb.append(" ||| ");
+        sb.append(t.text());
+
+        // Add metadata
+        if (t.link() != null && !t.link().isBlank()) {
+            sb.append(" ||| LINK:").append(t.link());
+        }
+        if (t.doi() != null && !t.doi().isBlank()) {
+            sb.append(" ||| DOI:").append(t.doi());
+        }
+        if (t.osdrId() != null && !t.osdrId().isBlank()) {
+            sb.append(" ||| OSDR_ID:").append(t.osdrId());
+        }
+        if (t.imageUrls() != null && !t.imageUrls().isBlank()) {
+            sb.append(" ||| IMAGES:").append(t.imageUrls());
+        }
+        return sb.toString();
+    }
 }
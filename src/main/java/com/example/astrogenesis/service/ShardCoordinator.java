@@ -0,0 +1,147 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.RetrievalMode;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.search.SearchHit;
+import com.example.astrogenesis.search.ShardedSearchResult;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Scatter-gather koordinatörü: {@code search.shard.workers} listesindeki her işçiye
+ * ({@code POST /shard/search}, bkz. {@code ShardController}) aynı normalize sorgu vektörünü paralel gönderir,
+ * her birinin top-k'sını skora göre birleştirir.
+ * <p>
+ * Her işçi {@code search.shard.timeout-ms} içinde cevap vermelidir; vermeyen, hata dönen veya farklı
+ * modelle indekslenmiş işçiler atlanır ve {@link ShardedSearchResult#failedShards} içinde raporlanır.
+ * İşçi listesi boşsa koordinatör kapalıdır ve arama yerel indeksten yapılır.
+ */
+@Service
+public class ShardCoordinator {
+
+    private final List<String> workers;
+    private final Duration timeout;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+
+    public ShardCoordinator(@Value("${search.shard.workers:}") String workers,
+                            @Value("${search.shard.timeout-ms:2000}") long timeoutMs) {
+        this.workers = Arrays.stream(workers.split(","))
+                .map(String::trim)
+                .filter(w -> !w.isEmpty())
+                .map(w -> w.endsWith("/") ? w.substring(0, w.length() - 1) : w)
+                .toList();
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1) // işçiler düz HTTP; h2c upgrade turu gereksiz
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return !workers.isEmpty();
+    }
+
+    public List<String> workers() {
+        return workers;
+    }
+
+    /**
+     * Tüm işçilere sorar ve cevap verenlerin sonuçlarını birleştirir; en fazla {@code timeout} bekler.
+     *
+     * @param query normalize edilmiş sorgu vektörü ({@code model} ile üretilmiş)
+     */
+    public ShardedSearchResult search(float[] query, String model, int limit, RetrievalMode mode,
+                                      SearchFilter filter) {
+        if (limit <= 0 || workers.isEmpty()) {
+            return new ShardedSearchResult(Collections.emptyList(), workers.size(), List.of());
+        }
+
+        String body;
+        try {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("vector", query);
+            payload.put("model", model);
+            payload.put("limit", limit);
+            payload.put("mode", mode.name());
+            payload.put("filter", filter.toParams());
+            body = objectMapper.writeValueAsString(payload);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not encode shard request", e);
+        }
+
+        List<CompletableFuture<List<SearchHit>>> calls = new ArrayList<>(workers.size());
+        for (String worker : workers) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(worker + "/shard/search"))
+                    .timeout(timeout)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build();
+            calls.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> parse(response, model))
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        List<SearchHit> merged = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
+        for (int i = 0; i < calls.size(); i++) {
+            try {
+                merged.addAll(calls.get(i).join());
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                String reason = cause instanceof TimeoutException || cause instanceof HttpTimeoutException
+                        ? "timeout after " + timeout.toMillis() + " ms"
+                        : cause.getMessage();
+                failed.add(workers.get(i) + " → " + reason);
+            }
+        }
+
+        // Parçalar ayrık; her biri kendi top-k'sını döndüğü için birleşimin top-k'sı küresel top-k'dır
+        merged.sort(Comparator.comparingDouble(SearchHit::score).reversed());
+        List<SearchHit> hits = merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+        return new ShardedSearchResult(hits, workers.size(), failed);
+    }
+
+    private List<SearchHit> parse(HttpResponse<String> response, String model) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("HTTP " + response.statusCode());
+        }
+        try {
+            JsonNode root = objectMapper.readTree(response.body());
+            if (!model.equals(root.path("model").asText())) {
+                throw new IllegalStateException("shard indexed with " + root.path("model").asText());
+            }
+            List<SearchHit> hits = new ArrayList<>();
+            for (JsonNode hit : root.path("hits")) {
+                hits.add(new SearchHit(hit.path("id").asLong(), DocType.valueOf(hit.path("type").asText()),
+                        (float) hit.path("score").asDouble()));
+            }
+            return hits;
+        } catch (IllegalStateException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("invalid shard response: " + e.getMessage(), e);
+        }
+    }
+}
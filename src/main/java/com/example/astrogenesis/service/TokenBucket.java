@@ -0,0 +1,118 @@
+package com.example.astrogenesis.service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.LongSupplier;
+
+/**
+ * Sağlayıcının izin verdiği hıza kendini ayarlayan token bucket (AIMD).
+ * <p>
+ * Her istek bir token harcar; token'lar {@link #rate()} hızında, en fazla {@code burst} kadar birikir.
+ * Başarılı her yanıt hızı {@code maxRate}'e kadar sabit adımla artırır; 429/503 hızı yarıya indirir,
+ * biriken token'ları siler ve {@code Retry-After} süresince yeni isteği durdurur.
+ */
+public class TokenBucket {
+
+    private final double minRate;
+    private final double maxRate;
+    private final double step;
+    private final double burst;
+    private final LongSupplier nanoTime;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+    private long pausedUntil;
+
+    public TokenBucket(double initialRate, double maxRate, int burst) {
+        this(initialRate, maxRate, burst, System::nanoTime);
+    }
+
+    TokenBucket(double initialRate, double maxRate, int burst, LongSupplier nanoTime) {
+        if (initialRate <= 0 || maxRate < initialRate) {
+            throw new IllegalArgumentException("Invalid rate " + initialRate + " (max " + maxRate + ")");
+        }
+        this.maxRate = maxRate;
+        this.minRate = Math.min(initialRate, 0.1);
+        this.step = initialRate / 10;
+        this.burst = Math.max(1, burst);
+        this.nanoTime = nanoTime;
+        this.rate = initialRate;
+        this.tokens = this.burst;
+        this.lastRefill = nanoTime.getAsLong();
+        this.pausedUntil = lastRefill;
+    }
+
+    /**
+     * Bir token alana kadar bekler.
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            Thread.sleep(Math.max(1, waitNanos / 1_000_000));
+        }
+    }
+
+    /**
+     * Token varsa alır ve 0 döner; yoksa bir sonraki token'a kadar beklenecek nanosaniye.
+     */
+    public synchronized long tryAcquire() {
+        long now = nanoTime.getAsLong();
+        if (now < pausedUntil) return pausedUntil - now;
+
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / rate * 1e9);
+    }
+
+    public synchronized void onSuccess() {
+        rate = Math.min(maxRate, rate + step);
+    }
+
+    /**
+     * 429/503: hız yarıya iner; {@code retryAfter} varsa o süre boyunca, yoksa bir token süresi kadar durulur.
+     */
+    public synchronized void onThrottle(Duration retryAfter) {
+        long now = nanoTime.getAsLong();
+        refill(now);
+        rate = Math.max(minRate, rate / 2);
+        tokens = 0;
+        long pause = retryAfter != null ? retryAfter.toNanos() : (long) (1e9 / rate);
+        pausedUntil = Math.max(pausedUntil, now + pause);
+        lastRefill = Math.max(lastRefill, pausedUntil);
+    }
+
+    public synchronized double rate() {
+        return rate;
+    }
+
+    private void refill(long now) {
+        if (now > lastRefill) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) / 1e9 * rate);
+            lastRefill = now;
+        }
+    }
+
+    /**
+     * {@code Retry-After} başlığı: saniye veya HTTP tarihi; yoksa/okunamazsa {@code null}.
+     */
+    public static Duration parseRetryAfter(String header, ZonedDateTime now) {
+        if (header == null || header.isBlank()) return null;
+        String value = header.trim();
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value)));
+        } catch (NumberFormatException ignored) {
+            // HTTP tarihi olabilir
+        }
+        try {
+            Duration until = Duration.between(now, ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME));
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.OSDRDataset;
+import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.service.EmbeddingStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.astrogenesis.repository.RepositoryFixtures.legacyPublication;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Backfill sorguları ve toplu yazım H2 üzerinde.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(EmbeddingStore.class)
+class EmbeddingBackfillRepositoryTest {
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    @Autowired
+    private OSDRDatasetRepository datasetRepository;
+
+    @Autowired
+    private DocumentEmbeddingRepository embeddingRepository;
+
+    @Autowired
+    private EmbeddingChangeRepository changeRepository;
+
+    @Autowired
+    private EmbeddingStore embeddingStore;
+
+    @Test
+    void pagesThroughUnembeddedRowsAndWritesThemInOneBatch() {
+        Publication legacy = legacyPublication(publicationRepository, "Legacy JSON", "[0.1, 0.2]");
+        Publication first = legacyPublication(publicationRepository, "First", null);
+        Publication second = legacyPublication(publicationRepository, "Second", null);
+        Publication third = legacyPublication(publicationRepository, "Third", null);
+        embeddingStore.save(DocType.PUBLICATION, third.getId(), "m", new float[]{1f, 0f});
+
+        List<Object[]> page = publicationRepository.findUnembedded(0L, "m", PageRequest.of(0, 1));
+        assertEquals(List.of(first.getId()), page.stream().map(r -> (Long) r[0]).toList());
+        assertEquals("First summary", page.get(0)[1]);
+        assertEquals("First", page.get(0)[2]);
+        List<Object[]> next = publicationRepository.findUnembedded(first.getId(), "m", PageRequest.of(0, 10));
+        assertEquals(List.of(second.getId()), next.stream().map(r -> (Long) r[0]).toList());
+        assertNotEquals(legacy.getId(), next.get(0)[0]);
+
+        Map<Long, float[]> vectors = new LinkedHashMap<>();
+        vectors.put(first.getId(), new float[]{0f, 1f});
+        vectors.put(third.getId(), new float[]{0.6f, 0.8f}); // mevcut satır güncellenir
+        long changesBefore = changeRepository.count();
+        embeddingStore.saveAll(DocType.PUBLICATION, "m", vectors);
+
+        assertEquals(2, embeddingRepository.findDocIds(DocType.PUBLICATION, "m").size());
+        assertEquals(changesBefore + 2, changeRepository.count());
+        assertEquals(List.of(second.getId()), publicationRepository.findUnembedded(0L, "m", PageRequest.of(0, 10))
+                .stream().map(r -> (Long) r[0]).toList());
+
+        OSDRDataset dataset = new OSDRDataset();
+        dataset.setName("OSD-1");
+        datasetRepository.save(dataset);
+        List<Object[]> datasets = datasetRepository.findUnembedded(0L, "m", PageRequest.of(0, 10));
+        assertEquals(1, datasets.size());
+        assertNull(datasets.get(0)[1]);
+        assertEquals("OSD-1", datasets.get(0)[2]);
+    }
+
+    @Test
+    void blankLegacyJsonCountsAsMissing() {
+        Publication blank = legacyPublication(publicationRepository, "Blank JSON", "  ");
+        Publication empty = legacyPublication(publicationRepository, "Empty JSON", "");
+
+        assertEquals(List.of(blank.getId(), empty.getId()), publicationRepository.findUnembedded(0L, "m", PageRequest.of(0, 10))
+                .stream().map(r -> (Long) r[0]).toList());
+
+        OSDRDataset dataset = new OSDRDataset();
+        dataset.setName("OSD-2");
+        dataset.setEmbeddingVector(" ");
+        datasetRepository.save(dataset);
+        assertEquals(1, datasetRepository.findUnembedded(0L, "m", PageRequest.of(0, 10)).size());
+    }
+}
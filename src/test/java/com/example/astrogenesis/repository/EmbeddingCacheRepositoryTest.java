@@ -0,0 +1,56 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.service.EmbeddingCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Önbellek tablosu H2 üzerinde: yeni bir örnek (boş bellek) tablodan okuyabilmeli.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(EmbeddingCache.class)
+class EmbeddingCacheRepositoryTest {
+
+    @Autowired
+    private EmbeddingCacheRepository repository;
+
+    @Autowired
+    private EmbeddingCache cache;
+
+    @Test
+    void vectorsAreSharedThroughTheTableAndKeyedByModel() {
+        String bone = EmbeddingCache.key("bone loss in microgravity");
+        String plant = EmbeddingCache.key("plant growth on the ISS");
+        assertEquals(64, bone.length());
+        assertEquals(bone, EmbeddingCache.key("bone loss in microgravity"));
+
+        cache.putAll("m", Map.of(bone, new float[]{0.6f, 0.8f}));
+        cache.putAll("m", Map.of(bone, new float[]{0.6f, 0.8f})); // tekrar yazım yok sayılır
+        assertEquals(1, repository.count());
+
+        EmbeddingCache restarted = new EmbeddingCache(repository, true, 100);
+        Map<String, float[]> found = restarted.getAll("m", List.of(bone, plant));
+        assertEquals(1, found.size());
+        assertArrayEquals(new float[]{0.6f, 0.8f}, found.get(bone));
+        assertEquals(1, restarted.hits());
+        assertEquals(1, restarted.misses());
+        assertTrue(restarted.getAll("other-model", List.of(bone)).isEmpty());
+
+        // Dönen dizi kopya: çağıranın normalize etmesi önbelleği bozmamalı
+        found.get(bone)[0] = 42f;
+        assertEquals(0.6f, restarted.getAll("m", List.of(bone)).get(bone)[0]);
+
+        // Partide tabloda olanlar atlanır, kalanlar birlikte yazılır
+        restarted.putAll("m", Map.of(bone, new float[]{0.6f, 0.8f}, plant, new float[]{1f, 0f}));
+        assertEquals(2, repository.count());
+    }
+}
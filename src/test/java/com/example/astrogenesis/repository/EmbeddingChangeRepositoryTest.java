@@ -0,0 +1,84 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.service.EmbeddingStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Change-log sorguları H2 üzerinde (Postgres'e özgü bir şey kullanılmamalı).
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(EmbeddingStore.class)
+class EmbeddingChangeRepositoryTest {
+
+    @Autowired
+    private EmbeddingStore embeddingStore;
+
+    @Autowired
+    private EmbeddingChangeRepository changeRepository;
+
+    @Test
+    void everyWriteAppendsAnIncreasingSequenceWithTheLatestVector() {
+        long start = changeRepository.findLastId();
+
+        embeddingStore.save(DocType.PUBLICATION, 1L, "m", new float[]{1f, 0f});
+        embeddingStore.save(DocType.OSDR, 2L, "m", new float[]{0f, 1f});
+        embeddingStore.save(DocType.PUBLICATION, 1L, "m", new float[]{0.5f, 0.5f}); // güncelleme
+
+        List<Object[]> changes = changeRepository.findChangesAfter(start, 60_000, PageRequest.of(0, 10));
+        assertEquals(3, changes.size());
+        assertEquals(true, changes.get(0)[1]); // veritabanı saatine göre yeni
+        assertEquals(false, changeRepository.findChangesAfter(start, -60_000, PageRequest.of(0, 10)).get(0)[1]);
+        assertTrue((Long) changes.get(0)[0] < (Long) changes.get(1)[0]);
+        assertTrue((Long) changes.get(1)[0] < (Long) changes.get(2)[0]);
+        assertEquals(DocType.OSDR, changes.get(1)[2]);
+        assertEquals("m", changes.get(1)[4]);
+        // Her kayıt dokümanın güncel vektörünü getirir
+        assertArrayEquals(new float[]{0.5f, 0.5f}, EmbeddingCodec.fromBytes((byte[]) changes.get(0)[5]));
+
+        long last = (Long) changes.get(2)[0];
+        assertEquals(last, changeRepository.findLastId());
+        assertTrue(changeRepository.findChangesAfter(last, 60_000, PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void snapshotCatchUpReadsOneModelBySequenceNotByTime() {
+        long start = changeRepository.findLastId();
+
+        embeddingStore.save(DocType.PUBLICATION, 4L, "m", new float[]{1f, 0f});
+        embeddingStore.save(DocType.PUBLICATION, 4L, "other", new float[]{0f, 1f});
+        embeddingStore.save(DocType.OSDR, 5L, "m", new float[]{0f, 1f});
+
+        // Aynı anda yazılmış kayıtlar da sıra numarasıyla ayrışır
+        List<Object[]> changes = changeRepository.findModelChangesAfter(start, "m");
+        assertEquals(2, changes.size());
+        assertEquals(4L, changes.get(0)[2]);
+        assertEquals(DocType.OSDR, changes.get(1)[1]);
+        assertArrayEquals(new float[]{0f, 1f}, EmbeddingCodec.fromBytes((byte[]) changes.get(1)[3]));
+        assertTrue(changeRepository.findModelChangesAfter((Long) changes.get(1)[0], "m").isEmpty());
+
+        assertEquals(start, changeRepository.findLastSettledId(86_400_000));
+        assertEquals(changeRepository.findLastId(), changeRepository.findLastSettledId(-60_000));
+        assertTrue(changeRepository.findFirstId() > 0);
+    }
+
+    @Test
+    void pruneRemovesOldEntries() {
+        embeddingStore.save(DocType.PUBLICATION, 3L, "m", new float[]{1f, 0f});
+
+        assertEquals(0, changeRepository.deleteOlderThan(LocalDateTime.now().minusDays(1)));
+        assertEquals(1, changeRepository.deleteOlderThan(LocalDateTime.now().plusMinutes(1)));
+    }
+}
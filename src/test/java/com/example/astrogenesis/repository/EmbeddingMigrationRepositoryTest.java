@@ -0,0 +1,89 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.OSDRDataset;
+import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.EmbeddingCodec;
+import com.example.astrogenesis.service.EmbeddingStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static com.example.astrogenesis.repository.RepositoryFixtures.legacyPublication;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON → ikili tablo taşıma sorguları H2 üzerinde.
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(EmbeddingStore.class)
+class EmbeddingMigrationRepositoryTest {
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    @Autowired
+    private OSDRDatasetRepository datasetRepository;
+
+    @Autowired
+    private DocumentEmbeddingRepository embeddingRepository;
+
+    @Autowired
+    private EmbeddingStore embeddingStore;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void pagesOnlyJsonRowsWithoutABinaryVectorForTheModel() {
+        Publication migrated = legacyPublication(publicationRepository, "Migrated", "[1.0, 0.0]");
+        Publication pending = legacyPublication(publicationRepository, "Pending", "[0.0, 1.0]");
+        Publication other = legacyPublication(publicationRepository, "Other", "[0.6, 0.8]");
+        legacyPublication(publicationRepository, "No vector", null);
+        embeddingStore.save(DocType.PUBLICATION, migrated.getId(), "m", new float[]{1f, 0f});
+
+        List<Object[]> page = publicationRepository.findUnmigratedEmbeddings(0L, "m", PageRequest.of(0, 1));
+        assertEquals(1, page.size());
+        assertEquals(pending.getId(), page.get(0)[0]);
+        assertEquals("[0.0, 1.0]", page.get(0)[1]);
+        List<Object[]> next = publicationRepository.findUnmigratedEmbeddings(pending.getId(), "m", PageRequest.of(0, 10));
+        assertEquals(List.of(other.getId()), next.stream().map(r -> (Long) r[0]).toList());
+        // Başka bir model için hepsi taşınmamış sayılır
+        assertEquals(3, publicationRepository.findUnmigratedEmbeddings(0L, "x", PageRequest.of(0, 10)).size());
+
+        OSDRDataset dataset = new OSDRDataset();
+        dataset.setName("OSD-1");
+        dataset.setEmbeddingVector("[0.5, 0.5]");
+        datasetRepository.save(dataset);
+        assertEquals(1, datasetRepository.findUnmigratedEmbeddings(0L, "m", PageRequest.of(0, 10)).size());
+    }
+
+    @Test
+    void readsVectorsByModelAndClearsMigratedJson() {
+        Publication first = legacyPublication(publicationRepository, "First", "[1.0, 0.0]");
+        Publication second = legacyPublication(publicationRepository, "Second", "[0.0, 1.0]");
+        embeddingStore.save(DocType.PUBLICATION, first.getId(), "m", new float[]{1f, 0f});
+        embeddingStore.save(DocType.OSDR, 7L, "m", new float[]{0f, 1f});
+        embeddingStore.save(DocType.PUBLICATION, second.getId(), "x", new float[]{0f, 1f});
+
+        List<Object[]> vectors = embeddingRepository.findVectorsByModel("m");
+        assertEquals(2, vectors.size());
+        Object[] publicationRow = vectors.stream().filter(r -> r[0] == DocType.PUBLICATION).findFirst().orElseThrow();
+        assertEquals(first.getId(), publicationRow[1]);
+        assertArrayEquals(new float[]{1f, 0f}, EmbeddingCodec.fromBytes((byte[]) publicationRow[2]));
+        assertEquals(List.of(first.getId()), embeddingRepository.findDocIds(DocType.PUBLICATION, "m"));
+        assertEquals(List.of(7L), embeddingRepository.findDocIds(DocType.OSDR, "m"));
+
+        assertEquals(1, publicationRepository.clearEmbeddingVectors(List.of(first.getId())));
+        entityManager.clear(); // toplu UPDATE bağlamdaki varlıkları güncellemez
+        assertNull(publicationRepository.findById(first.getId()).orElseThrow().getEmbeddingVector());
+        assertEquals("[0.0, 1.0]", publicationRepository.findById(second.getId()).orElseThrow().getEmbeddingVector());
+    }
+}
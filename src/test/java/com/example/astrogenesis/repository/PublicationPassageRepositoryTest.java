@@ -0,0 +1,75 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.entity.PublicationPassage;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.PaperSection;
+import com.example.astrogenesis.service.EmbeddingStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Pasaj sorguları H2 üzerinde (Postgres'e özgü bir şey kullanılmamalı).
+ */
+@DataJpaTest
+@ActiveProfiles("h2")
+@Import(EmbeddingStore.class)
+class PublicationPassageRepositoryTest {
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    @Autowired
+    private PublicationPassageRepository passageRepository;
+
+    @Autowired
+    private EmbeddingStore embeddingStore;
+
+    @Test
+    void tracksUnsplitPublicationsAndPassagesMissingAModel() {
+        Publication split = publication("Bone loss in microgravity", "bone, ISS");
+        Publication unsplit = publication("Plant growth on the ISS", null);
+
+        PublicationPassage results = passageRepository.save(
+                new PublicationPassage(split.getId(), PaperSection.RESULTS, 0, "Trabecular bone volume decreased."));
+        PublicationPassage discussion = passageRepository.save(
+                new PublicationPassage(split.getId(), PaperSection.DISCUSSION, 1, "Loading countermeasures help."));
+
+        List<Object[]> unsplitRows = passageRepository.findUnsplitPublications(0L, PageRequest.of(0, 10));
+        assertEquals(List.of(unsplit.getId()), unsplitRows.stream().map(r -> (Long) r[0]).toList());
+
+        embeddingStore.save(DocType.PASSAGE, results.getId(), "m", new float[]{1f, 0f});
+        assertEquals(1, passageRepository.countMissingModel("m"));
+        assertEquals(2, passageRepository.countMissingModel("other"));
+
+        List<Object[]> missing = passageRepository.findMissingModel(0L, "m", PageRequest.of(0, 10));
+        assertEquals(1, missing.size());
+        assertEquals(discussion.getId(), missing.get(0)[0]);
+        assertEquals("Bone loss in microgravity", missing.get(0)[1]);
+        assertEquals(PaperSection.DISCUSSION, missing.get(0)[2]);
+        assertTrue(passageRepository.findMissingModel(discussion.getId(), "m", PageRequest.of(0, 10)).isEmpty());
+
+        List<Object[]> metadata = passageRepository.findSearchMetadataByIds(List.of(results.getId()));
+        assertEquals(1, metadata.size());
+        assertEquals(LocalDate.of(2020, 5, 1), metadata.get(0)[1]);
+        assertEquals("bone, ISS", metadata.get(0)[3]);
+        assertEquals(2, passageRepository.findSearchMetadata().size());
+    }
+
+    private Publication publication(String title, String keywords) {
+        Publication publication = new Publication();
+        publication.setTitle(title);
+        publication.setKeywords(keywords);
+        publication.setPublicationDate(LocalDate.of(2020, 5, 1));
+        return publicationRepository.save(publication);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.astrogenesis.repository;
+
+import com.example.astrogenesis.entity.Publication;
+
+/**
+ * Repository testlerinde ortak kayıtlar.
+ */
+final class RepositoryFixtures {
+
+    private RepositoryFixtures() {
+    }
+
+    /** Özeti olan ve {@code embeddingVector} sütununda eski JSON vektörü ({@code json}, null olabilir) taşıyan yayın. */
+    static Publication legacyPublication(PublicationRepository repository, String title, String json) {
+        Publication publication = new Publication();
+        publication.setTitle(title);
+        publication.setSummary(title + " summary");
+        publication.setEmbeddingVector(json);
+        return repository.save(publication);
+    }
+}
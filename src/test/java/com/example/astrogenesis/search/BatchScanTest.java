@@ -0,0 +1,67 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchScanTest {
+
+    private static final int DIM = 32;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void batchMatchesOneQueryAtATime() {
+        Random random = new Random(5);
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int i = 0; i < 2000; i++) builder.add(DocType.PUBLICATION, i, TestVectors.gaussian(random, DIM));
+        VectorIndex store = builder.build();
+
+        // Bir sorgu grubundan fazlası + boyutu tutmayan bir sorgu
+        int n = 150;
+        float[][] queries = new float[n][];
+        for (int q = 0; q < n; q++) queries[q] = EmbeddingCodec.normalize(TestVectors.gaussian(random, DIM));
+        queries[7] = new float[]{1f, 0f};
+
+        BitSet filter = new BitSet();
+        for (int row = 0; row < store.size(); row += 3) filter.set(row);
+
+        assertBatchMatches(store, queries, null);
+        assertBatchMatches(store, queries, filter);
+    }
+
+    @Test
+    public void segmentedStoreReadsEachRowOnceForAllQueries() throws Exception {
+        Random random = new Random(9);
+        try (SegmentManager manager = new SegmentManager(dir, 16, 8)) {
+            SegmentedVectorStore store = manager.open();
+            for (int i = 0; i < 50; i++) store = manager.append(store, DocType.OSDR, i, TestVectors.gaussian(random, DIM));
+            store = manager.append(store, DocType.OSDR, 3, TestVectors.gaussian(random, DIM)); // eski kopya geçersiz
+
+            float[][] queries = new float[5][];
+            for (int q = 0; q < queries.length; q++) queries[q] = EmbeddingCodec.normalize(TestVectors.gaussian(random, DIM));
+            assertBatchMatches(store, queries, null);
+        }
+    }
+
+    private static void assertBatchMatches(VectorStore store, float[][] queries, BitSet filter) {
+        int[][] rows = new int[queries.length][10];
+        float[][] scores = new float[queries.length][10];
+        int[] found = BatchScan.topK(store, queries, filter, rows, scores);
+
+        for (int q = 0; q < queries.length; q++) {
+            int[] expectedRows = new int[10];
+            float[] expectedScores = new float[10];
+            int expected = store.topK(queries[q], 0, store.size(), filter, expectedRows, expectedScores);
+            assertEquals(expected, found[q]);
+            assertArrayEquals(expectedRows, rows[q]);
+            assertArrayEquals(expectedScores, scores[q]);
+        }
+    }
+}
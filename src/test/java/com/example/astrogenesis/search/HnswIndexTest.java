@@ -0,0 +1,68 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HnswIndexTest {
+
+    private static final int DIM = 32;
+
+    @Test
+    public void recallAgainstExactSearchIsHigh() {
+        Random random = new Random(7);
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int i = 0; i < 3000; i++) {
+            builder.add(DocType.PUBLICATION, i, TestVectors.gaussian(random, DIM));
+        }
+        VectorIndex store = builder.build();
+        HnswIndex hnsw = HnswIndex.build(store, 16, 100);
+
+        int k = 10, hits = 0, queries = 50;
+        for (int q = 0; q < queries; q++) {
+            float[] query = EmbeddingCodec.normalize(TestVectors.gaussian(random, DIM));
+            int[] exactRows = new int[k];
+            store.topK(query, exactRows, new float[k]);
+
+            int[] annRows = new int[k];
+            int found = hnsw.search(query, 64, store, annRows, new float[k]);
+            assertEquals(k, found);
+            for (int a = 0; a < k; a++) {
+                for (int e = 0; e < k; e++) {
+                    if (annRows[a] == exactRows[e]) hits++;
+                }
+            }
+        }
+
+        double recall = hits / (double) (queries * k);
+        assertTrue(recall >= 0.9, "recall too low: " + recall);
+    }
+
+    @Test
+    public void incrementalInsertsAreInvisibleToOlderSnapshots() {
+        Random random = new Random(11);
+        VectorIndex store = VectorIndex.empty();
+        HnswIndex hnsw = new HnswIndex(8, 50);
+        for (int i = 0; i < 200; i++) {
+            store = store.append(DocType.OSDR, i, TestVectors.gaussian(random, DIM));
+            hnsw.insert(store.size() - 1, store);
+        }
+        VectorIndex older = store;
+
+        float[] target = TestVectors.gaussian(random, DIM);
+        store = store.append(DocType.OSDR, 999, target);
+        hnsw.insert(store.size() - 1, store);
+
+        float[] query = EmbeddingCodec.normalize(target.clone());
+        int[] rows = new int[1];
+        float[] scores = new float[1];
+
+        assertEquals(1, hnsw.search(query, 32, store, rows, scores));
+        assertEquals(999L, store.docId(rows[0]));
+
+        int found = hnsw.search(query, 32, older, rows, scores);
+        assertTrue(found == 0 || rows[0] < older.size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IndexSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void snapshotRoundTripsVectorsAndHeader() throws Exception {
+        Random random = new Random(8);
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int i = 0; i < 101; i++) {
+            builder.add(i % 3 == 0 ? DocType.OSDR : DocType.PUBLICATION, 1000 + i, TestVectors.gaussian(random, 24));
+        }
+        VectorIndex index = builder.build();
+        Path path = dir.resolve("vectors.snapshot");
+        IndexSnapshot.write(path, "BAAI/bge-small-en-v1.5", new CorpusVersion(101, 123_456_789L), index);
+
+        IndexSnapshot snapshot = IndexSnapshot.load(path);
+        assertEquals("BAAI/bge-small-en-v1.5", snapshot.model());
+        assertEquals(new CorpusVersion(101, 123_456_789L), snapshot.corpusVersion());
+
+        VectorIndex loaded = snapshot.index();
+        assertEquals(index.size(), loaded.size());
+        assertEquals(index.dimension(), loaded.dimension());
+        for (int row = 0; row < index.size(); row++) {
+            assertEquals(index.docId(row), loaded.docId(row));
+            assertEquals(index.docType(row), loaded.docType(row));
+            assertArrayEquals(index.vector(row), loaded.vector(row));
+        }
+
+        // Yüklenen indeks büyümeye devam edebilmeli
+        assertEquals(102, loaded.append(DocType.OSDR, 1, TestVectors.gaussian(random, 24)).size());
+    }
+
+    @Test
+    public void corruptedSnapshotIsRejected() throws Exception {
+        VectorIndex index = VectorIndex.builder().add(DocType.PUBLICATION, 1, TestVectors.gaussian(new Random(1), 24)).build();
+        Path path = dir.resolve("vectors.snapshot");
+        IndexSnapshot.write(path, "m", new CorpusVersion(1, 1), index);
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42}), channel.size() - 3);
+        }
+        assertThrows(IOException.class, () -> IndexSnapshot.load(path));
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetadataIndexTest {
+
+    @Test
+    public void filtersCombineTypeDateCategoryAndKeyword() {
+        Random random = new Random(2);
+        VectorIndex store = VectorIndex.empty();
+        DocumentMetadata[] docs = {
+                new DocumentMetadata(LocalDate.of(2016, 5, 1), null, "Bone loss in microgravity"),
+                new DocumentMetadata(LocalDate.of(2019, 3, 2), null, "ISS rodent bone study"),
+                new DocumentMetadata(LocalDate.of(2020, 1, 1), "ISS", "RR-1 ISS mouse liver"),
+                new DocumentMetadata(null, "Shuttle", "STS-135 plant growth"),
+        };
+        DocType[] types = {DocType.PUBLICATION, DocType.PUBLICATION, DocType.OSDR, DocType.OSDR};
+        for (int i = 0; i < 3; i++) store = store.append(types[i], i, TestVectors.gaussian(random, 16));
+
+        VectorIndex built = store;
+        MetadataIndex metadata = MetadataIndex.build(built, (type, id) -> docs[(int) (long) id]);
+        store = store.append(types[3], 3, TestVectors.gaussian(random, 16));
+        metadata = metadata.append(types[3], docs[3]);
+
+        assertNull(metadata.allowed(SearchFilter.none()));
+        assertEquals(bits(2, 3), metadata.allowed(new SearchFilter(EnumSet.of(DocType.OSDR), null, null, null, null)));
+        assertEquals(bits(1, 2), metadata.allowed(SearchFilter.fromParams(Map.of("from", "2018"))));
+        assertEquals(bits(2), metadata.allowed(SearchFilter.fromParams(Map.of("category", "iss"))));
+        assertEquals(bits(1, 2), metadata.allowed(SearchFilter.fromParams(Map.of("keyword", "ISS"))));
+        assertEquals(bits(1), metadata.allowed(SearchFilter.fromParams(Map.of("keyword", "iss bone", "to", "2019-12-31"))));
+        assertEquals(bits(3), metadata.allowed(SearchFilter.fromParams(Map.of("source", "osdr", "category", "SHUTTLE"))));
+    }
+
+    @Test
+    public void batchAppendMatchesRowByRowAppendAndLeavesTheOldInstanceUnchanged() {
+        DocumentMetadata iss = new DocumentMetadata(LocalDate.of(2020, 1, 1), "ISS", "RR-1 ISS mouse liver");
+        DocumentMetadata shuttle = new DocumentMetadata(null, "Shuttle", "STS-135 plant growth");
+        MetadataIndex base = MetadataIndex.build(VectorIndex.empty(), (type, id) -> null)
+                .append(DocType.PUBLICATION, new DocumentMetadata(null, null, "bone loss"));
+
+        MetadataIndex batch = base.appendAll(DocType.OSDR, Arrays.asList(iss, null, shuttle));
+        MetadataIndex single = base.append(DocType.OSDR, iss).append(DocType.OSDR, null).append(DocType.OSDR, shuttle);
+
+        assertEquals(4, batch.size());
+        for (Map<String, String> params : List.of(Map.<String, String>of(), Map.of("source", "osdr"),
+                Map.of("category", "iss"), Map.of("keyword", "plant"), Map.of("from", "2019"))) {
+            SearchFilter filter = SearchFilter.fromParams(params);
+            assertEquals(single.allowed(filter), batch.allowed(filter), params.toString());
+        }
+        assertEquals(bits(1, 3), batch.allowed(SearchFilter.fromParams(Map.of("source", "osdr"))));
+        assertEquals(bits(), base.allowed(SearchFilter.fromParams(Map.of("source", "osdr"))));
+        assertEquals(bits(), base.allowed(SearchFilter.fromParams(Map.of("keyword", "plant"))));
+    }
+
+    @Test
+    public void rowsWithoutMetadataPassNoFilterAndKeepTheEmptyFilterNull() {
+        Random random = new Random(3);
+        VectorIndex store = VectorIndex.empty();
+        for (int i = 0; i < 3; i++) store = store.append(DocType.PUBLICATION, i, TestVectors.gaussian(random, 16));
+
+        DocumentMetadata bone = new DocumentMetadata(LocalDate.of(2016, 5, 1), null, "bone loss");
+        MetadataIndex complete = MetadataIndex.build(store, (type, id) -> bone);
+        assertNull(complete.allowed(SearchFilter.none()));
+
+        // Boş filtre hep null: bu satırları depoda geçersiz saymak çağıranın işi (HNSW yolu kapanmasın)
+        MetadataIndex metadata = MetadataIndex.build(store, (type, id) -> id == 1 ? null : bone);
+        assertNull(metadata.allowed(SearchFilter.none()));
+        assertEquals(bits(0, 2), metadata.allowed(SearchFilter.fromParams(Map.of("keyword", "bone"))));
+        assertEquals(bits(0, 2), metadata.allowed(SearchFilter.fromParams(Map.of("source", "publication"))));
+
+        metadata = metadata.append(DocType.OSDR, null).append(DocType.OSDR, bone);
+        assertNull(metadata.allowed(SearchFilter.none()));
+        assertEquals(bits(4), metadata.allowed(SearchFilter.fromParams(Map.of("source", "osdr"))));
+        assertEquals(bits(0, 2, 4), metadata.allowed(SearchFilter.fromParams(Map.of("from", "2016"))));
+    }
+
+    @Test
+    public void filteredScanOnlyScoresAllowedRows() {
+        Random random = new Random(4);
+        VectorIndex store = VectorIndex.empty();
+        for (int i = 0; i < 100; i++) store = store.append(DocType.PUBLICATION, i, TestVectors.gaussian(random, 16));
+
+        BitSet allowed = new BitSet();
+        for (int row = 0; row < 100; row += 7) allowed.set(row);
+
+        float[] query = EmbeddingCodec.normalize(TestVectors.gaussian(random, 16));
+        int[] rows = new int[100];
+        float[] scores = new float[100];
+        int found = store.topK(query, 0, store.size(), allowed, rows, scores);
+        assertEquals(allowed.cardinality(), found);
+        for (int i = 0; i < found; i++) assertTrue(allowed.get(rows[i]));
+
+        QuantizedVectors quantized = QuantizedVectors.build(store);
+        found = quantized.search(query, store, allowed, 50, rows, scores);
+        assertEquals(allowed.cardinality(), found);
+        for (int i = 0; i < found; i++) assertTrue(allowed.get(rows[i]));
+    }
+
+    private static BitSet bits(int... rows) {
+        BitSet set = new BitSet();
+        for (int row : rows) set.set(row);
+        return set;
+    }
+}
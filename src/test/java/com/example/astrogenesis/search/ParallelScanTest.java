@@ -0,0 +1,66 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelScanTest {
+
+    private static final int DIM = 32;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void parallelScanMatchesSerialScan() {
+        Random random = new Random(17);
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int i = 0; i < 30000; i++) builder.add(DocType.PUBLICATION, i, TestVectors.gaussian(random, DIM));
+        VectorIndex store = builder.build();
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelScan scan = new ParallelScan(pool, 1);
+            for (int q = 0; q < 10; q++) {
+                float[] query = EmbeddingCodec.normalize(TestVectors.gaussian(random, DIM));
+                int[] expectedRows = new int[10], rows = new int[10];
+                float[] expectedScores = new float[10], scores = new float[10];
+
+                assertEquals(store.topK(query, expectedRows, expectedScores), scan.topK(store, query, null, rows, scores));
+                assertArrayEquals(expectedRows, rows);
+                assertArrayEquals(expectedScores, scores);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void segmentedRangeScanOnlySeesItsRows() throws Exception {
+        Random random = new Random(21);
+        try (SegmentManager manager = new SegmentManager(dir, 10, 8)) {
+            SegmentedVectorStore store = manager.open();
+            for (int i = 0; i < 35; i++) store = manager.append(store, DocType.OSDR, i, TestVectors.gaussian(random, DIM));
+            assertEquals(3, store.segmentCount());
+
+            float[] query = EmbeddingCodec.normalize(TestVectors.gaussian(random, DIM));
+            int[][] ranges = {{0, 35}, {7, 23}, {12, 18}, {30, 35}, {29, 31}};
+            for (int[] range : ranges) {
+                int[] rows = new int[35];
+                float[] scores = new float[35];
+                int found = store.topK(query, range[0], range[1], null, rows, scores);
+                assertEquals(range[1] - range[0], found);
+                for (int i = 0; i < found; i++) {
+                    assertTrue(rows[i] >= range[0] && rows[i] < range[1]);
+                    assertEquals(store.dot(rows[i], query), scores[i], 1e-6);
+                    if (i > 0) assertTrue(scores[i - 1] >= scores[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.astrogenesis.search;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PassageSplitterTest {
+
+    private static final String SENTENCE = "Mice flown on the ISS for thirty days showed reduced trabecular bone volume. ";
+
+    @Test
+    public void splitsJatsBodyIntoLabelledPassages() {
+        String xml = "<pmc-articleset><article><front><abstract><p>Abstract text</p></abstract></front><body>"
+                + "<sec><title>1. Introduction</title><p>" + SENTENCE + "</p></sec>"
+                + "<sec><title>Materials and Methods</title>"
+                + "<sec><title>Animals</title><p>" + SENTENCE + "</p></sec></sec>"
+                + "<sec><title>Results and Discussion</title><p>" + SENTENCE.repeat(30) + "</p>"
+                + "<table-wrap><caption><p>Table caption that must not be indexed</p></caption></table-wrap>"
+                + "<p>" + SENTENCE + "<xref ref-type=\"bibr\">[12]</xref></p></sec>"
+                + "<sec><title>Acknowledgements</title><p>Not applicable.</p></sec>"
+                + "</body></article></pmc-articleset>";
+        Element body = Jsoup.parse(xml, "", Parser.xmlParser()).selectFirst("article > body");
+
+        List<PassageSplitter.Passage> passages = new PassageSplitter(500).split(body);
+
+        assertEquals(PaperSection.INTRODUCTION, passages.get(0).section());
+        assertEquals(PaperSection.METHODS, passages.get(1).section());
+        long results = passages.stream().filter(p -> p.section() == PaperSection.RESULTS).count();
+        assertTrue(results >= 5, "long section is split: " + results);
+        for (PassageSplitter.Passage passage : passages) {
+            assertTrue(passage.text().length() <= 500, passage.text());
+            assertFalse(passage.text().contains("Table caption"));
+            assertFalse(passage.text().contains("[12]"));
+            assertFalse(passage.text().contains("Abstract text"));
+        }
+        // "Not applicable." çok kısa, pasaj sayılmaz
+        assertTrue(passages.stream().noneMatch(p -> p.section() == PaperSection.OTHER));
+    }
+
+    @Test
+    public void flatTextIsPackedUpToTheLimit() {
+        List<PassageSplitter.Passage> passages = new PassageSplitter(300)
+                .splitText(PaperSection.OTHER, SENTENCE.repeat(10));
+
+        assertEquals(4, passages.size()); // 3 + 3 + 3 + 1 cümle
+        assertTrue(passages.stream().allMatch(p -> p.text().length() <= 300));
+        assertTrue(new PassageSplitter(300).splitText(PaperSection.OTHER, "Full text unavailable.").isEmpty());
+    }
+
+    @Test
+    public void classifiesByFirstRecognisedKeyword() {
+        assertEquals(PaperSection.RESULTS, PaperSection.classify("Results and Discussion"));
+        assertEquals(PaperSection.DISCUSSION, PaperSection.classify("Discussion and conclusions"));
+        assertEquals(PaperSection.METHODS, PaperSection.classify("2. Materials & Methods"));
+        assertEquals(PaperSection.CONCLUSION, PaperSection.classify("CONCLUSIONS"));
+        assertEquals(PaperSection.OTHER, PaperSection.classify("Data availability"));
+        assertEquals(PaperSection.OTHER, PaperSection.classify(null));
+    }
+}
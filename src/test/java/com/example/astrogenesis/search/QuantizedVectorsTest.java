@@ -0,0 +1,50 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuantizedVectorsTest {
+
+    private static final int DIM = 384;
+
+    @Test
+    public void recallAt5AgainstExactSearchIsHigh() {
+        Random random = new Random(5);
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int i = 0; i < 2000; i++) {
+            builder.add(DocType.PUBLICATION, i, TestVectors.gaussian(random, DIM));
+        }
+        VectorIndex store = builder.build();
+        QuantizedVectors quantized = QuantizedVectors.build(store);
+
+        double recall = quantized.measureRecall(store, 100, 5, 50, 42L);
+        assertTrue(recall >= 0.95, "recall too low: " + recall);
+        assertTrue(quantized.sizeInBytes() * 3 < (long) store.size() * DIM * Float.BYTES);
+    }
+
+    @Test
+    public void rowsAppendedAfterQuantizationAreScoredExactly() {
+        Random random = new Random(9);
+        VectorIndex store = VectorIndex.empty();
+        for (int i = 0; i < 100; i++) store = store.append(DocType.OSDR, i, TestVectors.gaussian(random, DIM));
+        QuantizedVectors quantized = QuantizedVectors.build(store);
+
+        float[] target = TestVectors.gaussian(random, DIM);
+        store = store.append(DocType.OSDR, 500, target);
+        float[] query = EmbeddingCodec.normalize(target.clone());
+
+        int[] rows = new int[3];
+        float[] scores = new float[3];
+        assertEquals(3, quantized.search(query, store, 10, rows, scores));
+        assertEquals(500L, store.docId(rows[0]));
+
+        quantized = quantized.append(store.vector(store.size() - 1));
+        assertEquals(store.size(), quantized.size());
+        assertEquals(3, quantized.search(query, store, 10, rows, scores));
+        assertEquals(500L, store.docId(rows[0]));
+        assertEquals(1f, scores[0], 1e-4f);
+    }
+}
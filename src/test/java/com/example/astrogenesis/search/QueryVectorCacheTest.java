@@ -0,0 +1,52 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryVectorCacheTest {
+
+    @Test
+    public void equivalentQueriesShareAVectorUntilItExpires() {
+        AtomicLong clock = new AtomicLong();
+        QueryVectorCache cache = new QueryVectorCache(10, Duration.ofSeconds(60), clock::get);
+
+        cache.put("m", "What is microgravity?", new float[]{0.6f, 0.8f});
+        float[] hit = cache.get("m", "  what IS microgravity ");
+        assertArrayEquals(new float[]{0.6f, 0.8f}, hit);
+        assertNull(cache.get("other-model", "What is microgravity?"));
+
+        // Dönen dizi kopya
+        hit[0] = 42f;
+        assertEquals(0.6f, cache.get("m", "what is microgravity")[0]);
+
+        clock.addAndGet(Duration.ofSeconds(61).toNanos());
+        assertNull(cache.get("m", "What is microgravity?"));
+
+        assertEquals(2L, cache.stats().get("hits"));
+        assertEquals(2L, cache.stats().get("misses"));
+        assertEquals(0, cache.stats().get("size"));
+    }
+
+    @Test
+    public void leastRecentlyUsedEntryIsEvicted() {
+        QueryVectorCache cache = new QueryVectorCache(2, Duration.ofMinutes(10));
+        cache.put("m", "a", new float[]{1f});
+        cache.put("m", "b", new float[]{2f});
+        cache.get("m", "a");
+        cache.put("m", "c", new float[]{3f});
+
+        assertNotNull(cache.get("m", "a"));
+        assertNull(cache.get("m", "b"));
+        assertEquals(1L, cache.stats().get("evictions"));
+    }
+
+    @Test
+    public void normalizationIgnoresCasePunctuationAndSpacing() {
+        assertEquals("effects of radiation on mice", QueryVectorCache.normalize("Effects of radiation — on mice?!"));
+        assertEquals("iss plant growth", QueryVectorCache.normalize("ISS:\tplant\n growth."));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RetrievalBenchmarkTest {
+
+    private static final int DIM = 64;
+
+    @Test
+    public void measuresRecallLatencyAndMemoryPerVariant() {
+        Random random = new Random(3);
+        VectorIndex.Builder builder = VectorIndex.builder();
+        for (int i = 0; i < 1000; i++) builder.add(i % 2 == 0 ? DocType.PUBLICATION : DocType.OSDR, i, TestVectors.gaussian(random, DIM));
+        VectorIndex store = builder.build();
+
+        BitSet filter = new BitSet(store.size());
+        for (int row = 0; row < store.size(); row += 3) filter.set(row);
+
+        float[][] queries = RetrievalBenchmark.syntheticQueries(store, 50, 0.05, 42L);
+        assertEquals(50, queries.length);
+        assertArrayEquals(queries[7], RetrievalBenchmark.syntheticQueries(store, 50, 0.05, 42L)[7]);
+
+        List<RetrievalBenchmark.Result> results = new RetrievalBenchmark(store, filter, 10, 1).run(queries, List.of(
+                RetrievalBenchmark.Variant.exact(),
+                RetrievalBenchmark.Variant.exact().withFilter(),
+                RetrievalBenchmark.Variant.quantized(100),
+                RetrievalBenchmark.Variant.quantized(100).withFilter(),
+                RetrievalBenchmark.Variant.hnsw(16, 100, 64)));
+        assertEquals(5, results.size());
+
+        for (RetrievalBenchmark.Result result : results) {
+            assertEquals(50, result.queries());
+            assertTrue(result.p50Ms() <= result.p99Ms());
+            assertTrue(result.memoryBytes() >= (long) store.size() * DIM * Float.BYTES);
+        }
+        assertEquals(1.0, results.get(0).recall());
+        assertEquals(1.0, results.get(1).recall());
+        assertTrue(results.get(1).filtered());
+        assertTrue(results.get(2).recall() >= 0.9, "quantized recall: " + results.get(2).recall());
+        assertTrue(results.get(3).recall() >= 0.9, "filtered quantized recall: " + results.get(3).recall());
+        assertTrue(results.get(4).recall() >= 0.8, "hnsw recall: " + results.get(4).recall());
+        assertTrue(results.get(4).memoryBytes() > results.get(0).memoryBytes());
+    }
+
+    @Test
+    public void hnswHasNoFilteredVariant() {
+        assertThrows(IllegalArgumentException.class, () -> RetrievalBenchmark.Variant.hnsw(16, 100, 64).withFilter());
+    }
+}
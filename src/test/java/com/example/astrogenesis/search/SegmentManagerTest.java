@@ -0,0 +1,96 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SegmentManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void tailIsSealedReplayedAndMerged() throws Exception {
+        Random random = new Random(3);
+        VectorIndex reference = VectorIndex.empty();
+
+        SegmentedVectorStore store;
+        try (SegmentManager manager = new SegmentManager(dir, 10, 2)) {
+            store = manager.open();
+            for (int i = 0; i < 35; i++) {
+                float[] v = TestVectors.gaussian(random, 16);
+                reference = reference.append(DocType.PUBLICATION, i, v);
+                store = manager.append(store, DocType.PUBLICATION, i, v);
+            }
+            assertEquals(3, store.segmentCount()); // 30 mühürlü + 5 kuyrukta
+            assertEquals(35, store.size());
+
+            store = manager.merge(store);
+            assertEquals(2, store.segmentCount());
+            assertEquals(35, store.size());
+        }
+
+        // Yeniden açılış: segmentler map edilir, kuyruk kaydı tekrar oynatılır
+        try (SegmentManager manager = new SegmentManager(dir, 10, 2)) {
+            store = manager.open();
+            assertEquals(35, store.size());
+
+            float[] query = EmbeddingCodec.normalize(TestVectors.gaussian(random, 16));
+            int[] expectedRows = new int[5], rows = new int[5];
+            float[] expectedScores = new float[5], scores = new float[5];
+            reference.topK(query, expectedRows, expectedScores);
+            store.topK(query, rows, scores);
+            for (int i = 0; i < 5; i++) {
+                assertEquals(reference.docId(expectedRows[i]), store.docId(rows[i]));
+                assertEquals(expectedScores[i], scores[i], 1e-6);
+            }
+        }
+    }
+
+    @Test
+    public void newerCopyOfADocumentSupersedesOlderOne() throws Exception {
+        try (SegmentManager manager = new SegmentManager(dir, 1, 8)) {
+            SegmentedVectorStore store = manager.open();
+            store = manager.append(store, DocType.OSDR, 7, new float[]{1f, 0f});
+            store = manager.append(store, DocType.OSDR, 7, new float[]{0f, 1f});
+
+            int[] rows = new int[2];
+            float[] scores = new float[2];
+            assertEquals(1, store.topK(new float[]{0f, 1f}, rows, scores));
+            assertEquals(1f, scores[0], 1e-6);
+        }
+    }
+
+    @Test
+    public void secondWriterOnTheSameDirectoryFailsFast() throws Exception {
+        try (SegmentManager first = new SegmentManager(dir, 10, 8)) {
+            first.open();
+            try (SegmentManager second = new SegmentManager(dir, 10, 8)) {
+                assertThrows(IllegalStateException.class, second::open);
+            }
+        }
+        try (SegmentManager reopened = new SegmentManager(dir, 10, 8)) {
+            assertEquals(0, reopened.open().size()); // kapanışta kilit bırakıldı
+        }
+    }
+
+    @Test
+    public void rowsSupersededByTheCallerStayDeadAfterSealing() throws Exception {
+        try (SegmentManager manager = new SegmentManager(dir, 3, 8)) {
+            SegmentedVectorStore store = manager.open();
+            store = manager.append(store, DocType.PUBLICATION, 1, new float[]{1f, 0f});
+            store = manager.append(store, DocType.PUBLICATION, 2, new float[]{0f, 1f});
+            store = store.supersede(0); // ör. dokümanın metni silindi
+
+            store = manager.append(store, DocType.PUBLICATION, 3, new float[]{1f, 1f}); // kuyruk mühürlenir
+            assertEquals(1, store.segmentCount());
+            assertFalse(store.isLive(0));
+            assertTrue(store.isLive(1));
+            assertTrue(store.isLive(2));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardPartitionTest {
+
+    @Test
+    void everyDocumentBelongsToExactlyOneShard() {
+        int shards = 4;
+        int[] perShard = new int[shards];
+        for (DocType type : DocType.values()) {
+            for (long id = 1; id <= 10_000; id++) {
+                int owners = 0;
+                for (int s = 0; s < shards; s++) {
+                    if (new ShardPartition(s, shards).owns(type, id)) {
+                        owners++;
+                        perShard[s]++;
+                    }
+                }
+                assertEquals(1, owners);
+            }
+        }
+        // Ardışık id'ler de dengeli dağılmalı
+        int expected = DocType.values().length * 10_000 / shards;
+        for (int count : perShard) {
+            assertTrue(count > expected * 0.9 && count < expected * 1.1, "shard size " + count);
+        }
+    }
+
+    @Test
+    void singleShardOwnsEverything() {
+        assertTrue(ShardPartition.single().owns(DocType.OSDR, 42L));
+        assertFalse(ShardPartition.single().isSharded());
+        assertThrows(IllegalArgumentException.class, () -> new ShardPartition(2, 2));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimilarityKernelTest {
+
+    @Test
+    public void selectedKernelMatchesScalarIncludingTails() {
+        SimilarityKernel kernel = SimilarityKernels.get();
+        SimilarityKernel scalar = SimilarityKernels.scalar();
+        // Surefire modülü açar (--add-modules); modül varsa SIMD çekirdeği seçilmiş olmalı
+        boolean vectorApi = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && !"scalar".equalsIgnoreCase(System.getProperty("search.kernel"));
+        assertEquals(vectorApi, kernel.name().startsWith("vector-api"), kernel.name());
+
+        Random random = new Random(3);
+        for (int length : new int[]{1, 3, 7, 8, 17, 64, 383, 384, 1000}) {
+            float[] a = new float[length + 5];
+            float[] b = new float[length];
+            byte[] codes = new byte[length + 2];
+            for (int i = 0; i < a.length; i++) a[i] = (float) random.nextGaussian();
+            for (int i = 0; i < b.length; i++) b[i] = (float) random.nextGaussian();
+            random.nextBytes(codes);
+
+            float expected = scalar.dot(a, 5, b, 0, length);
+            assertEquals(expected, kernel.dot(a, 5, b, 0, length), 1e-3f * (1 + Math.abs(expected)));
+
+            float expectedCodes = scalar.dot(codes, 2, b, length);
+            assertEquals(expectedCodes, kernel.dot(codes, 2, b, length), 1e-3f * (1 + Math.abs(expectedCodes)));
+        }
+    }
+
+    @Test
+    public void scalarKernelComputesDotProduct() {
+        SimilarityKernel scalar = SimilarityKernels.scalar();
+        assertEquals(32f, scalar.dot(new float[]{1, 2, 3, 9}, 0, new float[]{4, 5, 6}, 0, 3), 1e-6f);
+        assertEquals(-4f, scalar.dot(new byte[]{0, -1, 2}, 1, new float[]{6, 1}, 2), 1e-6f);
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.astrogenesis.search;
+
+import java.util.Random;
+
+/**
+ * İndeks testleri için tekrarlanabilir rastgele vektörler.
+ */
+final class TestVectors {
+
+    private TestVectors() {
+    }
+
+    /** Bileşenleri standart normal dağılımdan çekilmiş, normalize edilmemiş vektör. */
+    static float[] gaussian(Random random, int dimension) {
+        float[] v = new float[dimension];
+        for (int i = 0; i < dimension; i++) v[i] = (float) random.nextGaussian();
+        return v;
+    }
+}
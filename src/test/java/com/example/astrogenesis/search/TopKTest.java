@@ -0,0 +1,36 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKTest {
+
+    @Test
+    public void keepsTheBestKInDescendingOrder() {
+        Random random = new Random(1);
+        float[] all = new float[1000];
+        for (int i = 0; i < all.length; i++) all[i] = random.nextFloat();
+
+        for (int k : new int[]{1, 5, 64, 2000}) {
+            int[] rows = new int[k];
+            float[] scores = new float[k];
+            int found = 0;
+            for (int row = 0; row < all.length; row++) {
+                found = TopK.offer(rows, scores, found, k, row, all[row]);
+            }
+            TopK.sortDescending(rows, scores, found);
+
+            float[] expected = all.clone();
+            Arrays.sort(expected);
+            assertEquals(Math.min(k, all.length), found);
+            for (int i = 0; i < found; i++) {
+                assertEquals(expected[expected.length - 1 - i], scores[i]);
+                assertEquals(all[rows[i]], scores[i]);
+            }
+        }
+    }
+}
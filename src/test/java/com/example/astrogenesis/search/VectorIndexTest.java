@@ -0,0 +1,69 @@
+package com.example.astrogenesis.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VectorIndexTest {
+
+    @Test
+    public void topKReturnsHighestCosineFirst() {
+        VectorIndex index = VectorIndex.builder()
+                .add(DocType.PUBLICATION, 1L, new float[]{1f, 0f, 0f})
+                .add(DocType.OSDR, 2L, new float[]{0f, 2f, 0f})
+                .add(DocType.PUBLICATION, 3L, new float[]{3f, 3f, 0f})
+                .add(DocType.PUBLICATION, 4L, new float[]{1f, 1f}) // yanlış boyut → atlanır
+                .build();
+
+        assertEquals(3, index.size());
+
+        float[] query = EmbeddingCodec.normalize(new float[]{0f, 1f, 0f});
+        int[] rows = new int[2];
+        float[] scores = new float[2];
+        int found = index.topK(query, rows, scores);
+
+        assertEquals(2, found);
+        assertEquals(2L, index.docId(rows[0]));
+        assertEquals(DocType.OSDR, index.docType(rows[0]));
+        assertEquals(1.0f, scores[0], 1e-6);
+        assertEquals(3L, index.docId(rows[1]));
+        assertEquals((float) Math.sqrt(0.5), scores[1], 1e-6);
+    }
+
+    @Test
+    public void parseJsonHandlesWhitespaceAndGarbage() {
+        assertArrayEquals(new float[]{0.5f, -1.25f, 3e-2f}, EmbeddingCodec.parseJson("[0.5, -1.25 ,3e-2]"));
+        assertEquals(0, EmbeddingCodec.parseJson("[not, numbers]").length);
+        assertEquals(0, EmbeddingCodec.parseJson(null).length);
+    }
+
+    @Test
+    public void binaryRoundTripIsLittleEndianFloat32() {
+        float[] vector = {1.5f, -0.25f, 3.0e-7f};
+        byte[] bytes = EmbeddingCodec.toBytes(vector);
+
+        assertEquals(12, bytes.length);
+        assertEquals(0x3F, bytes[3] & 0xFF); // 1.5f = 0x3FC00000, en anlamlı bayt sonda
+        assertArrayEquals(vector, EmbeddingCodec.fromBytes(bytes));
+    }
+
+    @Test
+    public void supersededRowsAreHiddenOnlyFromNewerEpochs() {
+        VectorIndex before = VectorIndex.builder()
+                .add(DocType.PUBLICATION, 1L, new float[]{1f, 0f})
+                .add(DocType.PUBLICATION, 2L, new float[]{0f, 1f})
+                .build();
+        // Doküman 1 yeni bir vektörle güncellenir: yeni satır eklenir, eski satır gizlenir
+        VectorIndex after = before.append(DocType.PUBLICATION, 1L, new float[]{0f, -1f}).supersede(0);
+
+        int[] rows = new int[3];
+        float[] scores = new float[3];
+        assertEquals(2, after.topK(new float[]{1f, 0f}, rows, scores));
+        assertFalse(after.isLive(0));
+        assertTrue(after.isLive(2));
+
+        assertEquals(2, before.topK(new float[]{1f, 0f}, rows, scores));
+        assertEquals(0, rows[0]);
+        assertTrue(before.isLive(0));
+    }
+}
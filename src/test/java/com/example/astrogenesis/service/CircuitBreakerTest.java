@@ -0,0 +1,74 @@
+package com.example.astrogenesis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void opensAfterConsecutiveFailuresAndRejectsWhileOpen() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, Duration.ofSeconds(10), clock::get);
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess(); // başarı sayacı sıfırlar
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        clock.addAndGet(9 * SECOND);
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2L, breaker.snapshot().get("rejected"));
+        assertEquals(1000L, breaker.snapshot().get("retryInMs"));
+    }
+
+    @Test
+    public void halfOpenAllowsOneTrialThenClosesOrReopens() {
+        AtomicLong clock = new AtomicLong();
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, Duration.ofSeconds(10), clock::get);
+
+        breaker.onFailure();
+        clock.addAndGet(10 * SECOND);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire()); // deneme sürerken diğerleri reddedilir
+
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+
+        clock.addAndGet(10 * SECOND);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void backoffIsJitteredBelowAnExponentialCeiling() {
+        assertEquals(0, CircuitBreaker.backoffMillis(0, 200, 5000, null, 0.0));
+        assertEquals(100, CircuitBreaker.backoffMillis(0, 200, 5000, null, 0.5));
+        assertEquals(400, CircuitBreaker.backoffMillis(2, 200, 5000, null, 0.5));
+        // Tavan backoff-max ile sınırlı, büyük attempt'te taşma yok
+        assertEquals(5000, CircuitBreaker.backoffMillis(10, 200, 5000, null, 1.0));
+        assertEquals(2500, CircuitBreaker.backoffMillis(100, 200, 5000, null, 0.5));
+    }
+
+    @Test
+    public void retryAfterIsALowerBound() {
+        assertEquals(3000, CircuitBreaker.backoffMillis(0, 200, 5000, Duration.ofSeconds(3), 0.5));
+        assertEquals(2500, CircuitBreaker.backoffMillis(10, 200, 5000, Duration.ofSeconds(1), 0.5));
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.astrogenesis.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmbeddingStoreTest {
+
+    @Test
+    public void legacyJsonIsKeptAfterSwitchingToTheNextModel() {
+        EmbeddingStore store = new EmbeddingStore(null, null, null, "base", "next", true);
+        store.activate("next");
+
+        // Migrator base model JSON'unu silmemeli; yeni modelin vektörleri JSON'a yazılmamalı
+        assertTrue(store.keepsLegacyJson());
+        assertTrue(store.writesLegacyJson("base"));
+        assertFalse(store.writesLegacyJson("next"));
+    }
+
+    @Test
+    public void legacyJsonOffClearsAndNeverWrites() {
+        EmbeddingStore store = new EmbeddingStore(null, null, null, "base", "", false);
+
+        assertFalse(store.keepsLegacyJson());
+        assertFalse(store.writesLegacyJson("base"));
+    }
+}
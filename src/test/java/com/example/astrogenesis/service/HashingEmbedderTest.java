@@ -0,0 +1,37 @@
+package com.example.astrogenesis.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HashingEmbedderTest {
+
+    @Test
+    public void producesDeterministicUnitVectors() {
+        HashingEmbedder embedder = new HashingEmbedder(384);
+        float[] a = embedder.embed("Microgravity induced bone loss in mice");
+        float[] b = new HashingEmbedder(384).embed("microgravity-induced BONE loss in mice!");
+
+        assertEquals(384, a.length);
+        assertArrayEquals(a, b, 1e-6f);
+        assertEquals(1.0, dot(a, a), 1e-5);
+        assertNull(embedder.embed(" ?! "));
+    }
+
+    @Test
+    public void lexicallyCloserTextsScoreHigher() {
+        HashingEmbedder embedder = new HashingEmbedder(384);
+        float[] query = embedder.embed("bone density loss during spaceflight");
+        float[] related = embedder.embed("Spaceflight causes loss of bone mineral density in astronauts");
+        float[] unrelated = embedder.embed("Arabidopsis root growth under altered light conditions");
+
+        assertTrue(dot(query, related) > dot(query, unrelated) + 0.2,
+                dot(query, related) + " vs " + dot(query, unrelated));
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) sum += a[i] * b[i];
+        return sum;
+    }
+}
@@ -1,18 +1,89 @@
-
 package com.example.astrogenesis.service;
 
+import com.example.astrogenesis.entity.OSDRDataset;
+import com.example.astrogenesis.entity.Publication;
+import com.example.astrogenesis.entity.PublicationPassage;
+import com.example.astrogenesis.repository.OSDRDatasetRepository;
+import com.example.astrogenesis.repository.PublicationPassageRepository;
+import com.example.astrogenesis.repository.PublicationRepository;
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.PaperSection;
+import com.example.astrogenesis.search.RetrievedDocument;
+import com.example.astrogenesis.search.SearchFilter;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+import java.util.HashSet;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * RAG getirme yolu uçtan uca, ağsız: H2 + {@code offline} profili (süreç içi embedding) → backfill → indeks.
+ */
 @SpringBootTest
+@ActiveProfiles({"offline", "h2"})
 public class SemanticSearchServiceTest {
 
     @Autowired
     private SemanticSearchService semanticSearchService;
 
+    @Autowired
+    private SemanticIndexService semanticIndexService;
+
+    @Autowired
+    private PublicationService publicationService;
+
+    @Autowired
+    private OSDREmbeddingService osdrEmbeddingService;
+
+    @Autowired
+    private PassageService passageService;
+
+    @Autowired
+    private EmbeddingStore embeddingStore;
+
+    @Autowired
+    private PublicationPassageRepository passageRepository;
+
+    @Autowired
+    private PublicationRepository publicationRepository;
+
+    @Autowired
+    private OSDRDatasetRepository datasetRepository;
+
+    @BeforeEach
+    public void seedCorpus() {
+        if (publicationRepository.count() > 0) return;
+
+        Publication bone = publication("Microgravity induces pelvic bone loss through osteoclastic activity",
+                "Spaceflight microgravity causes rapid bone loss in mice through osteoclast activity and osteocytic osteolysis.");
+        passageRepository.saveAll(List.of(
+                new PublicationPassage(bone.getId(), PaperSection.RESULTS, 0,
+                        "Pelvic bone loss in microgravity was driven by osteoclast numbers rising along the bone surface."),
+                new PublicationPassage(bone.getId(), PaperSection.DISCUSSION, 1,
+                        "Microgravity bone loss combines osteoclastic resorption with osteocytic osteolysis."),
+                new PublicationPassage(bone.getId(), PaperSection.CONCLUSION, 2,
+                        "Countermeasures for microgravity bone loss should target osteoclast activity.")));
+        publication("Plant root growth on the International Space Station",
+                "Arabidopsis roots grown in orbit show altered gravitropism and cell wall gene expression.");
+        publication("Skeletal muscle atrophy during long-duration spaceflight",
+                "Unloading during spaceflight reduces muscle fiber size and force in rodent hindlimbs.");
+        publication("Galactic cosmic radiation and neuronal damage",
+                "Heavy ion radiation exposure impairs hippocampal neurons and cognition in mice.");
+        publication("Untitled record without text", " ");
+        dataset("OSD-1", "Bone density and bone loss of mice flown in microgravity on a 30-day mission.");
+        dataset("OSD-2", "Transcriptome of Arabidopsis seedlings grown in spaceflight.");
+
+        publicationService.generateMissingEmbeddings();
+        osdrEmbeddingService.generateMissingEmbeddings();
+        passageService.embedMissing(embeddingStore.model());
+        semanticIndexService.rebuild();
+    }
+
     @Test
     public void testFindRelevantTexts() {
         // 🚀 1. Arama sorgusu belirle
@@ -31,4 +102,74 @@ public class SemanticSearchServiceTest {
         // 🚀 4. Basit doğrulama (manuel)
         assert results != null && !results.isEmpty() : "No relevant records found — embeddings may not be used!";
     }
+
+    @Test
+    public void ranksLexicallyClosestDocumentsFirstAcrossSources() {
+        List<RetrievedDocument> documents = semanticSearchService.findRelevantDocuments("microgravity bone loss", 3);
+
+        assertEquals(3, documents.size());
+        List<String> topTwo = documents.subList(0, 2).stream().map(RetrievedDocument::title).toList();
+        assertTrue(topTwo.contains("Microgravity induces pelvic bone loss through osteoclastic activity"), topTwo.toString());
+        assertTrue(topTwo.contains("OSD-1"), topTwo.toString());
+        assertTrue(documents.stream().anyMatch(d -> d.hit().type() == DocType.OSDR));
+        documents.forEach(d -> assertFalse(d.text() == null || d.text().isBlank(), d.title()));
+    }
+
+    @Test
+    public void embeddedBatchIsIndexedInOneEpochWithoutRebuild() {
+        Publication radiation = publicationRepository.findAll().stream()
+                .filter(p -> p.getTitle().startsWith("Galactic")).findFirst().orElseThrow();
+        passageRepository.saveAll(List.of(
+                new PublicationPassage(radiation.getId(), PaperSection.RESULTS, 0,
+                        "Lens opacity and cataract formation increased after heavy ion exposure."),
+                new PublicationPassage(radiation.getId(), PaperSection.DISCUSSION, 1,
+                        "Cataract risk should be weighed for crews beyond low Earth orbit.")));
+        long epoch = semanticIndexService.state().epoch();
+
+        assertEquals(2, passageService.embedMissing(embeddingStore.model()));
+
+        // Parti tek olayla gelir: tek epoch, iki yeni satır
+        assertEquals(epoch + 1, semanticIndexService.state().epoch());
+        List<RetrievedDocument> documents = semanticSearchService.findRelevantDocuments("cataract lens opacity", 1);
+        assertEquals(radiation.getTitle(), documents.get(0).title());
+        assertNotNull(documents.get(0).section());
+    }
+
+    @Test
+    public void documentsWithoutTextDoNotTakeTopKSlots() {
+        // Metinsiz yayın başlığıyla embed edildi; sorgu en çok ona benzer ama indekste olmamalı
+        List<RetrievedDocument> documents = semanticSearchService.findRelevantDocuments("untitled record without text", 6);
+
+        assertEquals(6, documents.size());
+        assertTrue(documents.stream().noneMatch(d -> d.title().startsWith("Untitled")));
+    }
+
+    @Test
+    public void returnsOneResultPerPaperAcrossAbstractAndPassages() {
+        List<RetrievedDocument> documents = semanticSearchService.findRelevantDocuments("microgravity bone loss osteoclast", 4);
+
+        assertEquals(4, documents.size());
+        List<String> titles = documents.stream().map(RetrievedDocument::title).toList();
+        assertEquals(4, new HashSet<>(titles).size(), titles.toString());
+
+        List<List<RetrievedDocument>> batch = semanticSearchService.findRelevantDocuments(
+                List.of("microgravity bone loss osteoclast"), 4, SearchFilter.none());
+        assertEquals(titles, batch.get(0).stream().map(RetrievedDocument::title).toList());
+    }
+
+    private Publication publication(String title, String summary) {
+        Publication publication = new Publication();
+        publication.setTitle(title);
+        publication.setSummary(summary);
+        publication.setLink("https://www.ncbi.nlm.nih.gov/pmc/articles/PMC" + (publicationRepository.count() + 1));
+        return publicationRepository.save(publication);
+    }
+
+    private void dataset(String name, String description) {
+        OSDRDataset dataset = new OSDRDataset();
+        dataset.setName(name);
+        dataset.setDescription(description);
+        dataset.setCategory("Space Biology");
+        datasetRepository.save(dataset);
+    }
 }
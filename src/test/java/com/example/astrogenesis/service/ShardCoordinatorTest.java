@@ -0,0 +1,86 @@
+package com.example.astrogenesis.service;
+
+import com.example.astrogenesis.search.DocType;
+import com.example.astrogenesis.search.RetrievalMode;
+import com.example.astrogenesis.search.SearchFilter;
+import com.example.astrogenesis.search.ShardedSearchResult;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Koordinatörü yerel HTTP sunucularıyla taklit edilen işçilere karşı çalıştırır.
+ */
+class ShardCoordinatorTest {
+
+    private final List<HttpServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void stop() {
+        servers.forEach(server -> server.stop(0));
+    }
+
+    @Test
+    void mergesTopKAcrossShards() throws IOException {
+        String a = worker("m", "[{\"id\":1,\"type\":\"PUBLICATION\",\"score\":0.9},{\"id\":3,\"type\":\"OSDR\",\"score\":0.4}]", 0);
+        String b = worker("m", "[{\"id\":2,\"type\":\"PUBLICATION\",\"score\":0.7},{\"id\":4,\"type\":\"PUBLICATION\",\"score\":0.6}]", 0);
+
+        ShardedSearchResult result = new ShardCoordinator(a + "," + b, 2000)
+                .search(new float[]{1f, 0f}, "m", 3, RetrievalMode.EXACT, SearchFilter.none());
+
+        assertFalse(result.isPartial());
+        assertEquals(List.of(1L, 2L, 4L), result.hits().stream().map(h -> h.id()).toList());
+        assertEquals(DocType.PUBLICATION, result.hits().get(1).type());
+    }
+
+    @Test
+    void reportsSlowAndMismatchedShardsAsPartial() throws IOException {
+        String fast = worker("m", "[{\"id\":1,\"type\":\"PUBLICATION\",\"score\":0.9}]", 0);
+        String slow = worker("m", "[{\"id\":2,\"type\":\"PUBLICATION\",\"score\":0.95}]", 4000);
+        String otherModel = worker("x", "[{\"id\":3,\"type\":\"PUBLICATION\",\"score\":0.99}]", 0);
+
+        long start = System.currentTimeMillis();
+        ShardedSearchResult result = new ShardCoordinator(fast + "," + slow + "," + otherModel, 1000)
+                .search(new float[]{1f, 0f}, "m", 5, RetrievalMode.EXACT, SearchFilter.none());
+
+        assertTrue(System.currentTimeMillis() - start < 3000, "waits at most about one shard timeout");
+        assertTrue(result.isPartial());
+        assertEquals(1, result.answeredShards(), result.failedShards().toString());
+        assertEquals(2, result.failedShards().size());
+        assertEquals(List.of(1L), result.hits().stream().map(h -> h.id()).toList());
+    }
+
+    private String worker(String model, String hits, long delayMs) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/shard/search", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = ("{\"model\":\"" + model + "\",\"hits\":" + hits + "}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (IOException ignored) {
+                // koordinatör zaman aşımında bağlantıyı bırakmış olabilir
+            }
+        });
+        server.start();
+        servers.add(server);
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+}
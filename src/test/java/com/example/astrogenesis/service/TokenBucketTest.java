@@ -0,0 +1,55 @@
+package com.example.astrogenesis.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    public void spendsTheBurstThenPacesAtTheRate() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(2, 10, 3, clock::get);
+
+        for (int i = 0; i < 3; i++) assertEquals(0, bucket.tryAcquire());
+        assertEquals(SECOND / 2, bucket.tryAcquire(), SECOND / 1000);
+
+        clock.addAndGet(SECOND / 2);
+        assertEquals(0, bucket.tryAcquire());
+        assertTrue(bucket.tryAcquire() > 0);
+    }
+
+    @Test
+    public void throttlingHalvesTheRateAndHonoursRetryAfter() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucket bucket = new TokenBucket(8, 8, 4, clock::get);
+
+        bucket.onThrottle(Duration.ofSeconds(3));
+        assertEquals(4, bucket.rate(), 1e-9);
+        assertEquals(3 * SECOND, bucket.tryAcquire());
+
+        // Durma bitince biriken token yok: ilk istek hemen değil, yeni hızla
+        clock.addAndGet(3 * SECOND);
+        assertEquals(SECOND / 4, bucket.tryAcquire(), SECOND / 1000);
+
+        for (int i = 0; i < 100; i++) bucket.onSuccess();
+        assertEquals(8, bucket.rate(), 1e-9);
+    }
+
+    @Test
+    public void parsesRetryAfterSecondsAndDates() {
+        ZonedDateTime now = ZonedDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        assertEquals(Duration.ofSeconds(120), TokenBucket.parseRetryAfter("120", now));
+        assertEquals(Duration.ofSeconds(30), TokenBucket.parseRetryAfter("Mon, 01 Jan 2024 12:00:30 GMT", now));
+        assertEquals(Duration.ZERO, TokenBucket.parseRetryAfter("Mon, 01 Jan 2024 11:00:00 GMT", now));
+        assertNull(TokenBucket.parseRetryAfter("soon", now));
+        assertNull(TokenBucket.parseRetryAfter(null, now));
+    }
+}